@@ -1,333 +1,1485 @@
-/**
- * This package defines the core table extraction classes
- */
-package edu.psu.seersuite.extractors.tableextractor.extraction;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.jdom.*;
-import org.jdom.output.Format;
-import org.jdom.output.XMLOutputter;
-
-import edu.psu.seersuite.extractors.tableextractor.model.Table;
-import edu.psu.seersuite.extractors.tableextractor.*;
-
-/**
- * This class extracts tables in the batch mode. The input should be a directory instead of a single PDF file. 
- * The directory can contain multiple/one PDF files.
- * <p>
- * The BatchExtractor class represents a batch mode for extracting tables from PDF files. 
- * This class leverages the table extraction APIs provided in the class TableExtractor to extract tables 
- * through a command line shown as below.
- * <p>
- **
- * Usage: BatchExtractor [pdf-dir-path] [output-dir-path] [parser] <p>
- *         [pdf-dir-path]: the directory contains all pdf files. <p>    
- *         [output-dir-path]: the directory stored all extracted table in XML format. <p>
- *         [parser]: the PDF parser options: PDFBox or TET. <p>
- * <p> 
- * This class provides the capability to extract the tables from massive PDF achieves. The output directory
- * stores all extracted tables in the XML format for display purpose. 
- * <p>
- * A user can also define and store the tables in a customized format.
- * <p>
- * @author Shuyi, Ying
- * 
- */
-public class BatchExtractor
-{
-    /**
-     * Main entry
-     * 
-     * @param args
-     *        command line parameters: 
-     *            the path of the PDF directory, 
-     *            the path of the table header row training model,
-     *            the path of the table header column training model,
-     *            the path of the output, 
-     *            the PDF parser types, 
-     *            the debug mode, and the test mode.
-     * @throws IOException
-     */
-    public static void main(String[] args) throws IOException
-    {
-    	if (args.length == 5)
-		{
-		    String pdfDirPath = args[0];
-		    String rowModelPath = args[1];
-		    String colModelPath = args[2];
-		    String outputDirPath = args[3];
-		    String parserType = args[4];			    
-		    extractTables(pdfDirPath, rowModelPath, colModelPath, outputDirPath, parserType);
-		}
-		else if (args.length == 6)
-		{
-			 String pdfDirPath = args[0];
-			 String rowModelPath = args[1];
-			 String colModelPath = args[2];
-		     String outputDirPath = args[3];
-			 String parserType = args[4];	
-		    if (args[5].compareTo("--debug") == 0){
-		    	Config.DEBUG_MODE = true;
-		    }
-		    else if (args[5].compareTo("--small") == 0){
-		    	Config.SMALL_TEST = true;
-		    }
-		    extractTables(pdfDirPath, rowModelPath, colModelPath, outputDirPath, parserType);
-		}
-		else
-		{
-		    showUsage();
-		}
-    }
-
-    /**
-     * Extracts tables from all PDFs in a directory
-     * 
-     * @param pdfDirPath
-     *            the directory path of the PDF documents to be processed
-     * @param outputDirPath
-     *            output directory path where the extracted metadata and other result files will be saved into
-     * @param parserType
-     * 			   the name of the PDF text extraction tools.
-     * @throws FileNotFoundException
-     * @throws IOException
-     **/
-    @SuppressWarnings("unchecked")
-    private static void extractTables(
-	    String pdfDirPath,
-	    String rowModelPath,
-	    String colModelPath,
-	    String outputDirPath,
-	    String parserType) throws IOException 
-	{  	
-		/*
-		 *  directory existence check
-		 */
-		File pdfDir = new File(pdfDirPath);
-		if (!pdfDir.exists())
-		{
-		    System.out.printf("[Error] %s does not exist\n", pdfDirPath);
-		    return;
-		}
-	
-		/*
-		 *  must be a directory
-		 */
-		if (!pdfDir.isDirectory())
-		{
-		    System.out.printf("[Error] %s is not a directory\n", pdfDirPath);
-		    return;
-		}
-	
-		/*
-		 *  Creates the output directory if not exist
-		 */
-		File outputDir = new File(outputDirPath);
-		if (!outputDir.exists())
-		{
-		    outputDir.mkdirs();
-		    System.out.printf("[Info] output dir %s created\n", outputDirPath);
-		}
-	
-		/*
-		 *  to output the XML files
-		 */
-		File xmlDir = new File(outputDirPath, "xml");
-		if (!xmlDir.exists())
-		{
-		    xmlDir.mkdirs();
-		    System.out.printf("[Info] xml dir %s created\n", xmlDir);
-		}
-	
-		TableExtractor extractor = new TableExtractor();
-	
-		/*
-		 *  Sets PDF parser. Now we have two parsers: PDFBOX or TET. Other parsers can be easily added here. 
-		 */
-		IPdfParser parser = null;
-	
-		if (parserType.compareToIgnoreCase("pdfbox") == 0)
-		{
-		    try{
-		    	parser = new PdfBoxParser();
-		    }
-		    catch (IOException e){
-				System.out.printf("[Error] PDFBox parser cannot be created\n");
-				return;
-		    }
-		    extractor.setParser(parser);
-		}
-		else
-		{
-		    System.out.printf("[Error] %s is not a correct parser name\n", parserType);
-		    return;
-		}
-	
-		PdfFileFilter filter = new PdfFileFilter();
-		File[] pdfFiles = pdfDir.listFiles(filter);
-		System.out.printf("[Info] %d PDF documents found\n", pdfFiles.length);
-	
-		/*
-		 *  Main loop over files
-		 */
-		int success = 0;
-		int fail = 0;
-		int tableCount = 0;
-	
-		XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-		XMLOutputter rawOutputter = new XMLOutputter(Format.getCompactFormat());
-	
-		File mysqlInFile = new File(outputDir, "mysql-infile");
-		PrintWriter mysqlInFileWriter = new PrintWriter(new FileOutputStream(mysqlInFile));
-	
-		int i = 0;
-		for (File pdfFile : pdfFiles)
-		{
-		    /*
-		     *  handling one file each time
-		     */
-		    try{
-		    	ArrayList<Table> extractedTableSet = extractor.extract(pdfFile, rowModelPath, colModelPath, outputDirPath);
-				if (extractedTableSet != null)
-				{
-				    /*
-				     * Writes new standard XML
-				     */
-				    String xmlFileName = pdfFile.getName().replaceFirst(".pdf", ".xml");
-				    File xmlFile = new File(xmlDir, xmlFileName);
-				    PrintWriter xmlWriter = new PrintWriter(new FileOutputStream(xmlFile));
-		
-				    Document xmlDoc = extractor.getXMLDoc();		
-				    outputter.output(xmlDoc, xmlWriter);		
-				    xmlWriter.close();
-		
-				    tableCount += extractor.getDocInfo().getTableNum();
-				    success++;
-		
-				    Element xRoot = xmlDoc.getRootElement();
-				    Element xTables = xRoot.getChild("tables");		
-				    String paperid = xRoot.getAttributeValue("id");
-		
-				    if (xTables != null)
-				    {
-				    	List<Element> tableRecords = xTables.getChildren();
-				    	for (Element tableRecord : tableRecords)
-				    	{
-				    		String id = paperid + "-" + tableRecord.getAttributeValue("id");
-				    		String caption = "";
-				    		String content = "";
-				    		String footNote = "";
-				    		String refText = "";
-				    		String pageNumInDoc = "\\N";
-		
-				    		Element xTable = tableRecord.getChild("table");
-				    		if (xTable != null){
-				    			content = cleanString(rawOutputter.outputString(xTable));
-				    		}
-		
-				    		Element xCaption = tableRecord.getChild("caption");
-				    		if (xCaption != null){
-				    			caption = cleanString(xCaption.getText());
-				    		}
-		
-				    		Element xFootNote = tableRecord.getChild("footnote");
-				    		if (xFootNote != null){
-				    			footNote = cleanString(xFootNote.getText());
-				    		}
-		
-				    		Element xRefText = tableRecord.getChild("referenceText");
-				    		if (xRefText != null){
-				    			refText = cleanString(xRefText.getText());
-				    		}
-		
-				    		Element xPageNumInDoc = tableRecord.getChild("pageNumInDoc");
-				    		if (xPageNumInDoc != null){
-				    			pageNumInDoc = xPageNumInDoc.getText();
-				    		}
-		
-				    		String line =  id + "\t" + caption + "\t" + content + "\t" + footNote + "\t"
-				    			+ refText + "\t" + paperid + "\t" + pageNumInDoc + "\n";
-				    		mysqlInFileWriter.write(line);
-				    	}	
-				    }
-				}
-				else{
-				    fail++;
-				}
-		    }catch (Exception e){
-		    	System.out.printf( "[Error] unhandled exception of %s\n",pdfFile.getName());
-		    	System.err.printf("----- %s -----\n", pdfFile.getName());
-		    	System.err.printf("%s\n", e.getMessage());
-		    	e.printStackTrace();	
-		    	fail++;
-		    }
-	
-		    i++;
-	
-		    if (Config.SMALL_TEST && i >= 10){
-		    	break;
-		    }
-		}
-	
-		mysqlInFileWriter.close();
-	
-		/*
-		 * Prints the summary information after processing all the PDF documents. 
-		 */
-		File summaryFile = new File(outputDir, "summary");
-		PrintWriter summaryWriter = null;
-		try{
-		    summaryWriter = new PrintWriter(new FileOutputStream(summaryFile));
-		    summaryWriter.write("total=" + pdfFiles.length + "\n");
-		    summaryWriter.write("success=" + success + "\n");
-		    summaryWriter.write("fail=" + fail + "\n");
-		    summaryWriter.write("table=" + tableCount + "\n");
-		}
-		catch (FileNotFoundException e){
-		    // ignore
-		}
-		finally{
-		    if (summaryWriter != null){
-		    	summaryWriter.close();
-		    }
-		}
-	
-		System.out.printf("--------------------\n");
-		System.out.printf("success=%d\n", success);
-		System.out.printf("fail=%d\n", fail);
-		System.out.printf("--------------------\n");
-	}
-	
-	/**
-	 * Shows usages by displaying the information on the screen, such as the PDF path, output path, the PDF parser, process mode, etc.  
-	 */
-    private static void showUsage()
-    {
-		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser>");
-		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser> --debug");
-		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser> --small");
-		System.out.println("\tparser= pdfbox | tet");
-    }
-
-    /**
-     * Cleans the special symbols (e.g., "\t", "\n") in a string
-     * @param str
-     *        the string to be checked
-     * @return the cleaned string
-     */
-    private static String cleanString(String str)
-    {
-		String result = str;
-		result = result.replace("\r", "");
-		result = result.replace("\n", "");
-		result = result.replace("\t", "");
-		return result;
-    }
-}
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.jdom.*;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+
+import edu.psu.seersuite.extractors.tableextractor.*;
+
+/**
+ * This class extracts tables in the batch mode. The input should be a directory instead of a single PDF file. 
+ * The directory can contain multiple/one PDF files.
+ * <p>
+ * The BatchExtractor class represents a batch mode for extracting tables from PDF files. 
+ * This class leverages the table extraction APIs provided in the class TableExtractor to extract tables 
+ * through a command line shown as below.
+ * <p>
+ **
+ * Usage: BatchExtractor [pdf-dir-path] [output-dir-path] [parser] <p>
+ *         [pdf-dir-path]: the directory contains all pdf files. <p>    
+ *         [output-dir-path]: the directory stored all extracted table in XML format. <p>
+ *         [parser]: the PDF parser options: PDFBox or TET. <p>
+ * <p> 
+ * This class provides the capability to extract the tables from massive PDF achieves. The output directory
+ * stores all extracted tables in the XML format for display purpose. 
+ * <p>
+ * A user can also define and store the tables in a customized format.
+ * <p>
+ * @author Shuyi, Ying
+ * 
+ */
+public class BatchExtractor
+{
+    /**
+     * Main entry
+     * 
+     * @param args
+     *        command line parameters: 
+     *            the path of the PDF directory, 
+     *            the path of the table header row training model or model file,
+     *            the path of the table header column training model or model file,
+     *            the path of the output, 
+     *            the PDF parser types, 
+     *            the debug mode, the test mode, the classification batch (--batch=page or --batch=document),
+     *            the cascade heading detection (--cascade or --cascade=threshold),
+     *            the triage limits (--max-pages=N, --max-size=MB, --no-text-layer),
+     *            the budgets of a document (--max-time=seconds, --max-memory=MB),
+     *            the parsed text cache (--cache=dir, --cache-size=MB, --cache-age=days),
+     *            the parallel workers (--threads=N, --queue=N, --page-threads=N),
+     *            the staged pipeline (--pipeline=parse,layout,detect threads, --queue=N),
+     *            the processing of all the documents again instead of resuming the batch (--no-resume, see 
+     *            BatchJournal),
+     *            the nodes of a sharded batch (--shard=index/count, --leases[=dir], --lease-time=seconds, 
+     *            --node=name, see DocumentLeases and ShardMerger),
+     *            the supervised worker processes (--workers=N, --worker-heap=MB, --worker-docs=N, 
+     *            --worker-timeout=seconds, --max-crashes=N, see WorkerProcess),
+     *            and a properties file of the configuration (--config=file, see ExtractionConfig), whose settings are
+     *            overridden by the other options.
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException
+    {
+    	if (args.length == 5)
+		{
+		    String pdfDirPath = args[0];
+		    String rowModelPath = args[1];
+		    String colModelPath = args[2];
+		    String outputDirPath = args[3];
+		    String parserType = args[4];			    
+		    extractTables(pdfDirPath, rowModelPath, colModelPath, outputDirPath, parserType, new ExtractionConfig(), 
+		    		null, 1, 2, null, true, null, null);
+		}
+		else if (args.length > 5)
+		{
+			 String pdfDirPath = args[0];
+			 String rowModelPath = args[1];
+			 String colModelPath = args[2];
+		     String outputDirPath = args[3];
+			 String parserType = args[4];	
+			 Properties settings = new Properties();	//the settings of the ExtractionConfig
+			 String cacheDirPath = null;
+			 long cacheSize = ParsedTextCache.DEFAULT_MAX_SIZE;
+			 long cacheAge = ParsedTextCache.DEFAULT_MAX_AGE;
+			 int threadNum = 1;
+			 int queueSize = -1;
+			 int[] stageThreadNums = null;	//the threads of the pipeline stages / null (no pipeline)
+			 boolean resume = true;
+			 Sharding sharding = new Sharding();
+			 boolean sharded = false;
+			 Supervision supervision = new Supervision();
+			 /*
+			  *  the configuration file first, so that the other options override its settings
+			  */
+			 for (int i = 5; i < args.length; i++) {
+			    if (args[i].startsWith("--config=")){
+			    	try{
+			    		settings.putAll(ExtractionConfig.load(new File(args[i].substring("--config=".length()))).toProperties());
+			    	}
+			    	catch (IOException e){
+			    		System.out.printf("[Error] %s\n", e.getMessage());
+			    		return;
+			    	}
+			    	catch (IllegalArgumentException e){
+			    		System.out.printf("[Error] %s\n", e.getMessage());
+			    		return;
+			    	}
+			    }
+			 }
+			 for (int i = 5; i < args.length; i++) {
+			    if (args[i].startsWith("--config=")){
+			    	// already loaded
+			    }
+			    else if (args[i].compareTo("--debug") == 0){
+			    	settings.setProperty(ExtractionConfig.DEBUG, "true");
+			    }
+			    else if (args[i].compareTo("--small") == 0){
+			    	settings.setProperty(ExtractionConfig.SMALL, "true");
+			    }
+			    else if (args[i].startsWith("--batch=")){
+			    	settings.setProperty(ExtractionConfig.BATCH, args[i].substring("--batch=".length()));
+			    }
+			    else if (args[i].compareTo("--cascade") == 0){
+			    	settings.setProperty(ExtractionConfig.HEADING, "cascade");
+			    }
+			    else if (args[i].startsWith("--cascade=")){
+			    	settings.setProperty(ExtractionConfig.HEADING, "cascade");
+			    	settings.setProperty(ExtractionConfig.CASCADE_THRESHOLD, args[i].substring("--cascade=".length()));
+			    }
+			    else if (args[i].startsWith("--max-pages=")){
+			    	settings.setProperty(ExtractionConfig.MAX_PAGES, args[i].substring("--max-pages=".length()));
+			    }
+			    else if (args[i].startsWith("--max-size=")){
+			    	settings.setProperty(ExtractionConfig.MAX_SIZE, args[i].substring("--max-size=".length()));
+			    }
+			    else if (args[i].startsWith("--max-time=")){
+			    	settings.setProperty(ExtractionConfig.MAX_TIME, args[i].substring("--max-time=".length()));
+			    }
+			    else if (args[i].startsWith("--max-memory=")){
+			    	settings.setProperty(ExtractionConfig.MAX_MEMORY, args[i].substring("--max-memory=".length()));
+			    }
+			    else if (args[i].compareTo("--no-text-layer") == 0){
+			    	settings.setProperty(ExtractionConfig.TEXT_LAYER_REQUIRED, "false");
+			    }
+			    else if (args[i].compareTo("--no-resume") == 0){
+			    	resume = false;
+			    }
+			    else if (args[i].startsWith("--workers=")){
+			    	long n = parseLimit(args[i], "--workers=");
+			    	if (n < 1 || n > 1024){
+			    		showUsage();
+			    		return;
+			    	}
+			    	supervision.workerNum = (int) n;
+			    }
+			    else if (args[i].startsWith("--worker-heap=")){
+			    	supervision.heapSize = parseLimit(args[i], "--worker-heap=");
+			    	if (supervision.heapSize < 0){
+			    		showUsage();
+			    		return;
+			    	}
+			    }
+			    else if (args[i].startsWith("--worker-docs=")){
+			    	long n = parseLimit(args[i], "--worker-docs=");
+			    	if (n < 0 || n > Integer.MAX_VALUE){
+			    		showUsage();
+			    		return;
+			    	}
+			    	supervision.recycleDocNum = (int) n;
+			    }
+			    else if (args[i].startsWith("--worker-timeout=")){
+			    	long timeout = parseLimit(args[i], "--worker-timeout=");
+			    	if (timeout < 0){
+			    		showUsage();
+			    		return;
+			    	}
+			    	supervision.timeout = timeout * 1000;
+			    }
+			    else if (args[i].startsWith("--max-crashes=")){
+			    	long n = parseLimit(args[i], "--max-crashes=");
+			    	if (n < 1 || n > 100){
+			    		showUsage();
+			    		return;
+			    	}
+			    	supervision.maxCrashes = (int) n;
+			    }
+			    else if (args[i].startsWith("--shard=")){
+			    	String[] shard = args[i].substring("--shard=".length()).split("/");
+			    	long index = (shard.length == 2) ? parseLimit("=" + shard[0], "=") : -1;
+			    	long count = (shard.length == 2) ? parseLimit("=" + shard[1], "=") : -1;
+			    	if (index < 0 || count < 1 || index >= count || count > Integer.MAX_VALUE){
+			    		showUsage();
+			    		return;
+			    	}
+			    	sharding.index = (int) index;
+			    	sharding.count = (int) count;
+			    	sharded = true;
+			    }
+			    else if (args[i].compareTo("--leases") == 0){
+			    	sharding.leaseDirPath = new File(outputDirPath, "leases").getPath();
+			    	sharded = true;
+			    }
+			    else if (args[i].startsWith("--leases=")){
+			    	sharding.leaseDirPath = args[i].substring("--leases=".length());
+			    	sharded = true;
+			    }
+			    else if (args[i].startsWith("--lease-time=")){
+			    	long leaseTime = parseLimit(args[i], "--lease-time=");
+			    	if (leaseTime < 1){
+			    		showUsage();
+			    		return;
+			    	}
+			    	sharding.leaseTime = leaseTime * 1000;
+			    }
+			    else if (args[i].startsWith("--node=")){
+			    	sharding.node = args[i].substring("--node=".length());
+			    	if (sharding.node.length() == 0 || sharding.node.contains("/") || sharding.node.contains(File.separator)){
+			    		showUsage();
+			    		return;
+			    	}
+			    }
+			    else if (args[i].startsWith("--cache=")){
+			    	cacheDirPath = args[i].substring("--cache=".length());
+			    }
+			    else if (args[i].startsWith("--cache-size=")){
+			    	cacheSize = parseLimit(args[i], "--cache-size=");
+			    	if (cacheSize < 0){
+			    		showUsage();
+			    		return;
+			    	}
+			    	cacheSize = cacheSize * 1024 * 1024;
+			    }
+			    else if (args[i].startsWith("--cache-age=")){
+			    	cacheAge = parseLimit(args[i], "--cache-age=");
+			    	if (cacheAge < 0){
+			    		showUsage();
+			    		return;
+			    	}
+			    	cacheAge = cacheAge * 24 * 3600 * 1000;
+			    }
+			    else if (args[i].startsWith("--page-threads=")){
+			    	settings.setProperty(ExtractionConfig.PAGE_THREADS, args[i].substring("--page-threads=".length()));
+			    }
+			    else if (args[i].startsWith("--threads=")){
+			    	long n = parseLimit(args[i], "--threads=");
+			    	if (n < 1 || n > 1024){
+			    		showUsage();
+			    		return;
+			    	}
+			    	threadNum = (int) n;
+			    }
+			    else if (args[i].startsWith("--pipeline=")){
+			    	String[] nums = args[i].substring("--pipeline=".length()).split(",");
+			    	stageThreadNums = new int[3];
+			    	for (int stage = 0; stage < 3; stage++){
+			    		long n = (nums.length == 3) ? parseLimit("=" + nums[stage], "=") : -1;
+			    		if (n < 1 || n > 1024){
+			    			showUsage();
+			    			return;
+			    		}
+			    		stageThreadNums[stage] = (int) n;
+			    	}
+			    }
+			    else if (args[i].startsWith("--queue=")){
+			    	long n = parseLimit(args[i], "--queue=");
+			    	if (n < 1 || n > 1 << 16){
+			    		showUsage();
+			    		return;
+			    	}
+			    	queueSize = (int) n;
+			    }
+			    else {
+			    	showUsage();
+			    	return;
+			    }
+			 }
+			 ExtractionConfig config;
+			 try{
+			    config = new ExtractionConfig(settings);
+			 }
+			 catch (IllegalArgumentException e){
+			    System.out.printf("[Error] %s\n", e.getMessage());
+			    showUsage();
+			    return;
+			 }
+			 ParsedTextCache parsedTextCache = null;
+			 if (cacheDirPath != null){
+			    try{
+			    	parsedTextCache = new ParsedTextCache(new File(cacheDirPath), cacheSize, cacheAge);
+			    }
+			    catch (IOException e){
+			    	System.out.printf("[Error] %s\n", e.getMessage());
+			    	return;
+			    }
+			 }
+		    if (queueSize < 0)
+		    	queueSize = (stageThreadNums != null) ? 2 * Math.max(stageThreadNums[0], 
+		    			Math.max(stageThreadNums[1], stageThreadNums[2])) : 2 * threadNum;
+		    if (sharded && sharding.node == null){
+		    	sharding.node = (sharding.leaseDirPath == null) ? "shard-" + sharding.index 
+		    			: InetAddress.getLocalHost().getHostName();
+		    }
+		    extractTables(pdfDirPath, rowModelPath, colModelPath, outputDirPath, parserType, config, parsedTextCache, 
+		    		threadNum, queueSize, stageThreadNums, resume, sharded ? sharding : null, 
+		    		(supervision.workerNum > 0) ? supervision : null);
+		}
+		else
+		{
+		    showUsage();
+		}
+    }
+
+    /**
+     * Extracts tables from all PDFs in a directory
+     * 
+     * @param pdfDirPath
+     *            the directory path of the PDF documents to be processed
+     * @param outputDirPath
+     *            output directory path where the extracted metadata and other result files will be saved into
+     * @param parserType
+     * 			   the name of the PDF text extraction tools: pdfbox (one glyph per character) or pdfbox-words (word runs).
+     * @param config
+     * 			   the configuration of the run: heading detection, triage limits, debug and test triggers, etc.
+     * @param parsedTextCache
+     * 			   the cache of the parsed documents / null (every document is parsed)
+     * @param threadNum
+     * 			   the number of worker threads / 1 (the documents are processed by the calling thread)
+     * @param queueSize
+     * 			   the number of documents queued for the worker threads, or for each stage of the pipeline
+     * @param stageThreadNums
+     * 			   the numbers of threads of the parse, layout and detect stages of an ExtractionPipeline / null (no 
+     * 			   pipeline: the documents are processed by the worker threads)
+     * @param resume
+     * 			   whether the documents completed by a previous run in the journal of the output directory are 
+     * 			   skipped, and the outputs appended / false (all the documents are processed, and the outputs 
+     * 			   replaced)
+     * @param sharding
+     * 			   the shard and the node of a sharded batch / null (the batch is not sharded)
+     * @param supervision
+     * 			   the settings of the worker processes / null (the documents are processed in this JVM)
+     * @throws FileNotFoundException
+     * @throws IOException
+     **/
+    private static void extractTables(
+	    String pdfDirPath,
+	    String rowModelPath,
+	    String colModelPath,
+	    String outputDirPath,
+	    String parserType,
+	    ExtractionConfig config,
+	    ParsedTextCache parsedTextCache,
+	    int threadNum,
+	    int queueSize,
+	    int[] stageThreadNums,
+	    boolean resume,
+	    Sharding sharding,
+	    Supervision supervision) throws IOException 
+	{  	
+		/*
+		 *  directory existence check
+		 */
+		File pdfDir = new File(pdfDirPath);
+		if (!pdfDir.exists())
+		{
+		    System.out.printf("[Error] %s does not exist\n", pdfDirPath);
+		    return;
+		}
+	
+		/*
+		 *  must be a directory
+		 */
+		if (!pdfDir.isDirectory())
+		{
+		    System.out.printf("[Error] %s is not a directory\n", pdfDirPath);
+		    return;
+		}
+	
+		/*
+		 *  Creates the output directory if not exist
+		 */
+		File outputDir = new File(outputDirPath);
+		if (!outputDir.exists())
+		{
+		    outputDir.mkdirs();
+		    System.out.printf("[Info] output dir %s created\n", outputDirPath);
+		}
+	
+		/*
+		 *  to output the XML files
+		 */
+		File xmlDir = new File(outputDirPath, "xml");
+		if (!xmlDir.exists())
+		{
+		    xmlDir.mkdirs();
+		    System.out.printf("[Info] xml dir %s created\n", xmlDir);
+		}
+	
+		/*
+		 *  Builds (.arff training models) or loads (binary model files) the header row/column classifiers once for
+		 *  the whole batch instead of once per table. A model file of the wrong features stops the batch.
+		 */
+		if (!HeaderModelRegistry.preload(rowModelPath, FeatureSchema.ROW)
+			|| !HeaderModelRegistry.preload(colModelPath, FeatureSchema.COL))
+		{
+		    System.out.printf("[Error] invalid header model, no table is extracted\n");
+		    return;
+		}
+	
+		/*
+		 *  Checks the PDF parser. Now we have two parsers: PDFBOX or TET. Other parsers can be easily added here. 
+		 */
+		if (parserType.compareToIgnoreCase("pdfbox") != 0 && parserType.compareToIgnoreCase("pdfbox-words") != 0)
+		{
+		    System.out.printf("[Error] %s is not a correct parser name\n", parserType);
+		    return;
+		}
+		boolean wordRuns = parserType.compareToIgnoreCase("pdfbox-words") == 0;
+	
+		PdfFileFilter filter = new PdfFileFilter();
+		File[] pdfFiles = pdfDir.listFiles(filter);
+		System.out.printf("[Info] %d PDF documents found\n", pdfFiles.length);
+		int batchDocNum = (config.isSmallTest()) ? Math.min(10, pdfFiles.length) : pdfFiles.length;
+		File[] batchFiles = pdfFiles;
+	
+		/*
+		 *  A node of a sharded batch writes its journal, mysql-infile and summary in its own directory, and the XML
+		 *  files in the shared one; ShardMerger merges the nodes. With static shards, the node processes its shard;
+		 *  with leases, it processes its shard first, and then the documents the other nodes have not claimed.
+		 */
+		File nodeDir = outputDir;
+		DocumentLeases leases = null;
+		if (sharding != null)
+		{
+		    nodeDir = new File(new File(outputDir, ShardMerger.SHARDS_DIR), sharding.node);
+		    if (!nodeDir.isDirectory() && !nodeDir.mkdirs())
+		    {
+		    	System.out.printf("[Error] cannot create the node dir %s\n", nodeDir);
+		    	return;
+		    }
+		    if (sharding.leaseDirPath != null){
+		    	leases = new DocumentLeases(new File(sharding.leaseDirPath), sharding.node, sharding.leaseTime);
+		    }
+		    ArrayList<File> shardFiles = new ArrayList<File>();
+		    ArrayList<File> otherFiles = new ArrayList<File>();
+		    for (int i = 0; i < batchDocNum; i++){
+		    	if (getShard(batchFiles[i], sharding.count) == sharding.index)
+		    		shardFiles.add(batchFiles[i]);
+		    	else if (leases != null)
+		    		otherFiles.add(batchFiles[i]);
+		    }
+		    System.out.printf("[Info] %d PDF documents in shard %d/%d of node %s\n", shardFiles.size(), 
+		    		sharding.index, sharding.count, sharding.node);
+		    shardFiles.addAll(otherFiles);
+		    batchFiles = shardFiles.toArray(new File[shardFiles.size()]);
+		    batchDocNum = batchFiles.length;
+		}
+	
+		/*
+		 *  The journal of the completed documents. The mysql-infile is cut back to the tables of the documents of
+		 *  the journal, and appended. A journal written with other settings, models or parser is not resumed.
+		 */
+		BatchJournal journal = new BatchJournal(new File(nodeDir, "journal"), resume, 
+				computeFingerprint(config, rowModelPath, colModelPath, parserType));
+		if (journal.isFingerprintChanged())
+		    System.out.printf("[Info] the journal was written with other settings, models or parser: all the PDF documents are processed again\n");
+		File mysqlInFile = new File(nodeDir, "mysql-infile");
+		RandomAccessFile mysqlInFileCut = new RandomAccessFile(mysqlInFile, "rw");
+		try{
+		    mysqlInFileCut.setLength(Math.min(mysqlInFileCut.length(), Math.max(0, journal.getOutputOffset())));
+		}
+		finally{
+		    mysqlInFileCut.close();
+		}
+		DocumentWriter writer = new DocumentWriter(xmlDir, new FileOutputStream(mysqlInFile, true), journal, leases, 
+				parsedTextCache);
+		TableExtractor extractor = new TableExtractor(config);	//shared by the workers
+	
+		/*
+		 *  Skips the documents completed by a previous run
+		 */
+		File[] roundFiles = new File[batchDocNum];
+		int docNum = 0;
+		for (int i = 0; i < batchDocNum; i++){
+		    if (!resume || !journal.isCompleted(batchFiles[i]))
+		    	roundFiles[docNum++] = batchFiles[i];
+		}
+		if (docNum < batchDocNum)
+		    System.out.printf("[Info] %d PDF documents already completed\n", batchDocNum - docNum);
+	
+		/*
+		 *  With leases, the documents claimed by other nodes are checked again in the next rounds, until they are
+		 *  done: the leases of the nodes which stopped are taken over.
+		 */
+		if (leases != null)
+		    leases.start();
+		String pipelineStatistics = null;
+		while (true)
+		{
+		    if (stageThreadNums != null && supervision == null)
+		    {
+		    	try{
+		    		pipelineStatistics = extractWithPipeline(roundFiles, docNum, writer, leases, extractor, 
+		    				stageThreadNums, queueSize, rowModelPath, colModelPath, outputDirPath, parsedTextCache, 
+		    				wordRuns);
+		    		if (pipelineStatistics == null){
+		    			writer.close();
+		    			return;
+		    		}
+		    	}
+		    	catch (InterruptedException e){
+		    		writer.close();
+		    		Thread.currentThread().interrupt();
+		    		throw new InterruptedIOException("batch interrupted");
+		    	}
+		    }
+		    else if (threadNum <= 1 && supervision == null)
+		    {
+		    	/*
+		    	 *  Main loop over files. The tables are drawn in debug mode, as SWT is only used from this thread.
+		    	 */
+		    	extractor.setTreeDrawing(config.isDebugMode() && config.getPageThreads() <= 1);
+		    	DocumentWorker worker = new DocumentWorker(extractor, rowModelPath, colModelPath, outputDirPath,
+		    			parsedTextCache, wordRuns);
+		    	if (!worker.open()){
+		    		writer.close();
+		    		return;
+		    	}
+		    	for (int i = 0; i < docNum; i++)
+		    	{
+		    		if (leases == null || leases.claim(roundFiles[i]))
+		    			writer.write(worker.extract(i, roundFiles[i]));
+		    	}
+		    	worker.close();
+		    }
+		    else
+		    {
+		    	/*
+		    	 *  The worker threads, each with its own parser, or each driving a worker process
+		    	 */
+		    	DocumentWorker[] workers;
+		    	if (supervision != null){
+		    		List<String> command = WorkerProcess.buildCommand(supervision.heapSize, rowModelPath, colModelPath,
+		    				outputDirPath, parserType, config);
+		    		workers = new DocumentWorker[supervision.workerNum];
+		    		for (int t = 0; t < workers.length; t++)
+		    			workers[t] = new SupervisedWorker("worker-" + t, command, supervision, nodeDir);
+		    	}
+		    	else{
+		    		workers = new DocumentWorker[threadNum];
+		    		for (int t = 0; t < workers.length; t++)
+		    			workers[t] = new DocumentWorker(extractor, rowModelPath, colModelPath, outputDirPath, 
+		    					parsedTextCache, wordRuns);
+		    	}
+		    	try{
+		    		if (!extractInParallel(roundFiles, docNum, writer, leases, workers, queueSize)){
+		    			writer.close();
+		    			return;
+		    		}
+		    	}
+		    	catch (InterruptedException e){
+		    		writer.close();
+		    		Thread.currentThread().interrupt();
+		    		throw new InterruptedIOException("batch interrupted");
+		    	}
+		    }
+		    if (leases == null)
+		    	break;
+		    roundFiles = leases.getUncompleted(roundFiles, docNum);
+		    docNum = roundFiles.length;
+		    if (docNum == 0)
+		    	break;
+		    System.out.printf("[Info] %d PDF documents claimed by other nodes, waiting for them\n", docNum);
+		    try{
+		    	Thread.sleep(leases.getPollTime());
+		    }
+		    catch (InterruptedException e){
+		    	writer.close();
+		    	Thread.currentThread().interrupt();
+		    	throw new InterruptedIOException("batch interrupted");
+		    }
+		}
+		writer.close();
+	
+		/*
+		 *  The summary counts the documents of the journal, with the ones of the previous runs
+		 */
+		writeSummary(new File(nodeDir, "summary"), pdfFiles.length, journal, parsedTextCache);
+		int success = journal.getCount(BatchJournal.SUCCESS);
+		int fail = journal.getCount(BatchJournal.FAIL);
+		int timeout = journal.getCount(BatchJournal.TIMEOUT);
+		int overMemory = journal.getCount(BatchJournal.OVER_MEMORY);
+		TreeMap<String, Integer> rejects = journal.getRejects();
+		HeadingStatistics headingStatistics = journal.getHeadingStatistics();
+	
+		System.out.printf("--------------------\n");
+		System.out.printf("success=%d\n", success);
+		System.out.printf("fail=%d\n", fail);
+		System.out.printf("timeout=%d\n", timeout);
+		System.out.printf("overmemory=%d\n", overMemory);
+		System.out.printf("%s", headingStatistics);
+		for (String rejectReason : rejects.keySet()){
+			System.out.printf("rejected_%s=%d\n", rejectReason, rejects.get(rejectReason));
+		}
+		if (parsedTextCache != null){
+			System.out.printf("cache_hit=%d\n", parsedTextCache.getHitNum());
+			System.out.printf("cache_miss=%d\n", parsedTextCache.getMissNum());
+		}
+		if (pipelineStatistics != null){
+			System.out.printf("%s", pipelineStatistics);
+		}
+		System.out.printf("--------------------\n");
+	}
+
+    /**
+     * Writes the summary of a batch, which counts the documents of its journal
+     * 
+     * @param summaryFile
+     *            the summary file
+     * @param total
+     *            the number of PDF documents of the batch
+     * @param journal
+     *            the journal of the batch
+     * @param parsedTextCache
+     *            the cache of the parsed documents / null
+     */
+    static void writeSummary(File summaryFile, int total, BatchJournal journal, ParsedTextCache parsedTextCache)
+    {
+		TreeMap<String, Integer> rejects = journal.getRejects();
+		PrintWriter summaryWriter = null;
+		try{
+		    summaryWriter = new PrintWriter(new FileOutputStream(summaryFile));
+		    summaryWriter.write("total=" + total + "\n");
+		    summaryWriter.write("success=" + journal.getCount(BatchJournal.SUCCESS) + "\n");
+		    summaryWriter.write("fail=" + journal.getCount(BatchJournal.FAIL) + "\n");
+		    summaryWriter.write("timeout=" + journal.getCount(BatchJournal.TIMEOUT) + "\n");
+		    summaryWriter.write("overmemory=" + journal.getCount(BatchJournal.OVER_MEMORY) + "\n");
+		    summaryWriter.write("table=" + journal.getTableNum() + "\n");
+		    summaryWriter.write(journal.getHeadingStatistics().toString());
+		    for (String rejectReason : rejects.keySet()){
+		    	summaryWriter.write("rejected_" + rejectReason + "=" + rejects.get(rejectReason) + "\n");
+		    }
+		    if (parsedTextCache != null){
+		    	summaryWriter.write("cache_hit=" + parsedTextCache.getHitNum() + "\n");
+		    	summaryWriter.write("cache_miss=" + parsedTextCache.getMissNum() + "\n");
+		    }
+		}
+		catch (FileNotFoundException e){
+		    // ignore
+		}
+		finally{
+		    if (summaryWriter != null){
+		    	summaryWriter.close();
+		    }
+		}
+    }
+
+    /**
+     * Computes the fingerprint of the outputs of a batch: the SHA-1 of its settings, of its model files and of its
+     * parser. The settings which do not change the tables of a document (debug, small and page-threads) are left out.
+     * 
+     * @param config
+     *            the configuration of the batch
+     * @param rowModelPath
+     *            the path of the row model file
+     * @param colModelPath
+     *            the path of the column model file
+     * @param parserType
+     *            the name of the parser
+     * @return the fingerprint, in hexadecimal
+     * @throws IOException
+     *             if SHA-1 is not available
+     */
+    static String computeFingerprint(ExtractionConfig config, String rowModelPath, String colModelPath, 
+	    String parserType) throws IOException
+    {
+		Properties settings = config.toProperties();
+		settings.remove(ExtractionConfig.DEBUG);
+		settings.remove(ExtractionConfig.SMALL);
+		settings.remove(ExtractionConfig.PAGE_THREADS);
+		StringBuilder text = new StringBuilder();
+		for (Object key : new TreeMap<Object, Object>(settings).keySet()){
+		    text.append(key).append('=').append(settings.get(key)).append('\n');
+		}
+		for (String modelPath : new String[] { rowModelPath, colModelPath }){
+		    String hash;
+		    try{
+		    	hash = BatchJournal.computeHash(new File(modelPath));
+		    }
+		    catch (IOException e){
+		    	hash = "-";
+		    }
+		    text.append("model=").append(hash).append('\n');
+		}
+		text.append("parser=").append(parserType.toLowerCase()).append('/').append(PdfBoxParser.VERSION).append('\n');
+		return BatchJournal.computeHash(text.toString());
+    }
+
+    /**
+     * Gets the static shard of a document: the hash of its file name, so that every node computes the same shards
+     * from its own listing of the directory
+     * 
+     * @param pdfFile
+     *            the document
+     * @param shardCount
+     *            the number of shards
+     * @return the shard, from 0 to shardCount - 1
+     */
+    static int getShard(File pdfFile, int shardCount)
+    {
+		return (pdfFile.getName().hashCode() & 0x7fffffff) % shardCount;
+    }
+
+    /**
+     * Extracts the tables of the documents with several worker threads. The workers share the TableExtractor, each
+     * with its own parser (or each drives a worker process), and each takes the next document from a bounded queue; the calling thread is the only writer of the output,
+     * and writes the documents in their order, as the sequential batch does.
+     * <p>
+     * At most threadNum + queueSize documents are in flight (queued, extracted, or extracted and waiting for the
+     * documents before them to be written), which bounds the memory held by the results.
+     * 
+     * @param pdfFiles
+     *            the documents
+     * @param docNum
+     *            the number of documents to process, from the first one
+     * @param writer
+     *            the writer of the output
+     * @param leases
+     *            the leases of the documents shared with other nodes / null (all the documents are processed)
+     * @param workers
+     *            the workers, one per thread: DocumentWorkers sharing a TableExtractor, or SupervisedWorkers
+     * @param queueSize
+     *            the number of documents queued for the workers
+     * @return a boolean value: true (all the documents are processed) / false (a worker can not be opened)
+     * @throws IOException
+     *             if the output can not be written
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    private static boolean extractInParallel(
+	    final File[] pdfFiles,
+	    final int docNum,
+	    DocumentWriter writer,
+	    final DocumentLeases leases,
+	    DocumentWorker[] workers,
+	    int queueSize) throws IOException, InterruptedException
+	{
+		int threadNum = workers.length;
+		final ArrayBlockingQueue<Integer> workQueue = new ArrayBlockingQueue<Integer>(queueSize);
+		final LinkedBlockingQueue<DocumentResult> resultQueue = new LinkedBlockingQueue<DocumentResult>();
+		final Semaphore inFlight = new Semaphore(threadNum + queueSize);
+		final int workerNum = threadNum;
+	
+		/*
+		 *  The workers, which are opened on their own threads
+		 */
+		Thread[] threads = new Thread[threadNum];
+		for (int t = 0; t < threadNum; t++)
+		{
+		    final DocumentWorker worker = workers[t];
+		    threads[t] = new Thread("extractor-" + t){
+		    	public void run(){
+		    		if (!worker.open()){
+		    			resultQueue.add(new DocumentResult(-1, null));
+		    			return;
+		    		}
+		    		try{
+		    			while (true){
+		    				int index = workQueue.take();
+		    				if (index < 0)
+		    					break;
+		    				resultQueue.add(worker.extract(index, pdfFiles[index]));
+		    			}
+		    		}
+		    		catch (InterruptedException e){
+		    			// the batch is stopped
+		    		}
+		    		catch (Error e){
+		    			DocumentResult result = new DocumentResult(-1, null);
+		    			result.error = e;
+		    			resultQueue.add(result);
+		    		}
+		    		finally{
+		    			worker.close();
+		    		}
+		    	}
+		    };
+		    threads[t].setDaemon(true);
+		    threads[t].start();
+		}
+	
+		/*
+		 *  The producer, which queues the documents in their order, and then one end mark per worker; a document
+		 *  claimed by another node goes straight to the writer, which skips it
+		 */
+		Thread producer = new Thread("producer"){
+		    public void run(){
+		    	try{
+		    		for (int i = 0; i < docNum; i++){
+		    			inFlight.acquire();
+		    			if (leases == null || leases.claim(pdfFiles[i]))
+		    				workQueue.put(i);
+		    			else
+		    				resultQueue.add(DocumentResult.skip(i, pdfFiles[i]));
+		    		}
+		    		for (int t = 0; t < workerNum; t++){
+		    			workQueue.put(-1);
+		    		}
+		    	}
+		    	catch (InterruptedException e){
+		    		// the batch is stopped
+		    	}
+		    }
+		};
+		producer.setDaemon(true);
+		producer.start();
+	
+		/*
+		 *  The ordered writer: a result which arrives before the ones of the previous documents waits for them
+		 */
+		TreeMap<Integer, DocumentResult> pendingResults = new TreeMap<Integer, DocumentResult>();
+		int next = 0;
+		try{
+		    while (next < docNum)
+		    {
+		    	DocumentResult result = resultQueue.take();
+		    	if (result.error != null)
+		    		throw result.error;
+		    	if (result.index < 0)
+		    		return false;
+		    	pendingResults.put(result.index, result);
+		    	while (pendingResults.containsKey(next))
+		    	{
+		    		writer.write(pendingResults.remove(next));
+		    		inFlight.release();
+		    		next++;
+		    	}
+		    }
+		    for (Thread thread : threads){
+		    	thread.join();
+		    }
+		    return true;
+		}
+		finally{
+		    if (next < docNum){
+		    	producer.interrupt();
+		    	for (Thread thread : threads){
+		    		thread.interrupt();
+		    	}
+		    }
+		}
+	}
+
+    /**
+     * Extracts the tables of the documents with an ExtractionPipeline: a producer thread submits the documents, and 
+     * the calling thread, the output stage, takes their results in their order, formats and writes them, while the 
+     * next documents are parsed, laid out and detected by the threads of the other stages.
+     * 
+     * @param pdfFiles
+     *            the documents
+     * @param docNum
+     *            the number of documents to process, from the first one
+     * @param writer
+     *            the writer of the output
+     * @param leases
+     *            the leases of the documents shared with other nodes / null (all the documents are processed)
+     * @param extractor
+     *            the extractor shared by the documents
+     * @param stageThreadNums
+     *            the numbers of threads of the parse, layout and detect stages
+     * @param queueSize
+     *            the number of documents queued for each stage
+     * @return the statistics of the stages / null (a parser can not be created)
+     * @throws IOException
+     *             if the output can not be written
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    private static String extractWithPipeline(
+	    final File[] pdfFiles,
+	    final int docNum,
+	    DocumentWriter writer,
+	    final DocumentLeases leases,
+	    TableExtractor extractor,
+	    int[] stageThreadNums,
+	    int queueSize,
+	    final String rowModelPath,
+	    final String colModelPath,
+	    final String outputDirPath,
+	    ParsedTextCache parsedTextCache,
+	    boolean wordRuns) throws IOException, InterruptedException
+	{
+		final ExtractionPipeline pipeline;
+		try{
+		    pipeline = new ExtractionPipeline(extractor, stageThreadNums[0], stageThreadNums[1], stageThreadNums[2],
+		    		queueSize, wordRuns, parsedTextCache);
+		}
+		catch (IOException e){
+		    System.out.printf("[Error] PDFBox parser cannot be created\n");
+		    return null;
+		}
+	
+		/*
+		 *  The producer, which submits the documents in their order, waiting while too many are in flight, and
+		 *  tells the output stage which documents are claimed by other nodes and skipped
+		 */
+		final LinkedBlockingQueue<Boolean> submitted = new LinkedBlockingQueue<Boolean>();
+		Thread producer = new Thread("producer"){
+		    public void run(){
+		    	try{
+		    		for (int i = 0; i < docNum; i++){
+		    			if (leases != null && !leases.claim(pdfFiles[i])){
+		    				submitted.add(false);
+		    				continue;
+		    			}
+		    			pipeline.submit(new ExtractionRequest(pdfFiles[i], rowModelPath, colModelPath, outputDirPath, 
+		    					null));
+		    			submitted.add(true);
+		    		}
+		    		pipeline.shutdown();
+		    	}
+		    	catch (InterruptedException e){
+		    		// the batch is stopped
+		    	}
+		    }
+		};
+		producer.setDaemon(true);
+		producer.start();
+	
+		/*
+		 *  The output stage
+		 */
+		XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+		XMLOutputter rawOutputter = new XMLOutputter(Format.getCompactFormat());
+		int next = 0;
+		try{
+		    for (; next < docNum; next++)
+		    {
+		    	DocumentResult result;
+		    	try{
+		    		if (!submitted.take())
+		    			continue;
+		    		result = formatResult(next, pdfFiles[next], pipeline.take(), outputter, rawOutputter);
+		    	}
+		    	catch (ExecutionException e){
+		    		result = new DocumentResult(next, pdfFiles[next]);
+		    		result.exception = (Exception) e.getCause();
+		    	}
+		    	catch (RuntimeException e){
+		    		result = new DocumentResult(next, pdfFiles[next]);
+		    		result.exception = e;
+		    	}
+		    	writer.write(result);
+		    }
+		    producer.join();
+		    return pipeline.toString();
+		}
+		finally{
+		    if (next < docNum){
+		    	producer.interrupt();
+		    	pipeline.shutdownNow();
+		    }
+		}
+	}
+
+	/**
+	 * Shows usages by displaying the information on the screen, such as the PDF path, output path, the PDF parser, process mode, etc.  
+	 */
+    private static void showUsage()
+    {
+		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser>");
+		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser> --debug");
+		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser> --small");
+		System.out.println("BatchExtractor <pdf-dir-path> <row-model-dir> <column-model-dir> <output-dir-path> <parser> [--debug] [--small] [--batch=page | --batch=document] [--cascade[=threshold]] [--max-pages=N] [--max-size=MB] [--max-time=seconds] [--max-memory=MB] [--no-text-layer] [--cache=dir [--cache-size=MB] [--cache-age=days]] [--threads=N [--queue=N]] [--pipeline=P,L,D [--queue=N]] [--page-threads=N] [--no-resume] [--shard=index/count] [--leases[=dir] [--lease-time=seconds]] [--node=name] [--workers=N [--worker-heap=MB] [--worker-docs=N] [--worker-timeout=seconds] [--max-crashes=N]] [--config=file]");
+		System.out.println("\tparser= pdfbox | pdfbox-words");
+		System.out.println("\t\tpdfbox-words: the parser groups the characters into word runs, which are faster to combine into lines");
+		System.out.println("\t--batch: classify the header rows/columns of all the tables of a page or a document together");
+		System.out.println("\t--cascade: detect the headings with the cell heuristics, and with the row/column models only when the heuristics are not confident enough (threshold, 0.7 by default: 0 never uses the models, above 1 always does)");
+		System.out.println("\t--max-pages, --max-size: reject the documents with more pages (150 by default) or larger files (0: no limit)");
+		System.out.println("\t--max-time, --max-memory: abandon the documents which take longer or allocate more memory to parse and extract their tables (counted as timeout/overmemory, not as failures; 0, by default: no limit)");
+		System.out.println("\t--no-text-layer: also parse the documents whose sampled pages have no text layer, e.g., scanned documents");
+		System.out.println("\t--cache: keep the parsed documents in a directory, and read them from it when they are processed again; the least recently used ones are evicted above the size (1024 MB by default), and the ones unused for the age (30 days by default) (0: no limit)");
+		System.out.println("\t--threads: extract the tables with N worker threads, each with its own extractor and parser; the output is written in the order of the documents, as with one thread (1 by default); --queue: the number of documents queued for the workers (2 per thread by default)");
+		System.out.println("\t--pipeline: extract the tables in a pipeline of three stages joined by bounded queues, with P threads which parse the documents (each with its own parser), L threads which combine their words into lines and D threads which detect their tables, while the output is written in the order of the documents; the pipeline statistics show the throughput, busy share and queue depths of each stage; --queue: the number of documents queued for each stage (2 per thread of the largest stage by default)");
+		System.out.println("\t--page-threads: detect the tables of the pages of each document with N threads, e.g., for batches of few large documents; the tables are the same as with one thread (1 by default)");
+		System.out.println("\t--no-resume: process all the documents again and replace the outputs; by default, the documents completed by a previous run in the journal of the output directory are skipped if they did not change (same size and time, or same SHA-1 with --cache), and the outputs are appended, unless the journal was written with other settings, models or parser");
+		System.out.println("\t--shard: process the documents of one of count shards (by the hash of their file names, from 0 to count - 1), e.g., on one of count machines sharing the PDF and output directories; each node writes its mysql-infile, journal and summary in output-dir-path/shards/node, and ShardMerger merges them");
+		System.out.println("\t--leases: claim the documents through lease files in a directory shared by the nodes (output-dir-path/leases by default): a node processes its shard first, then the documents the other nodes have not claimed, and takes over the leases not renewed for the lease time (300 seconds by default); --node: the name of the node (shard-index with static shards, the host name with leases by default), unique among the nodes");
+		System.out.println("\t--workers: extract the tables in N worker JVMs, so that a document which crashes PDFBox (stack overflow, runaway heap) only takes its worker down; a worker which dies, runs out of its heap (--worker-heap, the JVM default by default) or hangs longer than --worker-timeout (0, by default: no limit) is restarted, and retries the document; the workers are recycled after --worker-docs documents (500 by default, 0: never); a document which crashes --max-crashes workers (2 by default) is quarantined: rejected as crash, and listed in the quarantine file; the workers do not use the cache");
+		System.out.println("\t--config: a properties file with the settings of the extraction options (debug, small, batch, heading, cascade-threshold, max-pages, max-size, max-time, max-memory, text-layer-required, page-threads) and the caption keywords (table-keywords, figure-keywords); the options override it");
+		System.out.println("\trow/column model= a training model (row_feature.arff, col_feature.arff) or a model file made by ModelTrainer");
+    }
+
+    /**
+     * Parses the value of a non-negative integer option, e.g., --max-pages=150
+     * @param arg
+     *        the command line parameter
+     * @param prefix
+     *        the name of the option, with "="
+     * @return the value / -1 (if it is not a non-negative integer)
+     */
+    private static long parseLimit(String arg, String prefix)
+    {
+		try{
+		    return Math.max(-1, Long.parseLong(arg.substring(prefix.length())));
+		}
+		catch (NumberFormatException e){
+		    return -1;
+		}
+    }
+
+    /**
+     * Cleans the special symbols (e.g., "\t", "\n") in a string
+     * @param str
+     *        the string to be checked
+     * @return the cleaned string
+     */
+    private static String cleanString(String str)
+    {
+		String result = str;
+		result = result.replace("\r", "");
+		result = result.replace("\n", "");
+		result = result.replace("\t", "");
+		return result;
+    }
+
+    /**
+     * Formats the tables of a document for the writer
+     * @param index
+     *            the position of the document in the batch
+     * @param pdfFile
+     *            the document
+     * @param extraction
+     *            the result of the extraction of the document
+     * @return the result of the document
+     */
+    @SuppressWarnings("unchecked")
+    private static DocumentResult formatResult(int index, File pdfFile, ExtractionResult extraction, 
+	    XMLOutputter outputter, XMLOutputter rawOutputter)
+    {
+	DocumentResult result = new DocumentResult(index, pdfFile);
+	result.rejectReason = extraction.getRejectReason();
+	result.headingStatistics = extraction.getHeadingStatistics();
+	if (extraction.isExtracted())
+	{
+	    Document xmlDoc = extraction.getXMLDoc();
+	    result.xmlText = outputter.outputString(xmlDoc);
+	    result.tableNum = extraction.getDocInfo().getTableNum();
+
+	    Element xRoot = xmlDoc.getRootElement();
+	    Element xTables = xRoot.getChild("tables");		
+	    String paperid = xRoot.getAttributeValue("id");
+
+	    StringBuilder mysqlLines = new StringBuilder();
+	    if (xTables != null)
+	    {
+		List<Element> tableRecords = xTables.getChildren();
+		for (Element tableRecord : tableRecords)
+		{
+		    String id = paperid + "-" + tableRecord.getAttributeValue("id");
+		    String caption = "";
+		    String content = "";
+		    String footNote = "";
+		    String refText = "";
+		    String pageNumInDoc = "\\N";
+
+		    Element xTable = tableRecord.getChild("table");
+		    if (xTable != null){
+			content = cleanString(rawOutputter.outputString(xTable));
+		    }
+
+		    Element xCaption = tableRecord.getChild("caption");
+		    if (xCaption != null){
+			caption = cleanString(xCaption.getText());
+		    }
+
+		    Element xFootNote = tableRecord.getChild("footnote");
+		    if (xFootNote != null){
+			footNote = cleanString(xFootNote.getText());
+		    }
+
+		    Element xRefText = tableRecord.getChild("referenceText");
+		    if (xRefText != null){
+			refText = cleanString(xRefText.getText());
+		    }
+
+		    Element xPageNumInDoc = tableRecord.getChild("pageNumInDoc");
+		    if (xPageNumInDoc != null){
+			pageNumInDoc = xPageNumInDoc.getText();
+		    }
+
+		    mysqlLines.append(id + "\t" + caption + "\t" + content + "\t" + footNote + "\t"
+			    + refText + "\t" + paperid + "\t" + pageNumInDoc + "\n");
+		}	
+	    }
+	    result.mysqlLines = mysqlLines.toString();
+	}
+	else
+	{
+	    result.elapsedTime = extraction.getElapsedTime();
+	    result.allocation = extraction.getAllocation();
+	}
+	return result;
+    }
+
+    /**
+     * The shard and the node of a sharded batch
+     */
+    private static class Sharding
+    {
+	int index = 0;
+	int count = 1;
+	String node = null;	//the name of the node
+	String leaseDirPath = null;	//the directory of the leases / null (static shards)
+	long leaseTime = DocumentLeases.DEFAULT_LEASE_TIME;
+    }
+
+    /**
+     * The settings of the worker processes of a supervised batch, and its quarantine
+     */
+    private static class Supervision
+    {
+	int workerNum = 0;
+	long heapSize = 0;	//the largest heap of a worker, in MB / 0 (the default of the JVM)
+	int recycleDocNum = 500;	//the number of documents after which a worker is replaced / 0 (never)
+	long timeout = 0;	//the longest time of a document in a worker, in milliseconds / 0 (no limit)
+	int maxCrashes = 2;	//the number of crashes from which a document is quarantined
+	Timer watchdog = new Timer("worker-watchdog", true);	//kills the workers which hang
+
+	/**
+	 * Lists a quarantined document in the quarantine file of the batch
+	 */
+	synchronized void quarantine(File nodeDir, File pdfFile, String cause)
+	{
+	    System.out.printf("[Info] %s quarantined after %d crashes\n", pdfFile.getName(), maxCrashes);
+	    try{
+		PrintWriter quarantineWriter = new PrintWriter(new FileOutputStream(new File(nodeDir, "quarantine"), true));
+		quarantineWriter.write(pdfFile.getPath() + "\t" + cause + "\n");
+		quarantineWriter.close();
+	    }
+	    catch (IOException e){
+		System.out.printf("[Error] %s\n", e.getMessage());
+	    }
+	}
+    }
+
+    /**
+     * The extraction of the documents of a thread, with the shared TableExtractor and a parser confined to the thread
+     */
+    static class DocumentWorker
+    {
+	private TableExtractor extractor;
+	private String rowModelPath;
+	private String colModelPath;
+	private String outputDirPath;
+	private ParsedTextCache parsedTextCache;
+	private boolean wordRuns;
+	private PdfBoxParser parser = null;
+	private IPdfParser documentParser = null;	//the parser, or its caching parser
+	private XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+	private XMLOutputter rawOutputter = new XMLOutputter(Format.getCompactFormat());
+
+	DocumentWorker(TableExtractor extractor, String rowModelPath, String colModelPath, String outputDirPath,
+		ParsedTextCache parsedTextCache, boolean wordRuns)
+	{
+	    this.extractor = extractor;
+	    this.rowModelPath = rowModelPath;
+	    this.colModelPath = colModelPath;
+	    this.outputDirPath = outputDirPath;
+	    this.parsedTextCache = parsedTextCache;
+	    this.wordRuns = wordRuns;
+	}
+
+	/**
+	 * Takes a parser from the pool, on the thread of the worker
+	 * @return a boolean value: true / false (if the parser can not be created)
+	 */
+	boolean open()
+	{
+	    try{
+		parser = PdfParserPool.acquire();
+	    }
+	    catch (IOException e){
+		System.out.printf("[Error] PDFBox parser cannot be created\n");
+		return false;
+	    }
+	    parser.setWordRuns(wordRuns);
+	    if (parsedTextCache != null)
+		documentParser = new CachingPdfParser(parser, parsedTextCache);
+	    else
+		documentParser = parser;
+	    return true;
+	}
+
+	/**
+	 * Gives the parser back to the pool
+	 */
+	void close()
+	{
+	    documentParser = null;
+	    PdfParserPool.release(parser);
+	    parser = null;
+	}
+
+	/**
+	 * Extracts the tables of a document, and formats them for the writer
+	 * @param index
+	 *            the position of the document in the batch
+	 * @param pdfFile
+	 *            the document
+	 * @return the result of the document
+	 */
+	DocumentResult extract(int index, File pdfFile)
+	{
+	    try{
+		return formatResult(index, pdfFile, extractor.extract(new ExtractionRequest(pdfFile, rowModelPath,
+			colModelPath, outputDirPath, documentParser)), outputter, rawOutputter);
+	    }catch (Exception e){
+		DocumentResult result = new DocumentResult(index, pdfFile);
+		result.exception = e;
+		return result;
+	    }
+	}
+    }
+
+    /**
+     * The extraction of the documents of a thread in a worker process, which is restarted when it crashes on a
+     * document, and recycled after a number of documents
+     */
+    private static class SupervisedWorker extends DocumentWorker
+    {
+	private String name;
+	private List<String> command;
+	private Supervision supervision;
+	private File nodeDir;	//the directory of the quarantine file
+	private WorkerProcess process = null;	//null if not started yet
+
+	SupervisedWorker(String name, List<String> command, Supervision supervision, File nodeDir)
+	{
+	    super(null, null, null, null, null, false);
+	    this.name = name;
+	    this.command = command;
+	    this.supervision = supervision;
+	    this.nodeDir = nodeDir;
+	}
+
+	/**
+	 * Starts the worker process
+	 * @return a boolean value: true / false (if it can not be started)
+	 */
+	boolean open()
+	{
+	    try{
+		process = new WorkerProcess(command);
+		process.start(WorkerProcess.START_TIMEOUT);
+		return true;
+	    }
+	    catch (IOException e){
+		System.out.printf("[Error] worker process cannot be started: %s\n", e.getMessage());
+		process = null;
+		return false;
+	    }
+	}
+
+	/**
+	 * Stops the worker process
+	 */
+	void close()
+	{
+	    if (process != null)
+		process.stop();
+	    process = null;
+	}
+
+	/**
+	 * Extracts the tables of a document in the worker process, retrying it in a new worker process after a crash
+	 */
+	DocumentResult extract(int index, File pdfFile)
+	{
+	    String cause = null;
+	    for (int crashNum = 0; crashNum < supervision.maxCrashes; )
+	    {
+		if (process == null && !open())
+		{
+		    DocumentResult result = new DocumentResult(index, pdfFile);
+		    result.exception = new IOException("worker process cannot be started");
+		    return result;
+		}
+		final WorkerProcess current = process;
+		final boolean[] killed = { false };
+		TimerTask kill = null;
+		if (supervision.timeout > 0)
+		{
+		    kill = new TimerTask(){
+			public void run(){
+			    synchronized (killed){
+				killed[0] = true;
+			    }
+			    current.kill();
+			}
+		    };
+		    supervision.watchdog.schedule(kill, supervision.timeout);
+		}
+		try{
+		    DocumentResult result = process.extract(index, pdfFile);
+		    if (kill != null)
+			kill.cancel();
+		    if (supervision.recycleDocNum > 0 && process.getDocNum() >= supervision.recycleDocNum)
+			close();	//a new process, with a compact heap, for the next document
+		    return result;
+		}
+		catch (IOException e){
+		    if (kill != null)
+			kill.cancel();
+		    process.kill();
+		    int exitCode = process.waitFor();
+		    process = null;
+		    synchronized (killed){
+			if (killed[0])
+			{
+			    DocumentResult result = new DocumentResult(index, pdfFile);
+			    result.rejectReason = DocumentTriage.REJECT_TIMEOUT;
+			    result.elapsedTime = supervision.timeout;
+			    return result;
+			}
+		    }
+		    crashNum++;
+		    cause = "exit code " + exitCode;
+		    System.out.printf("[Info] %s crashed on %s (%s), restarted\n", name, pdfFile.getName(), cause);
+		}
+	    }
+	    supervision.quarantine(nodeDir, pdfFile, cause);
+	    DocumentResult result = new DocumentResult(index, pdfFile);
+	    result.rejectReason = DocumentTriage.REJECT_CRASH;
+	    return result;
+	}
+    }
+
+    /**
+     * The result of a document, handed from its worker to the writer
+     */
+    static class DocumentResult
+    {
+	int index;	//the position of the document in the batch / -1 (the worker stopped)
+	File pdfFile;
+	String xmlText = null;	//the XML of the tables / null (the document failed or was rejected)
+	String mysqlLines = null;	//the lines of the tables in the mysql-infile
+	int tableNum = 0;
+	String rejectReason = null;
+	long elapsedTime = 0;
+	long allocation = 0;
+	HeadingStatistics headingStatistics = new HeadingStatistics();	//of the document
+	Exception exception = null;	//the unhandled exception of the document / null
+	Error error = null;	//the error which stopped the worker / null
+
+	boolean skipped = false;	//the document is claimed by another node
+
+	DocumentResult(int index, File pdfFile)
+	{
+	    this.index = index;
+	    this.pdfFile = pdfFile;
+	}
+
+	/**
+	 * Gets the result of a document claimed by another node, which the writer skips
+	 */
+	static DocumentResult skip(int index, File pdfFile)
+	{
+	    DocumentResult result = new DocumentResult(index, pdfFile);
+	    result.skipped = true;
+	    return result;
+	}
+    }
+
+    /**
+     * The writer of the output of a batch, called for the documents in their order: the XML file and the mysql-infile
+     * lines of a document are written before its line of the journal, so that a document of the journal is never
+     * processed again
+     */
+    private static class DocumentWriter
+    {
+	private File xmlDir;
+	private FileOutputStream mysqlInFileStream;
+	private PrintWriter mysqlInFileWriter;
+	private BatchJournal journal;
+	private DocumentLeases leases;	//null if the documents are not shared with other nodes
+	private ParsedTextCache parsedTextCache;	//null if the documents are not cached
+
+	DocumentWriter(File xmlDir, FileOutputStream mysqlInFileStream, BatchJournal journal, DocumentLeases leases, 
+		ParsedTextCache parsedTextCache)
+	{
+	    this.parsedTextCache = parsedTextCache;
+	    this.leases = leases;
+	    this.xmlDir = xmlDir;
+	    this.mysqlInFileStream = mysqlInFileStream;
+	    this.mysqlInFileWriter = new PrintWriter(mysqlInFileStream);
+	    this.journal = journal;
+	}
+
+	/**
+	 * Writes the XML file and the mysql-infile lines of a document, and journals it
+	 * @throws IOException
+	 *             if the journal or the mysql-infile can not be written
+	 */
+	void write(DocumentResult result) throws IOException
+	{
+	    if (result.skipped)
+		return;
+	    File pdfFile = result.pdfFile;
+	    Exception exception = result.exception;
+	    String status = BatchJournal.FAIL;
+	    int tableNum = 0;
+	    if (exception == null && result.xmlText != null)
+	    {
+		/*
+		 * Writes new standard XML
+		 */
+		String xmlFileName = pdfFile.getName().replaceFirst(".pdf", ".xml");
+		File xmlFile = new File(xmlDir, xmlFileName);
+		try{
+		    PrintWriter xmlWriter = new PrintWriter(new FileOutputStream(xmlFile));
+		    xmlWriter.write(result.xmlText);
+		    xmlWriter.close();
+		    tableNum = result.tableNum;
+		    status = BatchJournal.SUCCESS;
+		    mysqlInFileWriter.write(result.mysqlLines);
+		}
+		catch (IOException e){
+		    exception = e;
+		}
+	    }
+	    else if (exception == null && DocumentTriage.REJECT_TIMEOUT.equals(result.rejectReason)){
+		status = BatchJournal.TIMEOUT;
+		System.out.printf("[Info] %s abandoned after %d s\n", pdfFile.getName(), result.elapsedTime / 1000);
+	    }
+	    else if (exception == null && DocumentTriage.REJECT_MEMORY.equals(result.rejectReason)){
+		status = BatchJournal.OVER_MEMORY;
+		System.out.printf("[Info] %s abandoned after allocating %d MB\n", pdfFile.getName(), result.allocation / (1024 * 1024));
+	    }
+	    if (exception != null){
+		System.out.printf( "[Error] unhandled exception of %s\n",pdfFile.getName());
+		System.err.printf("----- %s -----\n", pdfFile.getName());
+		System.err.printf("%s\n", exception.getMessage());
+		exception.printStackTrace();	
+		status = BatchJournal.FAIL;
+	    }
+	    mysqlInFileWriter.flush();
+	    if (mysqlInFileWriter.checkError())
+		throw new IOException("cannot write the mysql-infile");
+	    String rejectReason = (exception == null && status.equals(BatchJournal.FAIL)) ? result.rejectReason : null;
+	    String hash = (parsedTextCache != null) ? parsedTextCache.takeFileHash(pdfFile) : null;	//not read again
+	    journal.append(pdfFile, hash, status, tableNum, rejectReason, mysqlInFileStream.getChannel().position(), 
+		    result.headingStatistics);
+	    if (leases != null)
+		leases.complete(pdfFile);
+	}
+
+	void close()
+	{
+	    mysqlInFileWriter.close();
+	    journal.close();
+	    if (leases != null)
+		leases.close();
+	}
+    }
+}
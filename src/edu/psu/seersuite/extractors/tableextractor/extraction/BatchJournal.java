@@ -0,0 +1,530 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.TreeMap;
+
+/**
+ * This class is the journal of the documents completed by a batch, so that a batch which stopped (e.g., killed, or
+ * out of memory) is resumed where it stopped instead of processing all its documents again.
+ * <p>
+ * The journal is an append-only text file with one line per completed document, written once the outputs of the
+ * document are written: the name of the PDF file, the SHA-1 of its bytes (or "-" if it was not computed), its size
+ * and its time of last modification, its status (success, fail, timeout or overmemory), its number of tables, the reason why it was rejected (or "-"), the length of the mysql-infile after its
+ * tables, and its heading statistics (see HeadingStatistics.toCounts), separated by tabs. The lines beginning with "#"
+ * are comments.
+ * <p>
+ * When a batch is resumed, the documents of the journal whose bytes did not change are skipped: a file whose size and
+ * time did not change is not read, and one which was only touched is read only if its SHA-1 is journaled; the mysql-infile is
+ * cut back to the length of the last line, which drops the tables of a document written before the batch stopped but
+ * not journaled; and the summary counts all the documents of the journal. A line which is cut off by the stop is
+ * dropped, and its document processed again. A document which changed is processed again, and counted once, with its
+ * last line.
+ * <p>
+ * The first line of the journal holds its fingerprint: the SHA-1 of the settings, the models and the parser of the
+ * batch (see BatchExtractor.computeFingerprint). A journal whose fingerprint is not the one of the resumed batch is
+ * emptied, so that a batch run again with other settings processes all its documents instead of skipping them.
+ * <p>
+ * The journals of the nodes of a sharded batch are merged by ShardMerger, which reads them with load.
+ */
+public class BatchJournal
+{
+    public static final String SUCCESS = "success";
+    public static final String FAIL = "fail";
+    public static final String TIMEOUT = "timeout";
+    public static final String OVER_MEMORY = "overmemory";
+
+    private static final String FINGERPRINT = "# fingerprint\t";
+    private static final String HEADER = "# file\thash\tsize\tmtime\tstatus\ttables\treject\tmysql-infile\theadings\n";
+
+    private LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>();	//by the name of the PDF file, in the order of their last lines
+    private long outputOffset = -1;	//the length of the mysql-infile after the last line / -1 (no line)
+    private OutputStream out = null;	//null if the journal is only read
+    private String fingerprint = null;	//null if the journal has no fingerprint line
+    private boolean fingerprintChanged = false;	//whether the lines of another fingerprint were dropped
+
+    /**
+     * A completed document
+     */
+    private static class Entry
+    {
+	String hash;	//"-" if it was not computed
+	long size;	//of the PDF file, in bytes
+	long modified;	//the time of last modification of the PDF file
+	String status;
+	int tableNum;
+	String rejectReason;	//null if the document was not rejected
+	String headingCounts;
+	long outputStart;	//the range of the tables of the document in the mysql-infile
+	long outputEnd;
+    }
+
+    private BatchJournal()
+    {
+    }
+
+    /**
+     * Constructor: reads the lines of the journal file, if it exists, the batch is resumed and the fingerprint did
+     * not change, and opens it to append new lines
+     * @param file
+     *            the journal file
+     * @param resume
+     *            whether the batch is resumed / false (the journal is emptied)
+     * @param fingerprint
+     *            the fingerprint of the batch, in hexadecimal
+     * @throws IOException
+     *             if the journal can not be read or written
+     */
+    public BatchJournal(File file, boolean resume, String fingerprint) throws IOException
+    {
+	long length = 0;	//the length of the complete lines
+	if (resume && file.isFile())
+	{
+	    length = read(file);
+	    if (length > 0 && !fingerprint.equals(this.fingerprint))
+	    {
+		entries.clear();
+		outputOffset = -1;
+		length = 0;
+		fingerprintChanged = true;
+	    }
+	}
+	this.fingerprint = fingerprint;
+	RandomAccessFile raf = new RandomAccessFile(file, "rw");
+	try
+	{
+	    raf.setLength(length);
+	}
+	finally
+	{
+	    raf.close();
+	}
+	out = new FileOutputStream(file, true);
+	if (length == 0)
+	    write(FINGERPRINT + fingerprint + "\n" + HEADER);
+    }
+
+    /**
+     * Reads a journal, e.g., to merge it with the journals of the other nodes of a batch; no line can be appended
+     * @param file
+     *            the journal file
+     * @return the journal
+     * @throws IOException
+     *             if the journal can not be read
+     */
+    public static BatchJournal load(File file) throws IOException
+    {
+	BatchJournal journal = new BatchJournal();
+	journal.read(file);
+	return journal;
+    }
+
+    /**
+     * Reads the complete lines of the journal
+     * @return the length of the complete lines, in bytes
+     */
+    private long read(File file) throws IOException
+    {
+	InputStream in = new FileInputStream(file);
+	long length = 0;
+	try
+	{
+	    BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+	    StringBuilder line = new StringBuilder();
+	    int c;
+	    while ((c = reader.read()) >= 0)
+	    {
+		line.append((char) c);
+		if (c != '\n')
+		    continue;
+		if (!parse(line.toString().trim()))
+		    break;
+		length += line.toString().getBytes("UTF-8").length;
+		line.setLength(0);
+	    }
+	}
+	finally
+	{
+	    in.close();
+	}
+	return length;
+    }
+
+    /**
+     * Parses a line of the journal
+     * @return a boolean value: true / false (if the line is not valid)
+     */
+    private boolean parse(String line)
+    {
+	if (line.startsWith(FINGERPRINT.trim()))
+	{
+	    fingerprint = line.substring(FINGERPRINT.length()).trim();
+	    return true;
+	}
+	if (line.length() == 0 || line.startsWith("#"))
+	    return true;
+	String[] fields = line.split("\t");
+	if (fields.length != 9)
+	    return false;
+	Entry entry = new Entry();
+	entry.hash = fields[1];
+	entry.status = fields[4].intern();
+	entry.rejectReason = fields[6].equals("-") ? null : fields[6].intern();
+	entry.headingCounts = fields[8];
+	long offset;
+	try
+	{
+	    entry.size = Long.parseLong(fields[2]);
+	    entry.modified = Long.parseLong(fields[3]);
+	    entry.tableNum = Integer.parseInt(fields[5]);
+	    offset = Long.parseLong(fields[7]);
+	    new HeadingStatistics().addCounts(entry.headingCounts);
+	}
+	catch (IllegalArgumentException e)
+	{
+	    return false;
+	}
+	put(fields[0], entry, offset);
+	return true;
+    }
+
+    /**
+     * Judges whether a document is completed: it is in the journal, and its bytes did not change since. The file is
+     * read only if its size is the journaled one but not its time, and its SHA-1 is journaled.
+     * @param pdfFile
+     *            the PDF file
+     * @return a boolean value: true/false
+     */
+    public boolean isCompleted(File pdfFile)
+    {
+	Entry entry;
+	synchronized (this)
+	{
+	    entry = entries.get(pdfFile.getName());
+	}
+	if (entry == null)
+	    return false;
+	long size = pdfFile.length();
+	if (size == entry.size && pdfFile.lastModified() == entry.modified)
+	    return true;
+	if (size != entry.size || entry.hash.equals("-"))
+	    return false;
+	try
+	{
+	    return entry.hash.equals(computeHash(pdfFile));
+	}
+	catch (IOException e)
+	{
+	    return false;
+	}
+    }
+
+    /**
+     * Gets the fingerprint of the batch which wrote the journal
+     * @return the fingerprint, in hexadecimal / null (if the journal has no fingerprint line)
+     */
+    public String getFingerprint()
+    {
+	return fingerprint;
+    }
+
+    /**
+     * Judges whether the lines of the journal were dropped when it was opened, because they were written by a batch
+     * with another fingerprint
+     * @return a boolean value: true/false
+     */
+    public boolean isFingerprintChanged()
+    {
+	return fingerprintChanged;
+    }
+
+    /**
+     * Gets the length of the mysql-infile after the tables of the last document of the journal
+     * @return the length in bytes / -1 (if the journal is empty)
+     */
+    public synchronized long getOutputOffset()
+    {
+	return outputOffset;
+    }
+
+    /**
+     * Appends the line of a completed document, once its outputs are written, with the size and the time of its file
+     * @param pdfFile
+     *            the PDF file
+     * @param hash
+     *            the SHA-1 of the file, see computeHash / null (if it was not computed)
+     * @param status
+     *            SUCCESS, FAIL, TIMEOUT or OVER_MEMORY
+     * @param tableNum
+     *            the number of tables of the document
+     * @param rejectReason
+     *            why the document is rejected / null
+     * @param outputOffset
+     *            the length of the mysql-infile after the tables of the document
+     * @param headingStatistics
+     *            the heading statistics of the document
+     * @throws IOException
+     *             if the line can not be written
+     */
+    public synchronized void append(
+	    File pdfFile,
+	    String hash,
+	    String status,
+	    int tableNum,
+	    String rejectReason,
+	    long outputOffset,
+	    HeadingStatistics headingStatistics) throws IOException
+    {
+	Entry entry = new Entry();
+	entry.hash = (hash == null) ? "-" : hash;
+	entry.size = pdfFile.length();
+	entry.modified = pdfFile.lastModified();
+	entry.status = status;
+	entry.tableNum = tableNum;
+	entry.rejectReason = rejectReason;
+	entry.headingCounts = headingStatistics.toCounts();
+	append(pdfFile.getName(), entry, outputOffset);
+    }
+
+    /**
+     * Appends the line of a document of another journal, e.g., when the journals of the nodes of a batch are merged
+     * @param name
+     *            the name of the PDF file
+     * @param journal
+     *            the other journal
+     * @param outputOffset
+     *            the length of the mysql-infile of this journal after the tables of the document
+     * @throws IOException
+     *             if the line can not be written
+     */
+    public synchronized void append(String name, BatchJournal journal, long outputOffset) throws IOException
+    {
+	append(name, journal.getEntry(name), outputOffset);
+    }
+
+    private void append(String name, Entry entry, long outputOffset) throws IOException
+    {
+	if (out == null)
+	    throw new IllegalStateException("the journal is only read");
+	write(name + "\t" + entry.hash + "\t" + entry.size + "\t" + entry.modified + "\t" + entry.status + "\t"
+		+ entry.tableNum + "\t" + (entry.rejectReason == null ? "-" : entry.rejectReason) + "\t" + outputOffset + "\t"
+		+ entry.headingCounts + "\n");
+	Entry copy = new Entry();
+	copy.hash = entry.hash;
+	copy.size = entry.size;
+	copy.modified = entry.modified;
+	copy.status = entry.status;
+	copy.tableNum = entry.tableNum;
+	copy.rejectReason = entry.rejectReason;
+	copy.headingCounts = entry.headingCounts;
+	put(name, copy, outputOffset);
+    }
+
+    /**
+     * Records the last line of a document, whose tables end at an offset of the mysql-infile
+     */
+    private void put(String name, Entry entry, long outputOffset)
+    {
+	entry.outputStart = Math.max(0, this.outputOffset);
+	entry.outputEnd = outputOffset;
+	entries.remove(name);	//the document moves to the end
+	entries.put(name, entry);
+	this.outputOffset = outputOffset;
+    }
+
+    private synchronized Entry getEntry(String name)
+    {
+	Entry entry = entries.get(name);
+	if (entry == null)
+	    throw new IllegalArgumentException(name + " is not in the journal");
+	return entry;
+    }
+
+    /**
+     * Gets the names of the PDF files of the documents of the journal
+     * @return the names, in the order of the last lines of the documents
+     */
+    public synchronized ArrayList<String> getNames()
+    {
+	return new ArrayList<String>(entries.keySet());
+    }
+
+    /**
+     * Gets where the tables of a document begin in the mysql-infile
+     * @param name
+     *            the name of the PDF file of the document
+     * @return the offset in bytes
+     */
+    public long getOutputStart(String name)
+    {
+	return getEntry(name).outputStart;
+    }
+
+    /**
+     * Gets where the tables of a document end in the mysql-infile
+     * @param name
+     *            the name of the PDF file of the document
+     * @return the offset in bytes
+     */
+    public long getOutputEnd(String name)
+    {
+	return getEntry(name).outputEnd;
+    }
+
+    private void write(String line) throws IOException
+    {
+	out.write(line.getBytes("UTF-8"));
+	out.flush();
+    }
+
+    /**
+     * Closes the journal file
+     */
+    public synchronized void close()
+    {
+	if (out == null)
+	    return;
+	try
+	{
+	    out.close();
+	}
+	catch (IOException e)
+	{
+	    // ignore
+	}
+    }
+
+    /**
+     * Gets the number of documents of the journal with a status
+     * @param status
+     *            SUCCESS, FAIL, TIMEOUT or OVER_MEMORY
+     * @return the number of documents
+     */
+    public synchronized int getCount(String status)
+    {
+	int count = 0;
+	for (Entry entry : entries.values())
+	{
+	    if (entry.status.equals(status))
+		count++;
+	}
+	return count;
+    }
+
+    /**
+     * Gets the number of tables of the documents of the journal
+     * @return the number of tables
+     */
+    public synchronized int getTableNum()
+    {
+	int tableNum = 0;
+	for (Entry entry : entries.values())
+	    tableNum += entry.tableNum;
+	return tableNum;
+    }
+
+    /**
+     * Gets the number of failed documents of the journal per reject reason
+     * @return the numbers, by reason
+     */
+    public synchronized TreeMap<String, Integer> getRejects()
+    {
+	TreeMap<String, Integer> rejects = new TreeMap<String, Integer>();
+	for (Entry entry : entries.values())
+	{
+	    if (entry.rejectReason != null && entry.status.equals(FAIL))
+	    {
+		Integer count = rejects.get(entry.rejectReason);
+		rejects.put(entry.rejectReason, count == null ? 1 : count + 1);
+	    }
+	}
+	return rejects;
+    }
+
+    /**
+     * Gets the heading statistics of the documents of the journal
+     * @return the sum of their heading statistics
+     */
+    public synchronized HeadingStatistics getHeadingStatistics()
+    {
+	HeadingStatistics headingStatistics = new HeadingStatistics();
+	for (Entry entry : entries.values())
+	    headingStatistics.addCounts(entry.headingCounts);
+	return headingStatistics;
+    }
+
+    /**
+     * Computes the SHA-1 of the bytes of a file
+     * @param file
+     *            the file
+     * @return the SHA-1, in hexadecimal
+     * @throws IOException
+     *             if the file can not be read
+     */
+    public static String computeHash(File file) throws IOException
+    {
+	MessageDigest digest = createDigest();
+	byte[] buffer = new byte[64 * 1024];
+	InputStream in = new FileInputStream(file);
+	try
+	{
+	    int n;
+	    while ((n = in.read(buffer)) > 0)
+		digest.update(buffer, 0, n);
+	}
+	finally
+	{
+	    in.close();
+	}
+	return toHex(digest.digest());
+    }
+
+    /**
+     * Computes the SHA-1 of a text, e.g., the fingerprint of a batch
+     * @param text
+     *            the text
+     * @return the SHA-1 of its UTF-8 bytes, in hexadecimal
+     * @throws IOException
+     *             if SHA-1 is not available
+     */
+    public static String computeHash(String text) throws IOException
+    {
+	MessageDigest digest = createDigest();
+	digest.update(text.getBytes("UTF-8"));
+	return toHex(digest.digest());
+    }
+
+    private static MessageDigest createDigest() throws IOException
+    {
+	try
+	{
+	    return MessageDigest.getInstance("SHA-1");
+	}
+	catch (NoSuchAlgorithmException e)
+	{
+	    throw new IOException("SHA-1 is not available");
+	}
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+	StringBuilder hex = new StringBuilder();
+	for (byte b : bytes)
+	    hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+	return hex.toString();
+    }
+}
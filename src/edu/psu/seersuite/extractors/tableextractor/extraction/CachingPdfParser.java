@@ -0,0 +1,194 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import edu.psu.seersuite.extractors.tableextractor.model.GlyphPage;
+import edu.psu.seersuite.extractors.tableextractor.model.TextPiece;
+
+/**
+ * This class is a PDF parser which reads the documents from a ParsedTextCache, and parses the other ones with another
+ * parser, caching its output. The extractors use it as any other IPdfParser.
+ * <p>
+ * A document is cached once it is completely parsed, or once the page handler skips it after its triage: then only
+ * the triage is cached, and the document is parsed if a later handler (e.g., with other triage limits) accepts it. A
+ * document whose parsing fails or is stopped by the handler is not cached.
+ * <p>
+ * As the parser it decorates, a caching parser must not be shared by threads; the cache can.
+ */
+public class CachingPdfParser implements IPdfParser
+{
+    private IPdfParser parser;
+    private ParsedTextCache cache;
+
+    /**
+     * Constructor
+     * @param parser
+     *            the parser of the documents which are not in the cache
+     * @param cache
+     *            the cache
+     */
+    public CachingPdfParser(IPdfParser parser, ParsedTextCache cache)
+    {
+	this.parser = parser;
+	this.cache = cache;
+    }
+
+    /**
+     * Get text pieces from a PDF document, from the cache if it is there
+     *
+     * @param pdfFile
+     *            input PDF file
+     * @return lists of text pieces (one list per page) / null (if the document can not be parsed)
+     */
+    public ArrayList<ArrayList<TextPiece>> getTextPiecesByPage(File pdfFile)
+    {
+	final ArrayList<ArrayList<TextPiece>> wordsByPage = new ArrayList<ArrayList<TextPiece>>();
+	int pageCount = getTextPiecesByPage(pdfFile, new IPageHandler()
+	{
+	    public boolean handleDocument(DocumentTriage triage)
+	    {
+		return true;
+	    }
+
+	    public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage)
+	    {
+		wordsByPage.add(glyphsOfAPage.toTextPieces());
+		return true;
+	    }
+
+	    public boolean isCancelled()
+	    {
+		return false;
+	    }
+	});
+	return pageCount < 0 ? null : wordsByPage;
+    }
+
+    /**
+     * Get the glyphs of a PDF document, from the cache if it is there, handing each page to a handler
+     *
+     * @param pdfFile
+     *            input PDF file
+     * @param handler
+     *            the receiver of the pages
+     * @return the number of pages handed to the handler / -1 (if the document can not be parsed)
+     */
+    public int getTextPiecesByPage(File pdfFile, IPageHandler handler)
+    {
+	String parserVersion = parser.getVersion();
+	String key;
+	try
+	{
+	    key = cache.computeKey(pdfFile, parserVersion);
+	}
+	catch (IOException e)
+	{
+	    return parser.getTextPiecesByPage(pdfFile, handler);	//the parser reports the unreadable file
+	}
+
+	boolean accepted = false;
+	ParsedTextCache.Entry entry = cache.read(key, parserVersion);
+	if (entry != null)
+	{
+	    if (!handler.handleDocument(entry.triage))
+		return 0;
+	    if (entry.parsed)
+	    {
+		int pageCount = 0;
+		for (int i = 0; i < entry.pages.length; i++)
+		{
+		    pageCount++;
+		    if (!handler.handlePage(entry.pageNos[i], entry.pages[i]))
+			break;
+		}
+		return pageCount;
+	    }
+	    accepted = true;	//only the triage is cached and the handler wants the pages: they are parsed now
+	}
+
+	PageRecorder recorder = new PageRecorder(handler, accepted);
+	int pageCount = parser.getTextPiecesByPage(pdfFile, recorder);
+	if (pageCount >= 0 && recorder.isComplete())
+	{
+	    try
+	    {
+		cache.write(key, parserVersion, recorder.triage, recorder.accepted, recorder.pageNos, recorder.pages);
+	    }
+	    catch (IOException e)
+	    {
+		System.out.printf("[Error] cannot cache %s: %s\n", pdfFile.getName(), e.getMessage());
+	    }
+	}
+	return pageCount;
+    }
+
+    /**
+     * Gets the version of the output of the decorated parser, which is the same
+     */
+    public String getVersion()
+    {
+	return parser.getVersion();
+    }
+
+    /**
+     * The page handler which hands the pages of the parser to the real handler, and keeps them for the cache
+     */
+    private static class PageRecorder implements IPageHandler
+    {
+	private IPageHandler handler;
+	private DocumentTriage triage = null;
+	private boolean accepted;	//whether the handler wants the pages
+	private boolean stopped = false;	//whether the handler stopped the parsing
+	private ArrayList<Integer> pageNos = new ArrayList<Integer>();
+	private ArrayList<GlyphPage> pages = new ArrayList<GlyphPage>();
+
+	/**
+	 * Constructor
+	 * @param handler
+	 *            the real handler
+	 * @param accepted
+	 *            whether the handler already accepted the document from its cached triage, and must not be asked again
+	 */
+	PageRecorder(IPageHandler handler, boolean accepted)
+	{
+	    this.handler = handler;
+	    this.accepted = accepted;
+	}
+
+	public boolean handleDocument(DocumentTriage triage)
+	{
+	    this.triage = triage;
+	    if (!accepted)
+		accepted = handler.handleDocument(triage);
+	    return accepted;
+	}
+
+	public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage)
+	{
+	    pageNos.add(pageNo);
+	    pages.add(glyphsOfAPage);
+	    if (!handler.handlePage(pageNo, glyphsOfAPage))
+		stopped = true;
+	    return !stopped;
+	}
+
+	public boolean isCancelled()
+	{
+	    return handler.isCancelled();
+	}
+
+	/**
+	 * Judges whether the parser handed out the whole document
+	 * @return a boolean value: true/false
+	 */
+	boolean isComplete()
+	{
+	    return triage != null && !stopped;
+	}
+    }
+}
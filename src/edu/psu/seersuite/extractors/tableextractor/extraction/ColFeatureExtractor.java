@@ -1,188 +1,205 @@
-/**
- * This package defines the core table extraction classes
- */
-package edu.psu.seersuite.extractors.tableextractor.extraction;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.regex.Pattern;
-import java.lang.*;
-import java.lang.reflect.Field;  
-
-import edu.psu.seersuite.extractors.tableextractor.model.*;
-import edu.psu.seersuite.extractors.tableextractor.*;
-
-/**
- * This class extracts features to classify the header columns and original data columns of given a table,
- * and writes those features into a file conforming to weka .arff format. 
- * 
- * @author Jing
- */
-public class ColFeatureExtractor {
-	// class label
-	private int classLabel;
-	// header & data column classification features:
-	private int colCellNum;  
-	private int averageCellLength;
-	private int colCharNum;  
-	private float ratioDigitChar;
-	private float ratioAlphaChar;
-	private float ratioSymbolChar;
-	private float fontSize;
-	private float ratioFontBold;
-	private float ratioFontItalic;
-	private float ratioNumericCells; 
-	private float ratioCellNums;   
-
-    /**
-     * Extract features used to classify the header and data columns
-     * @param tc
-     *        the candidate table to be extracted
-     * @param featureFolder
-     * 		  the path of the feature file to be stored
-     */
-	public void extractFeatures(TableCandidate tc, File predictFile) {
-		ArrayList<TableColumn> cols = new ArrayList<TableColumn>();
-		cols = tc.getColumns();  
-		createWekaModel(predictFile);
-		
-    	for (int i = 0; i < cols.size(); ++i){ 		
-    		if (i == 0) classLabel = 1;
-    		else classLabel = 0;
-    		ArrayList<TextPiece> pieces = new ArrayList<TextPiece>();
-    		pieces = cols.get(i).getCells();
-    		colCellNum = pieces.size();
-    		
-    		int boldNum = 0;
-    		int italicNum = 0;
-    		int digitChar = 0;
-    		int alphaChar = 0;
-    		int symbolChar = 0;
-    		int numericCells = 0;  		
-    		for (TextPiece piece : pieces){
-    			if (piece == null)
-    				continue;
-    			String str = piece.getText();
-    			colCharNum += str.length();
-    			char[] chars = str.toCharArray();
-    			for (int j = 0; j < chars.length; ++j){
-    				if (Character.isDigit(chars[j])){
-    					digitChar++;
-    				}
-    				else if (Character.isLetter(chars[j])){
-    					alphaChar++;
-    				}
-    				else
-    					symbolChar++;
-    			}
-    			if (piece.getFontBold())
-    				boldNum++;
-    			if (piece.getFontItalic())
-    				italicNum++;
-    			fontSize += piece.getFontSize();
-    			if (isNumString(piece.getText()))
-    				numericCells++;    				
-    		} 		
-    		averageCellLength = colCharNum / pieces.size();
-    		ratioDigitChar = (float) digitChar / colCharNum;
-    		ratioAlphaChar = (float) alphaChar / colCharNum;
-    		ratioSymbolChar = (float) symbolChar / colCharNum;
-    		fontSize = (float)fontSize / pieces.size();
-    		ratioFontBold = (float) boldNum / pieces.size();
-    		ratioFontItalic = (float) italicNum / pieces.size();
-    		ratioNumericCells = (float) numericCells / pieces.size();
-    		
-    		if (i != cols.size()-1) {
-    			ArrayList<TextPiece> nextPieces = new ArrayList<TextPiece>();
-    			nextPieces = cols.get(i+1).getCells();
-    			int nextRowCellNum = nextPieces.size();
-    			ratioCellNums = (float) Math.abs(colCellNum - nextRowCellNum) / (colCellNum + nextRowCellNum);
-    		}
-    		
-    		writeWekaModel(predictFile);
-    	}   	
-	}
-	
-    private boolean isNumString(String str) {
-    	Pattern pattern = Pattern.compile("[0-9]*.[0-9]*");
-        return pattern.matcher(str).matches();    
-    }
-    
-    /**
-     * Create the .arff file in a given directory path.
-     * This file is used to predict the column categories of the given table
-     * 
-     * @param featureFolder
-     *        the directory path of the file to be created
-     */
-    private void createWekaModel(File predictFile) {
-       	try {	    	
-	    	PrintWriter cfeatureFileWriter = new PrintWriter(new FileOutputStream(predictFile));
-	    	cfeatureFileWriter.write("@RELATION HeaderDataClassification\n\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE CellNum\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE AvgCellLen\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE CharNum\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE DigitChRatio\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE AlphaChRatio\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE SymbolChRatio\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE FontSize\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE FontBold\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE FontItalic\t\tNUMERIC\n");    	
-	    	cfeatureFileWriter.write("@ATTRIBUTE NumCellRatio\t\tNUMERIC\n");
-	    	cfeatureFileWriter.write("@ATTRIBUTE CellNumRatio\t\tNUMERIC\n");	    
-	    	cfeatureFileWriter.write("@ATTRIBUTE class	{HeaderDataClassification-0, HeaderDataClassification-1}\n\n");
-	    	cfeatureFileWriter.write("@DATA\n");
-	    	
-	    	if (cfeatureFileWriter != null){
-	    		cfeatureFileWriter.close();
-	    	}
-	    	}
-    	catch (FileNotFoundException e){
-    		System.out.print(e);
-    	}
-    }
-    
-    /**
-     * Write feature values into the .arff file been created.
-     * 
-     * @param featureFolder
-     *        the directory path of the feature file 
-     */
-    private void writeWekaModel(File predictFile) {   	
-    	try {
-    		FileOutputStream out = new FileOutputStream(predictFile, true);
-    		PrintWriter featureWriter = new PrintWriter (out);
-		
-        	try {
-        		Class c = this.getClass();
-        		Field[] fields = c.getDeclaredFields();
-        		for (int i = 1; i < fields.length; ++i) {
-        			fields[i].setAccessible(true);
-        			String s = fields[i].get(this).toString();
-        			if (s.length() > 4)
-        				s = s.substring(0,4);
-        			featureWriter.write(s + ",\t");
-        		}
-        		featureWriter.write("HeaderDataClassification-" + fields[0].get(this).toString());
-        		featureWriter.write('\n');
-        		featureWriter.close();
-        	}
-        	catch (IllegalAccessException e) {
-        		System.out.print(e);
-        	}
-    	}
-    	catch (FileNotFoundException e){
-    		System.out.print(e);
-    	}
-    }
-       
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.lang.*;
+
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+import edu.psu.seersuite.extractors.tableextractor.*;
+
+/**
+ * This class extracts features to classify the header columns and original data columns of given a table,
+ * as declared by FeatureSchema. The features can be kept in memory or written into a file conforming to weka .arff format. 
+ * 
+ * @author Jing
+ */
+public class ColFeatureExtractor implements IFeatureExtractor {
+	// the index of the next column to extract
+	private int next = 0;
+	
+	// class label
+	private int classLabel;
+	// header & data column classification features:
+	private int colCellNum;  
+	private int averageCellLength;
+	private int colCharNum;  
+	private float ratioDigitChar;
+	private float ratioAlphaChar;
+	private float ratioSymbolChar;
+	private float fontSize;
+	private float ratioFontBold;
+	private float ratioFontItalic;
+	private float ratioNumericCells; 
+	private float ratioCellNums;   
+
+    /**
+     * Extract features used to classify the header and data columns
+     * @param tc
+     *        the candidate table to be extracted
+     * @param featureFolder
+     * 		  the path of the feature file to be stored
+     */
+	public void extractFeatures(TableCandidate tc, File predictFile) {
+		try {
+			FeatureBuffer features = extractFeatures(tc);
+			Writer writer = new FileWriter(predictFile);
+			try {
+				FeatureCodec.writeArff(features, writer);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			System.out.print(e);
+		}
+	}
+
+    /**
+     * Extract features used to classify the header and data columns, and keep them in memory
+     * @param tc
+     *        the candidate table to be extracted
+     * @return 
+     * 		  one feature vector per column, laid out as declared by FeatureSchema.COL.
+     * 		  The values are the ones the .arff file would have given.
+     * @throws IOException
+     * 		  if a feature value is not a number once truncated
+     */
+	public FeatureBuffer extractFeatures(TableCandidate tc) throws IOException {
+		FeatureBuffer buffer = new FeatureBuffer(FeatureSchema.COL, tc.getColumns().size());
+		extractFeatures(tc, buffer);
+		return buffer;
+	}
+
+    /**
+     * Extract features used to classify the header and data columns, and append them to a buffer 
+     * holding the vectors of other tables, e.g., to classify all the tables of a page at once.
+     * Use a new extractor for each table.
+     * @param tc
+     *        the candidate table to be extracted
+     * @param buffer
+     * 		  the buffer receiving one feature vector per column, in FeatureSchema.COL
+     * @throws IOException
+     * 		  if a feature value is not a number once truncated
+     */
+	public void extractFeatures(TableCandidate tc, FeatureBuffer buffer) throws IOException {
+		while (extractNextFeatures(tc, buffer));
+	}
+
+    /**
+     * Extract the features of the next column of a table, and append them to a buffer. The columns are extracted 
+     * from the first one, so that a classification can stop at the first data column.
+     * @param tc
+     *        the candidate table to be extracted
+     * @param buffer
+     * 		  the buffer receiving the feature vector of the column, in FeatureSchema.COL
+     * @return 
+     * 		  true if a vector is appended, false if all the columns are extracted
+     * @throws IOException
+     * 		  if a feature value is not a number once truncated
+     */
+	public boolean extractNextFeatures(TableCandidate tc, FeatureBuffer buffer) throws IOException {
+		if (next >= tc.getColumns().size())
+			return false;
+		extractColFeatures(tc, next++);
+		int vector = buffer.addVector();
+		try {
+			fillVector(buffer, vector);
+		} catch (IOException e) {
+			buffer.truncate(vector);
+			throw e;
+		}
+		return true;
+	}
+
+    /**
+     * Extract the features of one column. The columns of a table must be extracted in order, 
+     * because some features are accumulated from the previous columns.
+     * @param tc
+     *        the candidate table to be extracted
+     * @param i
+     * 		  the index of the column
+     */
+	private void extractColFeatures(TableCandidate tc, int i) {
+		ArrayList<TableColumn> cols = new ArrayList<TableColumn>();
+		cols = tc.getColumns();  
+		if (i == 0) classLabel = 1;
+		else classLabel = 0;
+		ArrayList<TextPiece> pieces = new ArrayList<TextPiece>();
+		pieces = cols.get(i).getCells();
+		colCellNum = pieces.size();
+		CellSummary summary = tc.getCellSummary();
+		
+		int boldNum = 0;
+		int italicNum = 0;
+		int digitChar = 0;
+		int alphaChar = 0;
+		int symbolChar = 0;
+		int numericCells = 0;  		
+		for (TextPiece piece : pieces){
+			if (piece == null)
+				continue;
+			int k = summary.indexOf(piece);
+			colCharNum += summary.getLength(k);
+			digitChar += summary.getDigits(k);
+			alphaChar += summary.getLetters(k);
+			symbolChar += summary.getSymbols(k);
+			if (summary.isBold(k))
+				boldNum++;
+			if (summary.isItalic(k))
+				italicNum++;
+			fontSize += summary.getFontSize(k);
+			if (summary.isNumeric(k))
+				numericCells++;    				
+		} 		
+		averageCellLength = colCharNum / pieces.size();
+		ratioDigitChar = (float) digitChar / colCharNum;
+		ratioAlphaChar = (float) alphaChar / colCharNum;
+		ratioSymbolChar = (float) symbolChar / colCharNum;
+		fontSize = (float)fontSize / pieces.size();
+		ratioFontBold = (float) boldNum / pieces.size();
+		ratioFontItalic = (float) italicNum / pieces.size();
+		ratioNumericCells = (float) numericCells / pieces.size();
+		
+		if (i != cols.size()-1) {
+			ArrayList<TextPiece> nextPieces = new ArrayList<TextPiece>();
+			nextPieces = cols.get(i+1).getCells();
+			int nextRowCellNum = nextPieces.size();
+			ratioCellNums = (float) Math.abs(colCellNum - nextRowCellNum) / (colCellNum + nextRowCellNum);
+		}
+	}
+	
+    /**
+     * Store the features of the current column in a feature buffer
+     * 
+     * @param buffer
+     *        the feature buffer
+     * @param vector
+     *        the index of the vector of this column
+     * @throws IOException
+     */
+    private void fillVector(FeatureBuffer buffer, int vector) throws IOException {
+    	buffer.set(vector, FeatureSchema.CELL_NUM, colCellNum);
+    	buffer.set(vector, FeatureSchema.AVG_CELL_LEN, averageCellLength);
+    	buffer.set(vector, FeatureSchema.CHAR_NUM, colCharNum);
+    	buffer.set(vector, FeatureSchema.DIGIT_CH_RATIO, ratioDigitChar);
+    	buffer.set(vector, FeatureSchema.ALPHA_CH_RATIO, ratioAlphaChar);
+    	buffer.set(vector, FeatureSchema.SYMBOL_CH_RATIO, ratioSymbolChar);
+    	buffer.set(vector, FeatureSchema.FONT_SIZE, fontSize);
+    	buffer.set(vector, FeatureSchema.FONT_BOLD, ratioFontBold);
+    	buffer.set(vector, FeatureSchema.FONT_ITALIC, ratioFontItalic);
+    	buffer.set(vector, FeatureSchema.NUM_CELL_RATIO, ratioNumericCells);
+    	buffer.set(vector, FeatureSchema.CELL_NUM_RATIO, ratioCellNums);
+    	buffer.setClassLabel(vector, classLabel);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This class is the time and memory budget of the processing of one document, and its cancellation token: the PDF
+ * parser checks it while it strips the text of a page (through IPageHandler.isCancelled), and TableExtractor at the
+ * boundaries of its pages and tables. Once the budget is exceeded, or the document cancelled by another thread, the
+ * document is abandoned at the next check and rejected with the reason of the budget.
+ * <p>
+ * The time is the wall-clock time since the budget was created. The memory is the number of bytes allocated by the
+ * thread which created the budget since then (not the memory still in use, which only a garbage collection knows): it
+ * catches the documents which would otherwise run the JVM out of memory. The memory budget is ignored on the JVMs
+ * which do not count the allocations of a thread. A document processed by several threads one after the other (e.g.,
+ * in the stages of an ExtractionPipeline) hands its budget over with resume.
+ */
+public class DocumentBudget
+{
+    private long maxTime;		//the longest time, in milliseconds / 0 (no limit)
+    private long maxAllocation;	//the largest allocation, in bytes / 0 (no limit)
+    private long startTime;
+    private long threadId;		//the thread whose allocations are counted
+    private long startAllocation;	//the bytes allocated by the thread when it began to count / -1 (not counted)
+    private long previousAllocation = 0;	//the bytes allocated by the previous threads of the document
+    private volatile String reason = null;	//why the document is abandoned / null
+
+    /**
+     * Constructor, to be called by the thread which processes the document, right before it begins
+     * @param maxTime
+     *            the longest time to process the document, in milliseconds / 0 (no limit)
+     * @param maxAllocation
+     *            the largest number of bytes allocated to process the document / 0 (no limit)
+     */
+    public DocumentBudget(long maxTime, long maxAllocation)
+    {
+	this.maxTime = maxTime;
+	this.maxAllocation = maxAllocation;
+	this.startTime = System.currentTimeMillis();
+	this.threadId = Thread.currentThread().getId();
+	this.startAllocation = (maxAllocation > 0) ? getAllocatedBytes(threadId) : -1;
+    }
+
+    /**
+     * Continues the document on the calling thread: the allocations of the previous thread are kept, and those of the
+     * calling thread are counted from now on
+     */
+    public synchronized void resume()
+    {
+	long currentThreadId = Thread.currentThread().getId();
+	if (startAllocation < 0 || currentThreadId == threadId)
+	    return;
+	long allocation = getAllocatedBytes(threadId);
+	if (allocation >= 0)
+	    previousAllocation += allocation - startAllocation;
+	threadId = currentThreadId;
+	startAllocation = getAllocatedBytes(threadId);
+    }
+
+    /**
+     * Cancels the document, e.g., from another thread: it is abandoned at the next check
+     */
+    public void cancel()
+    {
+	if (reason == null)
+	    reason = DocumentTriage.REJECT_CANCELLED;
+    }
+
+    /**
+     * Judges whether the document must be abandoned
+     * @return a boolean value: true/false
+     */
+    public boolean isExceeded()
+    {
+	if (reason != null)
+	    return true;
+	if (maxTime > 0 && getElapsedTime() > maxTime)
+	    reason = DocumentTriage.REJECT_TIMEOUT;
+	else if (maxAllocation > 0 && getAllocation() > maxAllocation)
+	    reason = DocumentTriage.REJECT_MEMORY;
+	return reason != null;
+    }
+
+    /**
+     * Abandons the document if the budget is exceeded
+     * @throws DocumentCancelledException
+     *             if the document must be abandoned
+     */
+    public void check()
+    {
+	if (isExceeded())
+	    throw new DocumentCancelledException(reason);
+    }
+
+    /**
+     * Gets why the document is abandoned
+     * @return DocumentTriage.REJECT_TIMEOUT, REJECT_MEMORY or REJECT_CANCELLED / null (if the budget is not exceeded)
+     */
+    public String getReason()
+    {
+	return reason;
+    }
+
+    /**
+     * Gets the time since the budget was created
+     * @return the time in milliseconds
+     */
+    public long getElapsedTime()
+    {
+	return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the threads of the document since the budget was created
+     * @return the number of bytes / -1 (if they are not counted)
+     */
+    public synchronized long getAllocation()
+    {
+	if (startAllocation < 0)
+	    return -1;
+	long allocation = getAllocatedBytes(threadId);
+	return (allocation < 0) ? -1 : previousAllocation + allocation - startAllocation;
+    }
+
+    /**
+     * Gets the number of bytes allocated by a thread since it started, if the JVM counts them
+     */
+    private static long getAllocatedBytes(long threadId)
+    {
+	try
+	{
+	    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	    if (threadBean instanceof com.sun.management.ThreadMXBean)
+	    {
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+		if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled())
+		    return allocationBean.getThreadAllocatedBytes(threadId);
+	    }
+	}
+	catch (LinkageError e)
+	{
+	    // not a HotSpot JVM
+	}
+	return -1;
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+/**
+ * This exception abandons the processing of a document whose budget is exceeded or which is cancelled. It is thrown
+ * by DocumentBudget.check and caught where the document is processed, e.g., in TableExtractor.extract, which rejects
+ * the document with the reason of the exception.
+ *
+ * @see DocumentBudget
+ */
+public class DocumentCancelledException extends RuntimeException
+{
+    private static final long serialVersionUID = 1L;
+
+    private String reason;
+
+    /**
+     * Constructor
+     * @param reason
+     *            DocumentTriage.REJECT_TIMEOUT, REJECT_MEMORY or REJECT_CANCELLED
+     */
+    public DocumentCancelledException(String reason)
+    {
+	super("document abandoned: " + reason);
+	this.reason = reason;
+    }
+
+    /**
+     * Gets why the document is abandoned
+     * @return DocumentTriage.REJECT_TIMEOUT, REJECT_MEMORY or REJECT_CANCELLED
+     */
+    public String getReason()
+    {
+	return reason;
+    }
+}
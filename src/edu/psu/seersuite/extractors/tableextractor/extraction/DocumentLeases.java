@@ -0,0 +1,251 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * This class shares the documents of a batch between the nodes which process it at the same time (machines, or
+ * processes of one machine), through lease files in a directory of a shared filesystem, e.g., NFS.
+ * <p>
+ * A node claims a document by creating the file [name].lease, which it keeps renewing (its modification time) while
+ * the document is processed; once the outputs of the document are written, it creates [name].done and deletes the
+ * lease. The documents which are done, or whose lease is renewed by another node, are not claimed. A lease which is
+ * not renewed for the lease time is the one of a node which stopped: another node takes it over and processes the
+ * document, so the nodes which are idle steal the work left by the others. The clocks of the nodes must agree to
+ * well under the lease time.
+ * <p>
+ * Two nodes may process a document if a lease is taken over at the moment it is renewed; both outputs are then
+ * the same, and ShardMerger keeps one of them.
+ */
+public class DocumentLeases
+{
+    public static final String LEASE_SUFFIX = ".lease";
+    public static final String DONE_SUFFIX = ".done";
+    public static final long DEFAULT_LEASE_TIME = 300 * 1000;	//5 minutes
+
+    private File dir;
+    private String node;	//the name of this node
+    private long leaseTime;	//in milliseconds
+    private HashSet<File> heldLeases = new HashSet<File>();	//the lease files of the documents this node processes
+    private Thread renewer = null;
+
+    /**
+     * Constructor
+     * @param dir
+     *            the lease directory, shared by the nodes
+     * @param node
+     *            the name of this node
+     * @param leaseTime
+     *            the time from which a lease which is not renewed is taken over, in milliseconds
+     * @throws IOException
+     *             if the directory can not be created
+     */
+    public DocumentLeases(File dir, String node, long leaseTime) throws IOException
+    {
+	if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory())
+	    throw new IOException("cannot create the lease directory " + dir.getPath());
+	if (leaseTime <= 0)
+	    throw new IllegalArgumentException("invalid lease time " + leaseTime);
+	this.dir = dir;
+	this.node = node;
+	this.leaseTime = leaseTime;
+    }
+
+    /**
+     * Starts the thread which renews the leases of this node, three times per lease time
+     */
+    public synchronized void start()
+    {
+	if (renewer != null)
+	    return;
+	renewer = new Thread("lease-renewer"){
+	    public void run(){
+		try
+		{
+		    while (true)
+		    {
+			Thread.sleep(leaseTime / 3);
+			renew();
+		    }
+		}
+		catch (InterruptedException e)
+		{
+		    // the leases are closed
+		}
+	    }
+	};
+	renewer.setDaemon(true);
+	renewer.start();
+    }
+
+    /**
+     * Stops renewing the leases; the leases still held are deleted, so that other nodes can claim their documents
+     */
+    public void close()
+    {
+	Thread thread;
+	ArrayList<File> leases;
+	synchronized (this)
+	{
+	    thread = renewer;
+	    renewer = null;
+	    leases = new ArrayList<File>(heldLeases);
+	    heldLeases.clear();
+	}
+	if (thread != null)
+	    thread.interrupt();
+	for (File lease : leases)
+	    lease.delete();
+    }
+
+    /**
+     * Claims a document for this node
+     * @param pdfFile
+     *            the PDF file of the document
+     * @return a boolean value: true (this node processes the document, and calls complete once it is done) / false
+     *         (the document is done, or another node processes it)
+     */
+    public boolean claim(File pdfFile)
+    {
+	File lease = getLeaseFile(pdfFile);
+	for (int attempt = 0; attempt < 2; attempt++)
+	{
+	    if (isCompleted(pdfFile))
+		return false;
+	    try
+	    {
+		if (lease.createNewFile())
+		{
+		    FileOutputStream out = new FileOutputStream(lease);
+		    try
+		    {
+			out.write((node + "\n").getBytes("UTF-8"));
+		    }
+		    finally
+		    {
+			out.close();
+		    }
+		    synchronized (this)
+		    {
+			heldLeases.add(lease);
+		    }
+		    return true;
+		}
+	    }
+	    catch (IOException e)
+	    {
+		System.out.printf("[Error] cannot create the lease %s: %s\n", lease.getPath(), e.getMessage());
+		return false;
+	    }
+
+	    /*
+	     *  A lease which is not renewed is taken over: it is renamed away first, so that only one node takes it.
+	     */
+	    long modified = lease.lastModified();
+	    if (modified != 0 && System.currentTimeMillis() - modified < leaseTime)
+		return false;
+	    File stale = new File(dir, lease.getName() + "." + node + ".stale");
+	    if (modified != 0)
+	    {
+		if (!lease.renameTo(stale))
+		    return false;
+		stale.delete();
+		System.out.printf("[Info] lease of %s taken over\n", pdfFile.getName());
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Marks a document claimed by this node as done, once its outputs are written
+     * @param pdfFile
+     *            the PDF file of the document
+     * @throws IOException
+     *             if the document can not be marked
+     */
+    public void complete(File pdfFile) throws IOException
+    {
+	File done = getDoneFile(pdfFile);
+	if (!done.exists() && !done.createNewFile() && !done.exists())
+	    throw new IOException("cannot create " + done.getPath());
+	File lease = getLeaseFile(pdfFile);
+	synchronized (this)
+	{
+	    heldLeases.remove(lease);
+	}
+	lease.delete();
+    }
+
+    /**
+     * Judges whether a document is done, by any node
+     * @param pdfFile
+     *            the PDF file of the document
+     * @return a boolean value: true/false
+     */
+    public boolean isCompleted(File pdfFile)
+    {
+	return getDoneFile(pdfFile).exists();
+    }
+
+    /**
+     * Gets the documents which are not done yet, e.g., claimed by other nodes, which may stop before they are done
+     * @param pdfFiles
+     *            the documents
+     * @param docNum
+     *            the number of documents, from the first one
+     * @return the documents which are not done
+     */
+    public File[] getUncompleted(File[] pdfFiles, int docNum)
+    {
+	ArrayList<File> uncompleted = new ArrayList<File>();
+	for (int i = 0; i < docNum; i++)
+	{
+	    if (!isCompleted(pdfFiles[i]))
+		uncompleted.add(pdfFiles[i]);
+	}
+	return uncompleted.toArray(new File[uncompleted.size()]);
+    }
+
+    /**
+     * Gets how long a node waits before it checks again the documents claimed by other nodes
+     * @return the time in milliseconds
+     */
+    public long getPollTime()
+    {
+	return Math.min(5000, leaseTime / 3);
+    }
+
+    /**
+     * Renews the leases held by this node
+     */
+    private void renew()
+    {
+	ArrayList<File> leases;
+	synchronized (this)
+	{
+	    leases = new ArrayList<File>(heldLeases);
+	}
+	long now = System.currentTimeMillis();
+	for (File lease : leases)
+	{
+	    if (!lease.setLastModified(now))
+		System.out.printf("[Error] cannot renew the lease %s\n", lease.getPath());
+	}
+    }
+
+    private File getLeaseFile(File pdfFile)
+    {
+	return new File(dir, pdfFile.getName() + LEASE_SUFFIX);
+    }
+
+    private File getDoneFile(File pdfFile)
+    {
+	return new File(dir, pdfFile.getName() + DONE_SUFFIX);
+    }
+}
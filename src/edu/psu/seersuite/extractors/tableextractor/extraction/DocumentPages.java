@@ -0,0 +1,271 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+
+/**
+ * This class receives the pages of a PDF document from the PDF parser and computes the document-level parameters
+ * (DocInfo) while the document is being parsed, instead of scanning all the words again once it is parsed. It also
+ * applies the triage limits: it rejects the document before its text is stripped if it is too large or has no text
+ * layer, and stops the parsing as soon as the document has too many pages or exceeds its budget.
+ * <p>
+ * The lines of a page can not be combined, nor its tables detected, when the page arrives: both need the parameters
+ * of the whole document (the average character width, the body text scale and the average line width), and the
+ * reference texts of a table are searched in all the pages. The glyphs of the pages are therefore kept until the
+ * document is parsed.
+ * <p>
+ * The parameters only take the words in the body text scale into account, which is known once all the pages are
+ * parsed. They are accumulated for each scale separately, in the order of the words, so that they are exactly the
+ * ones of a second pass over the words in the body text scale.
+ */
+public class DocumentPages implements IPageHandler
+{
+    private TriageLimits limits;
+    private DocumentBudget budget;
+    private String rejectReason = null;	//why the document is rejected / null
+    private ArrayList<GlyphPage> glyphsByPage = new ArrayList<GlyphPage>();
+    private float docTitleFont = 0;
+
+    /*
+     * The accumulators of each distinct scale, in the order the scales are met
+     */
+    private int scaleNum = 0;
+    private float[] scales = new float[16];
+    private float[] textWidth = new float[16];	//the text width of each scale, to find the body text scale
+    private float[] lineGap = new float[16];
+    private int[] lineNum = new int[16];
+    private float[] xGap = new float[16];
+    private int[] sameLineObj = new int[16];
+    private float[] minX = new float[16];
+    private float[] maxX = new float[16];
+    private float[] minY = new float[16];
+    private float[] maxY = new float[16];
+    private float[] charWidth = new float[16];
+    private int[] charNum = new int[16];
+
+    /**
+     * Constructor, to be called right before the document is parsed
+     * @param limits
+     *            the limits from which the document is rejected
+     * @param budget
+     *            the time and memory budget of the document
+     */
+    public DocumentPages(TriageLimits limits, DocumentBudget budget)
+    {
+	this.limits = limits;
+	this.budget = budget;
+    }
+
+    /**
+     * Judges whether a PDF file is small enough to be parsed
+     * @param pdfFile
+     *            the PDF file
+     * @return a boolean value: true/false (the document is rejected)
+     */
+    public boolean acceptFile(File pdfFile)
+    {
+	if (limits.getMaxFileSize() > 0 && pdfFile.length() > limits.getMaxFileSize())
+	    rejectReason = DocumentTriage.REJECT_FILE_SIZE;
+	return rejectReason == null;
+    }
+
+    /**
+     * Rejects the document if it is encrypted, has too many pages or has no text layer
+     */
+    public boolean handleDocument(DocumentTriage triage)
+    {
+	rejectReason = triage.getRejectReason(limits);
+	return rejectReason == null && !isCancelled();	//loading a large document can exceed the budget
+    }
+
+    /**
+     * Keeps a page and adds its words to the document-level parameters
+     */
+    public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage)
+    {
+	glyphsByPage.add(glyphsOfAPage);
+	boolean firstPage = glyphsByPage.size() == 1;
+	for (int i = 0; i < glyphsOfAPage.size(); i++)
+	{
+	    // get the document title font size
+	    if (firstPage && (glyphsOfAPage.getY(i) < 400))
+	    {
+		if (docTitleFont < glyphsOfAPage.getFontSize(i))
+		    docTitleFont = glyphsOfAPage.getFontSize(i);
+	    }
+	    float scale = Math.max(glyphsOfAPage.getXScale(i), glyphsOfAPage.getFontSize(i));
+	    int s = 0;
+	    while (s < scaleNum && scales[s] != scale)
+		s++;
+	    if (s == scaleNum)
+	    {
+		addScale(scale);
+		textWidth[s] = glyphsOfAPage.getWidth(i);
+	    }
+	    else
+		textWidth[s] = textWidth[s] + glyphsOfAPage.getWidth(i);	//calculate the text width for each scale is better than just counting the line number
+	    if (i > 0 && scale == scale)	//a NaN scale is never the body text scale
+		addWord(s, glyphsOfAPage, i);
+	}
+	if (limits.getMaxPageNum() > 0 && glyphsByPage.size() > limits.getMaxPageNum())
+	    rejectReason = DocumentTriage.REJECT_PAGE_NUM;	//if the parser does not know the page number in advance
+	return rejectReason == null && !isCancelled();
+    }
+
+    /**
+     * Abandons the document if its budget is exceeded
+     */
+    public boolean isCancelled()
+    {
+	if (rejectReason == null && budget.isExceeded())
+	    rejectReason = budget.getReason();
+	return rejectReason != null;
+    }
+
+    private void addScale(float scale)
+    {
+	if (scaleNum == scales.length)
+	{
+	    int capacity = 2 * scaleNum;
+	    scales = Arrays.copyOf(scales, capacity);
+	    textWidth = Arrays.copyOf(textWidth, capacity);
+	    lineGap = Arrays.copyOf(lineGap, capacity);
+	    lineNum = Arrays.copyOf(lineNum, capacity);
+	    xGap = Arrays.copyOf(xGap, capacity);
+	    sameLineObj = Arrays.copyOf(sameLineObj, capacity);
+	    minX = Arrays.copyOf(minX, capacity);
+	    maxX = Arrays.copyOf(maxX, capacity);
+	    minY = Arrays.copyOf(minY, capacity);
+	    maxY = Arrays.copyOf(maxY, capacity);
+	    charWidth = Arrays.copyOf(charWidth, capacity);
+	    charNum = Arrays.copyOf(charNum, capacity);
+	}
+	int s = scaleNum++;
+	scales[s] = scale;
+	lineGap[s] = (float) 0.1;	//this is ave_LineGap_thisPage in old version
+	lineNum[s] = 1;
+	xGap[s] = (float) 0.1;
+	sameLineObj[s] = 1;
+	minX[s] = 1000;
+	maxX[s] = 0;
+	minY[s] = 1000;
+	maxY[s] = 0;
+	charWidth[s] = (float) 0.0000001;
+	charNum[s] = 1;
+    }
+
+    /**
+     * Adds a glyph, which is not the first one of its page, to the parameters of its scale
+     */
+    private void addWord(int s, GlyphPage glyphs, int i)
+    {
+	float x = glyphs.getX(i);
+	float y = glyphs.getY(i);
+	float width = glyphs.getWidth(i);
+	float prevX = glyphs.getX(i - 1);
+	float prevY = glyphs.getY(i - 1);
+	float prevWidth = glyphs.getWidth(i - 1);
+	float prevHeight = glyphs.getHeight(i - 1);
+	/*
+	 * Calculates ave_LineGap
+	 */
+	if ((y - prevY - prevHeight > (float) 0.0) && (y - prevY - prevHeight < prevHeight))
+	{//reduce the big gap noise
+	    lineGap[s] = lineGap[s] + (y - prevY);
+	    lineNum[s]++;
+	}
+
+	/*
+	 * Gets the boundary of the doc page
+	 */
+	if ((x < minX[s]) && (x > 0))
+	    minX[s] = x;
+	if ((x + width + glyphs.getWidthOfSpace(i)) > maxX[s])
+	    maxX[s] = x + width + glyphs.getWidthOfSpace(i);
+	if ((y < minY[s]) && (y > 0))
+	    minY[s] = y;
+	if (y > maxY[s])
+	    maxY[s] = y;
+
+	/*
+	 * Calculates ave_X_Gap_inLine
+	 */
+	if ((y == prevY) && (x - prevX - prevWidth > 0))
+	{
+	    xGap[s] = xGap[s] + x - prevX - prevWidth;
+	    sameLineObj[s]++;
+	}
+
+	/*
+	 * calculates the average width of each character in the whole document
+	 */
+	charWidth[s] = charWidth[s] + width;
+	charNum[s] = charNum[s] + glyphs.getTextLength(i);
+    }
+
+    /**
+     * Gets the pages of the document
+     * @return the glyphs of each page
+     */
+    public ArrayList<GlyphPage> getGlyphsByPage()
+    {
+	return glyphsByPage;
+    }
+
+    /**
+     * Gets the reason for rejecting the document
+     * @return one of the DocumentTriage.REJECT_* reasons / null (if the document is not rejected)
+     */
+    public String getRejectReason()
+    {
+	return rejectReason;
+    }
+
+    /**
+     * Calculates the document-level parameters of the parsed pages
+     * @return an object of DocInfo
+     */
+    public DocInfo computeDocInfo()
+    {
+	DocInfo docInfo = new DocInfo();
+	float maxLineNum = 0;
+	int bodyTextScaleIndex = 0;
+	for (int j = 0; j < scaleNum; j++)
+	{
+	    if (textWidth[j] > maxLineNum)
+	    {
+		maxLineNum = textWidth[j];
+		bodyTextScaleIndex = j;
+	    }
+	}
+	int s = bodyTextScaleIndex;
+	if (scaleNum == 0)
+	    addScale(0.0f);
+
+	docInfo.setTitleFont(docTitleFont);
+	docInfo.setBodyTextScale(scales[s]);
+	docInfo.setAverageLineGap(lineGap[s] / (float) lineNum[s]);
+	docInfo.setMinX(minX[s]);
+	docInfo.setMaxX(maxX[s]);
+	docInfo.setMinY(minY[s]);
+	docInfo.setMaxY(maxY[s]);
+	docInfo.setAverageXGap(xGap[s] / (float) sameLineObj[s]);
+	docInfo.setAverageCharWidth(charWidth[s] / (float) charNum[s]);
+
+	/*
+	 * TODO! Unfinished
+	 * Judges whether this doc only has one column
+	 */
+	float middleX = docInfo.getMinX() + (docInfo.getMaxX() - docInfo.getMinX()) / 2;
+	docInfo.setMiddleX(middleX);
+	docInfo.setMiddleArea_X(middleX - 3);
+	docInfo.setMiddleArea_EndX(middleX + 3);
+	return docInfo;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+/**
+ * This class holds what a PDF parser learns about a document once it is loaded, before the text of its pages is
+ * stripped: the number of pages, whether it is encrypted, and whether a few sampled pages have a text layer. It also
+ * names the reasons for which TableExtractor rejects a document.
+ *
+ * @see IPageHandler#handleDocument(DocumentTriage)
+ * @see TriageLimits
+ */
+public class DocumentTriage
+{
+    public static final int SAMPLED_PAGE_NUM = 3;	//the number of pages checked for a text layer: the first, middle and last ones
+
+    /*
+     * The reasons for rejecting a document
+     */
+    public static final String REJECT_FILE_SIZE = "filesize";	//the PDF file is too large
+    public static final String REJECT_PAGE_NUM = "pages";		//the document has too many pages
+    public static final String REJECT_ENCRYPTED = "encrypted";	//the document is encrypted
+    public static final String REJECT_NO_TEXT_LAYER = "notextlayer";	//no sampled page has a text layer, e.g., a scanned document
+    public static final String REJECT_TIMEOUT = "timeout";		//processing the document takes too long, see DocumentBudget
+    public static final String REJECT_MEMORY = "memory";		//processing the document allocates too much memory
+    public static final String REJECT_CANCELLED = "cancelled";	//the processing of the document is cancelled
+    public static final String REJECT_PARSE_ERROR = "parseerror";	//the PDF parser fails
+    public static final String REJECT_NO_TEXT = "notext";		//the PDF parser extracts no text
+    public static final String REJECT_CRASH = "crash";		//the document crashes the worker processes again and again, see WorkerProcess
+
+    private int pageNum = -1;		//the number of pages / -1 (unknown)
+    private boolean encrypted = false;
+    private int sampledPageNum = 0;	//the number of pages checked for a text layer
+    private int textPageNum = 0;	//the number of checked pages which have a text layer
+
+    /**
+     * Gets the number of pages of the document
+     * @return the number of pages / -1 (if the parser does not know it)
+     */
+    public int getPageNum()
+    {
+	return pageNum;
+    }
+
+    /**
+     * Sets the number of pages of the document
+     * @param pageNum
+     *            the number of pages
+     */
+    public void setPageNum(int pageNum)
+    {
+	this.pageNum = pageNum;
+    }
+
+    /**
+     * Judges whether the document is encrypted
+     * @return a boolean value: true/false
+     */
+    public boolean isEncrypted()
+    {
+	return encrypted;
+    }
+
+    /**
+     * Sets whether the document is encrypted
+     * @param encrypted
+     *            true/false
+     */
+    public void setEncrypted(boolean encrypted)
+    {
+	this.encrypted = encrypted;
+    }
+
+    /**
+     * Records a page checked for a text layer
+     * @param hasTextLayer
+     *            whether the page has fonts (or forms, which may have fonts)
+     */
+    public void addSampledPage(boolean hasTextLayer)
+    {
+	sampledPageNum++;
+	if (hasTextLayer)
+	    textPageNum++;
+    }
+
+    /**
+     * Gets the number of pages checked for a text layer
+     * @return the number of pages
+     */
+    public int getSampledPageNum()
+    {
+	return sampledPageNum;
+    }
+
+    /**
+     * Gets the number of checked pages which have a text layer
+     * @return the number of pages
+     */
+    public int getTextPageNum()
+    {
+	return textPageNum;
+    }
+
+    /**
+     * Judges whether the document must be rejected before its text is stripped
+     * @param limits
+     *            the rejection limits
+     * @return the reason for rejecting the document / null (if the document is parsed)
+     */
+    public String getRejectReason(TriageLimits limits)
+    {
+	if (encrypted)
+	    return REJECT_ENCRYPTED;
+	if (limits.getMaxPageNum() > 0 && pageNum > limits.getMaxPageNum())
+	    return REJECT_PAGE_NUM;
+	if (limits.isTextLayerRequired() && sampledPageNum > 0 && textPageNum == 0)
+	    return REJECT_NO_TEXT_LAYER;
+	return null;
+    }
+}
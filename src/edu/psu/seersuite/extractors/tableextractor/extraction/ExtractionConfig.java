@@ -0,0 +1,346 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Properties;
+
+import edu.psu.seersuite.extractors.tableextractor.Config;
+
+/**
+ * This class is the configuration of an extraction run: the debug and test triggers, the caption keywords, the line
+ * width parameters, the heading detection settings and the triage limits. It is built once, from a properties file or
+ * the command line, and can not be changed afterwards: several extractors with different configurations can run at the
+ * same time in one JVM, and the extraction reads final fields instead of the mutable statics of Config.
+ * <p>
+ * The keys of the properties are those of the BatchExtractor options, without the leading "--":
+ * <p>
+ *         debug, small: true/false (false by default)<p>
+ *         batch: table, page or document (table by default)<p>
+ *         heading: learning or cascade (learning by default); cascade-threshold: 0.7 by default<p>
+ *         max-pages (150 by default), max-size (MB), max-time (seconds), max-memory (MB): 0 is no limit<p>
+ *         text-layer-required: true/false (true by default)<p>
+ *         table-keywords, figure-keywords: comma-separated caption keywords (Config.getTableKeywords() and
+ *         Config.getFigureKeywords() by default)<p>
+ *         line-width-threshold, line-width-value: the average line width below which the value is used instead
+ *         (TableExtractor.LINEWIDTH_THRESHOLD and LINEWIDTH_VALUE by default)<p>
+ *         page-threads: the number of threads which detect the tables of the pages of a document at the same time
+ *         (1 by default: one page after the other)<p>
+ * The keys which are not set take their default values; the other keys are ignored.
+ */
+public final class ExtractionConfig
+{
+    public static final String DEBUG = "debug";
+    public static final String SMALL = "small";
+    public static final String BATCH = "batch";
+    public static final String HEADING = "heading";
+    public static final String CASCADE_THRESHOLD = "cascade-threshold";
+    public static final String MAX_PAGES = "max-pages";
+    public static final String MAX_SIZE = "max-size";
+    public static final String MAX_TIME = "max-time";
+    public static final String MAX_MEMORY = "max-memory";
+    public static final String TEXT_LAYER_REQUIRED = "text-layer-required";
+    public static final String TABLE_KEYWORDS = "table-keywords";
+    public static final String FIGURE_KEYWORDS = "figure-keywords";
+    public static final String LINE_WIDTH_THRESHOLD = "line-width-threshold";
+    public static final String LINE_WIDTH_VALUE = "line-width-value";
+    public static final String PAGE_THREADS = "page-threads";
+
+    private static final String[] BATCH_NAMES = { "table", "page", "document" };	//by TableExtractor.CLASSIFY_*
+    private static final String[] HEADING_NAMES = { "learning", "cascade" };	//by TableExtractor.HEADING_*
+
+    private final boolean debugMode;	//whether the middle-stage results are printed and saved (see Debug)
+    private final boolean smallTest;	//whether a batch only processes its first 10 documents
+    private final int classificationBatch;
+    private final int headingDetection;
+    private final double cascadeThreshold;
+    private final int maxPageNum;
+    private final long maxFileSize;	//in bytes
+    private final long maxTime;		//in milliseconds
+    private final long maxAllocation;	//in bytes
+    private final boolean textLayerRequired;
+    private final String[] tableKeywords;
+    private final String[] figureKeywords;
+    private final float lineWidthThreshold;
+    private final float lineWidthValue;
+    private final int pageThreads;
+    private final Properties properties;	//the properties the configuration is built from
+
+    /**
+     * Constructor of the default configuration
+     */
+    public ExtractionConfig()
+    {
+	this(new Properties());
+    }
+
+    /**
+     * Constructor
+     * @param properties
+     *            the settings, with the keys of the class description
+     * @throws IllegalArgumentException
+     *             if a setting is not valid
+     */
+    public ExtractionConfig(Properties properties)
+    {
+	this.properties = new Properties();
+	this.properties.putAll(properties);
+	debugMode = getBoolean(DEBUG, false);
+	smallTest = getBoolean(SMALL, false);
+	classificationBatch = getChoice(BATCH, BATCH_NAMES, TableExtractor.CLASSIFY_PER_TABLE);
+	headingDetection = getChoice(HEADING, HEADING_NAMES, TableExtractor.HEADING_LEARNING);
+	cascadeThreshold = getDouble(CASCADE_THRESHOLD, 0.7);
+	maxPageNum = (int) getLong(MAX_PAGES, 150, Integer.MAX_VALUE);
+	maxFileSize = getLong(MAX_SIZE, 0, Long.MAX_VALUE >> 20) << 20;
+	maxTime = getLong(MAX_TIME, 0, Long.MAX_VALUE / 1000) * 1000;
+	maxAllocation = getLong(MAX_MEMORY, 0, Long.MAX_VALUE >> 20) << 20;
+	textLayerRequired = getBoolean(TEXT_LAYER_REQUIRED, true);
+	tableKeywords = getList(TABLE_KEYWORDS, Config.getTableKeywords());
+	figureKeywords = getList(FIGURE_KEYWORDS, Config.getFigureKeywords());
+	lineWidthThreshold = (float) getDouble(LINE_WIDTH_THRESHOLD, TableExtractor.LINEWIDTH_THRESHOLD);
+	lineWidthValue = (float) getDouble(LINE_WIDTH_VALUE, TableExtractor.LINEWIDTH_VALUE);
+	pageThreads = (int) getLong(PAGE_THREADS, 1, 1024);
+    }
+
+    /**
+     * Loads a configuration from a properties file
+     * @param file
+     *            the properties file
+     * @return the configuration
+     * @throws IOException
+     *             if the file can not be read
+     * @throws IllegalArgumentException
+     *             if a setting is not valid
+     */
+    public static ExtractionConfig load(File file) throws IOException
+    {
+	Properties properties = new Properties();
+	InputStream in = new FileInputStream(file);
+	try
+	{
+	    properties.load(in);
+	}
+	finally
+	{
+	    in.close();
+	}
+	return new ExtractionConfig(properties);
+    }
+
+    /**
+     * Gets the properties the configuration is built from, e.g., to build another configuration which differs from
+     * this one in a few settings
+     * @return a copy of the properties
+     */
+    public Properties toProperties()
+    {
+	Properties copy = new Properties();
+	copy.putAll(properties);
+	return copy;
+    }
+
+    /**
+     * Judges whether the middle-stage results are printed and saved (see Debug)
+     * @return a boolean value: true/false
+     */
+    public boolean isDebugMode()
+    {
+	return debugMode;
+    }
+
+    /**
+     * Judges whether a batch only processes its first 10 documents
+     * @return a boolean value: true/false
+     */
+    public boolean isSmallTest()
+    {
+	return smallTest;
+    }
+
+    /**
+     * Gets which tables are classified together
+     * @return TableExtractor.CLASSIFY_PER_TABLE, CLASSIFY_PER_PAGE or CLASSIFY_PER_DOCUMENT
+     */
+    public int getClassificationBatch()
+    {
+	return classificationBatch;
+    }
+
+    /**
+     * Gets how the heading rows/columns are detected
+     * @return TableExtractor.HEADING_LEARNING or HEADING_CASCADE
+     */
+    public int getHeadingDetection()
+    {
+	return headingDetection;
+    }
+
+    /**
+     * Gets the confidence from which the cascade keeps the cell-based heading decisions
+     * @return the cascade threshold
+     */
+    public double getCascadeThreshold()
+    {
+	return cascadeThreshold;
+    }
+
+    /**
+     * Gets the limits from which a document is rejected without extracting its tables
+     * @return new triage limits, which the caller may change
+     */
+    public TriageLimits getTriageLimits()
+    {
+	TriageLimits triageLimits = new TriageLimits();
+	triageLimits.setMaxPageNum(maxPageNum);
+	triageLimits.setMaxFileSize(maxFileSize);
+	triageLimits.setMaxTime(maxTime);
+	triageLimits.setMaxAllocation(maxAllocation);
+	triageLimits.setTextLayerRequired(textLayerRequired);
+	return triageLimits;
+    }
+
+    /**
+     * Judges whether a line begins with a table caption keyword
+     * @param line
+     *            the text of the line
+     * @return the keyword / null (if there is none)
+     */
+    public String getTableKeyword(String line)
+    {
+	return getKeyword(line, tableKeywords);
+    }
+
+    /**
+     * Judges whether a line begins with a figure caption keyword
+     * @param line
+     *            the text of the line
+     * @return the keyword / null (if there is none)
+     */
+    public String getFigureKeyword(String line)
+    {
+	return getKeyword(line, figureKeywords);
+    }
+
+    /**
+     * Gets the average line width below which the average line width of a document is not trusted
+     * @return the width
+     */
+    public float getLineWidthThreshold()
+    {
+	return lineWidthThreshold;
+    }
+
+    /**
+     * Gets the average line width used for the documents whose average line width is below the threshold
+     * @return the width
+     */
+    public float getLineWidthValue()
+    {
+	return lineWidthValue;
+    }
+
+    /**
+     * Gets the number of threads which detect the tables of the pages of a document at the same time. The pages are
+     * merged in their order, so the tables are the same as with one thread; the memory budget of a document does not
+     * count the allocations of these threads.
+     * @return the number of threads / 1 (one page after the other)
+     */
+    public int getPageThreads()
+    {
+	return Math.max(1, pageThreads);
+    }
+
+    /**
+     * Finds the first keyword a line begins with
+     */
+    private static String getKeyword(String line, String[] keywords)
+    {
+	for (String keyword : keywords)
+	{
+	    if (line.startsWith(keyword))
+		return keyword;
+	}
+	return null;
+    }
+
+    private boolean getBoolean(String key, boolean defaultValue)
+    {
+	String value = properties.getProperty(key);
+	if (value == null)
+	    return defaultValue;
+	value = value.trim();
+	if (value.equalsIgnoreCase("true"))
+	    return true;
+	if (value.equalsIgnoreCase("false"))
+	    return false;
+	throw new IllegalArgumentException("invalid " + key + " " + value);
+    }
+
+    private int getChoice(String key, String[] names, int defaultValue)
+    {
+	String value = properties.getProperty(key);
+	if (value == null)
+	    return defaultValue;
+	for (int i = 0; i < names.length; i++)
+	{
+	    if (names[i].equalsIgnoreCase(value.trim()))
+		return i;
+	}
+	throw new IllegalArgumentException("invalid " + key + " " + value);
+    }
+
+    private double getDouble(String key, double defaultValue)
+    {
+	String value = properties.getProperty(key);
+	if (value == null)
+	    return defaultValue;
+	try
+	{
+	    double d = Double.parseDouble(value.trim());
+	    if (!Double.isNaN(d) && d >= 0)
+		return d;
+	}
+	catch (NumberFormatException e)
+	{
+	    // reported below
+	}
+	throw new IllegalArgumentException("invalid " + key + " " + value);
+    }
+
+    private long getLong(String key, long defaultValue, long maxValue)
+    {
+	String value = properties.getProperty(key);
+	if (value == null)
+	    return defaultValue;
+	try
+	{
+	    long l = Long.parseLong(value.trim());
+	    if (l >= 0 && l <= maxValue)
+		return l;
+	}
+	catch (NumberFormatException e)
+	{
+	    // reported below
+	}
+	throw new IllegalArgumentException("invalid " + key + " " + value);
+    }
+
+    private String[] getList(String key, String[] defaultValue)
+    {
+	String value = properties.getProperty(key);
+	if (value == null)
+	    return defaultValue.clone();
+	ArrayList<String> list = new ArrayList<String>();
+	for (String item : value.split(","))
+	{
+	    if (item.trim().length() > 0)
+		list.add(item.trim());
+	}
+	return list.toArray(new String[list.size()]);
+    }
+}
@@ -0,0 +1,485 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * This class extracts the tables of documents in a pipeline of three stages, each with its own threads, joined by
+ * bounded queues:
+ * <p>
+ *         parse: triages a document and strips the words of its pages (step 1 of TableExtractor, mostly I/O and PDFBox);
+ *         each parse thread has its own parser<p>
+ *         layout: combines the words into lines and computes the document-level parameters (step 2)<p>
+ *         detect: identifies the tables of the pages, classifies their headings and builds the XML (step 3)<p>
+ * The results are then taken, in the order of the submission, by the output stage of the caller, e.g., the writer of
+ * BatchExtractor. While a document is laid out, the next ones are parsed, and the previous ones detected and written.
+ * <p>
+ * A full queue blocks the stage before it, and submit blocks while too many documents are in flight (queued, in a
+ * stage, or finished and not taken yet), so a slow stage or a slow output slows the whole pipeline down instead of
+ * piling documents up in memory. A document is extracted as with TableExtractor.extract(ExtractionRequest), with the
+ * same tables and the same budget, which follows it from one stage to the next.
+ * <p>
+ * The queue depths and the throughput of the stages are observable while the pipeline runs (getQueueDepth,
+ * getDocumentNum, getBusyTime, ...), and toString summarizes them, e.g., to find the stage which needs more threads.
+ */
+public class ExtractionPipeline
+{
+    public static final int PARSE = 0;
+    public static final int LAYOUT = 1;
+    public static final int DETECT = 2;
+    public static final int OUTPUT = 3;	//the finished documents, waiting to be taken
+    public static final String[] STAGE_NAMES = { "parse", "layout", "detect", "output" };
+
+    private static final PipelineDocument END = new PipelineDocument(null);	//the end mark of a queue
+
+    private TableExtractor extractor;	//shared by the documents
+    private ArrayList<ArrayBlockingQueue<PipelineDocument>> queues = new ArrayList<ArrayBlockingQueue<PipelineDocument>>();	//the queue of each stage but the output
+    private int[] threadNums;	//the number of threads of each stage but the output
+    private int[] liveThreadNums;	//the number of threads of each stage which have not seen the end mark yet
+    private ArrayList<Thread> threads = new ArrayList<Thread>();
+    private Semaphore inFlight;
+    private LinkedList<PipelineDocument> pendingDocuments = new LinkedList<PipelineDocument>();	//submitted and not taken, in order
+    private int finishedNum = 0;	//the pending documents which are finished
+    private boolean shutdown = false;
+    private long startTime;
+    private long[] documentNums = new long[4];	//the documents processed by each stage
+    private long[] busyTimes = new long[4];	//the time spent by the threads of each stage on their documents, in nanoseconds
+    private int[] maxQueueDepths = new int[4];
+
+    /**
+     * Constructor, which starts the threads of the stages
+     * @param extractor
+     *            the extractor shared by the documents, with the configuration of the extraction
+     * @param parseThreadNum
+     *            the number of threads of the parse stage, each with its own parser
+     * @param layoutThreadNum
+     *            the number of threads of the layout stage
+     * @param detectThreadNum
+     *            the number of threads of the detect stage
+     * @param queueSize
+     *            the number of documents each stage queues
+     * @param wordRuns
+     *            whether the parsers group the characters into word runs (see PdfBoxParser)
+     * @param parsedTextCache
+     *            the cache of the parsed documents / null (every document is parsed)
+     * @throws IOException
+     *             if a parser can not be created
+     */
+    public ExtractionPipeline(
+	    TableExtractor extractor,
+	    int parseThreadNum,
+	    int layoutThreadNum,
+	    int detectThreadNum,
+	    int queueSize,
+	    boolean wordRuns,
+	    ParsedTextCache parsedTextCache) throws IOException
+    {
+	if (parseThreadNum < 1 || layoutThreadNum < 1 || detectThreadNum < 1 || queueSize < 1)
+	    throw new IllegalArgumentException("invalid pipeline " + parseThreadNum + "," + layoutThreadNum + ","
+		    + detectThreadNum + " queue " + queueSize);
+	this.extractor = extractor;
+	this.threadNums = new int[] { parseThreadNum, layoutThreadNum, detectThreadNum };
+	this.liveThreadNums = threadNums.clone();
+	for (int stage = PARSE; stage <= DETECT; stage++)
+	    queues.add(new ArrayBlockingQueue<PipelineDocument>(queueSize));
+	this.inFlight = new Semaphore(parseThreadNum + layoutThreadNum + detectThreadNum + 4 * queueSize);
+
+	/*
+	 *  The parsers are taken before the threads start, so that a parser which can not be created stops the
+	 *  constructor; each is then confined to its thread.
+	 */
+	ArrayList<PdfBoxParser> parsers = new ArrayList<PdfBoxParser>();
+	try
+	{
+	    for (int t = 0; t < parseThreadNum; t++)
+	    {
+		PdfBoxParser parser = PdfParserPool.acquire();
+		parser.setWordRuns(wordRuns);
+		parsers.add(parser);
+	    }
+	}
+	catch (IOException e)
+	{
+	    for (PdfBoxParser parser : parsers)
+		PdfParserPool.release(parser);
+	    throw e;
+	}
+
+	startTime = System.nanoTime();
+	for (int t = 0; t < parseThreadNum; t++)
+	{
+	    PdfBoxParser parser = parsers.get(t);
+	    IPdfParser documentParser = (parsedTextCache != null) ? new CachingPdfParser(parser, parsedTextCache) : parser;
+	    startThread(new StageThread("pipeline-parse-" + t, PARSE, parser, documentParser));
+	}
+	for (int t = 0; t < layoutThreadNum; t++)
+	    startThread(new StageThread("pipeline-layout-" + t, LAYOUT, null, null));
+	for (int t = 0; t < detectThreadNum; t++)
+	    startThread(new StageThread("pipeline-detect-" + t, DETECT, null, null));
+    }
+
+    /**
+     * Submits a document, waiting while too many documents are in flight
+     * @param request
+     *            the document, its models, and its parser / no parser (the parser of a parse thread is used)
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while it waits
+     * @throws IllegalStateException
+     *             if the pipeline is shut down
+     */
+    public void submit(ExtractionRequest request) throws InterruptedException
+    {
+	inFlight.acquire();
+	PipelineDocument document = new PipelineDocument(request);
+	synchronized (this)
+	{
+	    if (shutdown)
+	    {
+		inFlight.release();
+		throw new IllegalStateException("the pipeline is shut down");
+	    }
+	    pendingDocuments.add(document);
+	}
+	put(PARSE, document);
+    }
+
+    /**
+     * Takes the result of the next document, in the order of the submission, waiting until it is finished
+     * @return the result of the document
+     * @throws ExecutionException
+     *             if the document failed with an exception, which is its cause
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while it waits
+     * @throws IllegalStateException
+     *             if there is no document to take, and none can be submitted any more
+     */
+    public ExtractionResult take() throws ExecutionException, InterruptedException
+    {
+	PipelineDocument document;
+	synchronized (this)
+	{
+	    while (pendingDocuments.isEmpty() || !pendingDocuments.getFirst().finished)
+	    {
+		if (pendingDocuments.isEmpty() && shutdown)
+		    throw new IllegalStateException("no document to take");
+		wait();
+	    }
+	    document = pendingDocuments.removeFirst();
+	    finishedNum--;
+	    documentNums[OUTPUT]++;
+	}
+	inFlight.release();
+	if (document.error != null)
+	    throw document.error;
+	if (document.exception != null)
+	    throw new ExecutionException(document.exception);
+	return document.result;
+    }
+
+    /**
+     * Shuts the pipeline down once the submitted documents are finished: no document can be submitted any more, and
+     * the threads stop and release their parsers after the last one. The submitted documents can still be taken.
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while the end is queued
+     */
+    public void shutdown() throws InterruptedException
+    {
+	synchronized (this)
+	{
+	    if (shutdown)
+		return;
+	    shutdown = true;
+	    notifyAll();
+	}
+	for (int t = 0; t < threadNums[PARSE]; t++)
+	    queues.get(PARSE).put(END);
+    }
+
+    /**
+     * Stops the pipeline at once: the threads are interrupted, and the documents which are not finished are lost
+     */
+    public void shutdownNow()
+    {
+	synchronized (this)
+	{
+	    shutdown = true;
+	    notifyAll();
+	}
+	for (Thread thread : threads)
+	    thread.interrupt();
+    }
+
+    /**
+     * Gets the number of documents waiting in the queue of a stage
+     * @param stage
+     *            PARSE, LAYOUT, DETECT or OUTPUT (the documents finished and not taken yet)
+     * @return the number of documents
+     */
+    public int getQueueDepth(int stage)
+    {
+	if (stage == OUTPUT)
+	{
+	    synchronized (this)
+	    {
+		return finishedNum;
+	    }
+	}
+	return queues.get(stage).size();
+    }
+
+    /**
+     * Gets the largest number of documents which waited in the queue of a stage
+     * @param stage
+     *            PARSE, LAYOUT, DETECT or OUTPUT
+     * @return the number of documents
+     */
+    public synchronized int getMaxQueueDepth(int stage)
+    {
+	return maxQueueDepths[stage];
+    }
+
+    /**
+     * Gets the number of documents a stage has processed
+     * @param stage
+     *            PARSE, LAYOUT, DETECT or OUTPUT (the documents taken)
+     * @return the number of documents
+     */
+    public synchronized long getDocumentNum(int stage)
+    {
+	return documentNums[stage];
+    }
+
+    /**
+     * Gets the time the threads of a stage have spent on their documents, summed over the threads
+     * @param stage
+     *            PARSE, LAYOUT or DETECT
+     * @return the time in milliseconds
+     */
+    public synchronized long getBusyTime(int stage)
+    {
+	return busyTimes[stage] / 1000000;
+    }
+
+    /**
+     * Gets the number of documents a stage has processed per second since the pipeline started
+     * @param stage
+     *            PARSE, LAYOUT, DETECT or OUTPUT
+     * @return the number of documents per second
+     */
+    public double getThroughput(int stage)
+    {
+	double seconds = (System.nanoTime() - startTime) / 1e9;
+	return (seconds > 0) ? getDocumentNum(stage) / seconds : 0;
+    }
+
+    /**
+     * Gets the share of the time the threads of a stage have been busy since the pipeline started; a stage close to 1
+     * is the bottleneck of the pipeline
+     * @param stage
+     *            PARSE, LAYOUT or DETECT
+     * @return the share, from 0 to 1
+     */
+    public double getUtilization(int stage)
+    {
+	long elapsedTime = System.nanoTime() - startTime;
+	if (elapsedTime <= 0)
+	    return 0;
+	synchronized (this)
+	{
+	    return Math.min(1.0, (double) busyTimes[stage] / elapsedTime / threadNums[stage]);
+	}
+    }
+
+    /**
+     * Summarizes the stages, one line per stage: the threads, the documents, the throughput, the busy share and the
+     * queue depths
+     */
+    @Override
+    public String toString()
+    {
+	StringBuilder summary = new StringBuilder();
+	for (int stage = PARSE; stage <= OUTPUT; stage++)
+	{
+	    summary.append(String.format("pipeline_%s=%d documents, %.2f documents/s", STAGE_NAMES[stage],
+		    getDocumentNum(stage), getThroughput(stage)));
+	    if (stage != OUTPUT)
+		summary.append(String.format(", %d threads, %.0f%% busy", threadNums[stage], 100 * getUtilization(stage)));
+	    summary.append(String.format(", queue %d (max %d)\n", getQueueDepth(stage), getMaxQueueDepth(stage)));
+	}
+	return summary.toString();
+    }
+
+    private void startThread(Thread thread)
+    {
+	thread.setDaemon(true);
+	threads.add(thread);
+	thread.start();
+    }
+
+    /**
+     * Queues a document for a stage, waiting while the queue is full, and records the depth of the queue
+     */
+    private void put(int stage, PipelineDocument document) throws InterruptedException
+    {
+	ArrayBlockingQueue<PipelineDocument> queue = queues.get(stage);
+	queue.put(document);
+	int depth = queue.size();
+	synchronized (this)
+	{
+	    maxQueueDepths[stage] = Math.max(maxQueueDepths[stage], depth);
+	}
+    }
+
+    /**
+     * Finishes a document, which can then be taken. The result is built out of the lock, which only guards the
+     * bookkeeping, so that the other stages are not held up by it
+     */
+    private void finish(PipelineDocument document)
+    {
+	if (document.extractor != null && document.error == null && document.exception == null)
+	    document.result = document.extractor.finishDocument();
+	document.extractor = null;
+	synchronized (this)
+	{
+	    document.finished = true;
+	    finishedNum++;
+	    maxQueueDepths[OUTPUT] = Math.max(maxQueueDepths[OUTPUT], finishedNum);
+	    notifyAll();
+	}
+    }
+
+    /**
+     * Records the time a stage spent on a document
+     */
+    private synchronized void count(int stage, long time)
+    {
+	documentNums[stage]++;
+	busyTimes[stage] += time;
+    }
+
+    /**
+     * Counts a thread of a stage which has seen the end mark; the last one passes the end to the next stage
+     */
+    private void end(int stage) throws InterruptedException
+    {
+	synchronized (this)
+	{
+	    liveThreadNums[stage]--;
+	    if (liveThreadNums[stage] > 0 || stage == DETECT)
+		return;
+	}
+	for (int t = 0; t < threadNums[stage + 1]; t++)
+	    queues.get(stage + 1).put(END);
+    }
+
+    /**
+     * A thread of a stage, which takes the documents from the queue of its stage until the end mark
+     */
+    private class StageThread extends Thread
+    {
+	private int stage;
+	private PdfBoxParser parser;	//the parser of a parse thread / null
+	private IPdfParser documentParser;	//the parser, or its caching parser / null
+
+	StageThread(String name, int stage, PdfBoxParser parser, IPdfParser documentParser)
+	{
+	    super(name);
+	    this.stage = stage;
+	    this.parser = parser;
+	    this.documentParser = documentParser;
+	}
+
+	@Override
+	public void run()
+	{
+	    try
+	    {
+		while (true)
+		{
+		    PipelineDocument document = queues.get(stage).take();
+		    if (document == END)
+		    {
+			end(stage);
+			break;
+		    }
+		    long start = System.nanoTime();
+		    boolean next = false;
+		    try
+		    {
+			next = process(document);
+		    }
+		    catch (Exception e)
+		    {
+			document.exception = e;
+		    }
+		    catch (Error e)
+		    {
+			document.error = e;
+		    }
+		    count(stage, System.nanoTime() - start);
+		    if (next)
+			put(stage + 1, document);
+		    else
+			finish(document);
+		}
+	    }
+	    catch (InterruptedException e)
+	    {
+		// the pipeline is stopped
+	    }
+	    finally
+	    {
+		documentParser = null;
+		PdfParserPool.release(parser);
+		parser = null;
+	    }
+	}
+
+	/**
+	 * Runs the step of the stage on a document
+	 * @return a boolean value: true (the document goes to the next stage) / false (the document is finished)
+	 */
+	private boolean process(PipelineDocument document)
+	{
+	    switch (stage)
+	    {
+	    case PARSE:
+		ExtractionRequest request = document.request;
+		IPdfParser parser = (request.getParser() != null) ? request.getParser() : documentParser;
+		document.extractor = extractor.newDocumentExtractor(parser);
+		return document.extractor.parseStage(request.getPdfFile(), request.getRowModelPath(),
+			request.getColModelPath(), request.getOutputDirPath());
+	    case LAYOUT:
+		return document.extractor.layoutStage();
+	    default:
+		document.extractor.detectStage();
+		return false;
+	    }
+	}
+    }
+
+    /**
+     * A document in the pipeline, handed from one stage to the next
+     */
+    private static class PipelineDocument
+    {
+	ExtractionRequest request;
+	TableExtractor extractor = null;	//the extractor of the document, between its stages / null
+	ExtractionResult result = null;
+	Exception exception = null;	//the unhandled exception of the document / null
+	Error error = null;
+	boolean finished = false;
+
+	PipelineDocument(ExtractionRequest request)
+	{
+	    this.request = request;
+	}
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+
+/**
+ * This class is the request of the extraction of the tables of one document from a TableExtractor: the document, the
+ * header row/column models, the output directory of the debug files, and the parser to use. A request can not be
+ * changed once it is created.
+ * <p>
+ * The parser of a request is confined to the thread which calls TableExtractor.extract with it, as a PdfBoxParser can
+ * only parse one document at a time; without a parser, the extractor takes one from the PdfParserPool for the call.
+ *
+ * @see TableExtractor#extract(ExtractionRequest)
+ */
+public class ExtractionRequest
+{
+    private final File pdfFile;
+    private final String rowModelPath;
+    private final String colModelPath;
+    private final String outputDirPath;
+    private final IPdfParser parser;	//the parser of the document / null (a pooled PDFBox parser)
+
+    /**
+     * Constructor, for a request whose document is parsed with a pooled PDFBox parser
+     * @param pdfFile
+     *            the PDF file to process
+     * @param rowModelPath
+     *            the path of the header row training model or model file
+     * @param colModelPath
+     *            the path of the header column training model or model file
+     * @param outputDirPath
+     *            the directory path to save the debug files
+     */
+    public ExtractionRequest(File pdfFile, String rowModelPath, String colModelPath, String outputDirPath)
+    {
+	this(pdfFile, rowModelPath, colModelPath, outputDirPath, null);
+    }
+
+    /**
+     * Constructor
+     * @param pdfFile
+     *            the PDF file to process
+     * @param rowModelPath
+     *            the path of the header row training model or model file
+     * @param colModelPath
+     *            the path of the header column training model or model file
+     * @param outputDirPath
+     *            the directory path to save the debug files
+     * @param parser
+     *            the parser of the document, used by the calling thread only / null (a pooled PDFBox parser)
+     */
+    public ExtractionRequest(File pdfFile, String rowModelPath, String colModelPath, String outputDirPath, IPdfParser parser)
+    {
+	if (pdfFile == null)
+	    throw new IllegalArgumentException("no PDF file");
+	this.pdfFile = pdfFile;
+	this.rowModelPath = rowModelPath;
+	this.colModelPath = colModelPath;
+	this.outputDirPath = outputDirPath;
+	this.parser = parser;
+    }
+
+    /**
+     * Gets the PDF file to process
+     * @return the PDF file
+     */
+    public File getPdfFile()
+    {
+	return pdfFile;
+    }
+
+    /**
+     * Gets the path of the header row training model or model file
+     * @return the path
+     */
+    public String getRowModelPath()
+    {
+	return rowModelPath;
+    }
+
+    /**
+     * Gets the path of the header column training model or model file
+     * @return the path
+     */
+    public String getColModelPath()
+    {
+	return colModelPath;
+    }
+
+    /**
+     * Gets the directory path to save the debug files
+     * @return the path
+     */
+    public String getOutputDirPath()
+    {
+	return outputDirPath;
+    }
+
+    /**
+     * Gets the parser of the document
+     * @return the parser / null (a pooled PDFBox parser)
+     */
+    public IPdfParser getParser()
+    {
+	return parser;
+    }
+}
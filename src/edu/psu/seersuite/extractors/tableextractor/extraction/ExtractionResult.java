@@ -0,0 +1,126 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.jdom.Document;
+
+import edu.psu.seersuite.extractors.tableextractor.model.DocInfo;
+import edu.psu.seersuite.extractors.tableextractor.model.Table;
+
+/**
+ * This class is the result of the extraction of the tables of one document by TableExtractor.extract: the tables, the
+ * document information, the XML of the tables, and why the document was rejected. A result can not be changed once
+ * it is created, and belongs to the caller: the extractor keeps no reference to it.
+ *
+ * @see TableExtractor#extract(ExtractionRequest)
+ */
+public class ExtractionResult
+{
+    private final File pdfFile;
+    private final List<Table> tables;	//the extracted tables / null (the document is rejected)
+    private final DocInfo docInfo;
+    private final Document xmlDoc;
+    private final String rejectReason;
+    private final HeadingStatistics headingStatistics;
+    private final long elapsedTime;
+    private final long allocation;
+
+    ExtractionResult(File pdfFile, List<Table> tables, DocInfo docInfo, Document xmlDoc, String rejectReason,
+	    HeadingStatistics headingStatistics, DocumentBudget budget)
+    {
+	this.pdfFile = pdfFile;
+	this.tables = (tables == null) ? null : Collections.unmodifiableList(tables);
+	this.docInfo = docInfo;
+	this.xmlDoc = xmlDoc;
+	this.rejectReason = rejectReason;
+	this.headingStatistics = headingStatistics;
+	this.elapsedTime = budget.getElapsedTime();
+	this.allocation = budget.getAllocation();
+    }
+
+    /**
+     * Gets the processed PDF file
+     * @return the PDF file
+     */
+    public File getPdfFile()
+    {
+	return pdfFile;
+    }
+
+    /**
+     * Judges whether the tables of the document were extracted (there may be none)
+     * @return a boolean value: true/false
+     */
+    public boolean isExtracted()
+    {
+	return tables != null;
+    }
+
+    /**
+     * Gets the extracted tables
+     * @return the tables, which can not be changed / null (if the document is rejected)
+     */
+    public List<Table> getTables()
+    {
+	return tables;
+    }
+
+    /**
+     * Gets the basic information of the PDF document, with the error message of a rejected document
+     * @return the document Info
+     */
+    public DocInfo getDocInfo()
+    {
+	return docInfo;
+    }
+
+    /**
+     * Gets the XML-based table metadata file
+     * @return the XML-based table metadata file
+     */
+    public Document getXMLDoc()
+    {
+	return xmlDoc;
+    }
+
+    /**
+     * Gets why the document was rejected
+     * @return one of the DocumentTriage.REJECT_* reasons / null (if its tables were extracted)
+     */
+    public String getRejectReason()
+    {
+	return rejectReason;
+    }
+
+    /**
+     * Gets which tier decided the heading rows/columns of the tables of the document
+     * @return the heading statistics of the document
+     */
+    public HeadingStatistics getHeadingStatistics()
+    {
+	return headingStatistics;
+    }
+
+    /**
+     * Gets the time taken to process the document
+     * @return the time in milliseconds
+     */
+    public long getElapsedTime()
+    {
+	return elapsedTime;
+    }
+
+    /**
+     * Gets the number of bytes allocated to process the document
+     * @return the number of bytes / -1 (if they are not counted, see TriageLimits.setMaxAllocation)
+     */
+    public long getAllocation()
+    {
+	return allocation;
+    }
+}
@@ -0,0 +1,446 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdom.Document;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class is a long-running extraction server. SeerSuite otherwise starts SeerSuiteTableExtractor in a new JVM for
+ * every document, which pays the start of the JVM, the loading of the classes, the creation of a PDFBox parser and the
+ * loading of the header models each time; the server pays them once, and keeps its parsers (see PdfParserPool) and
+ * models (see HeaderModelRegistry) warm from one document to the next.
+ * <p>
+ * Usage: ExtractionServer [port] [row-model] [column-model] [--bind=address] [--threads=N] [--queue=N]
+ *         [--max-upload=MB] [--config=file] <p>
+ * <p>
+ * The server answers HTTP requests: <p>
+ *         POST /tbl?name=file.pdf&id=ID, with the bytes of a PDF file: the XML of its .tbl file, as written by
+ *         SeerSuiteTableExtractor; <p>
+ *         GET /tbl?path=PDF&id=ID: the same, for a PDF file of the server; <p>
+ *         POST /xml?name=file.pdf, GET /xml?path=PDF: the standard XML of the document, as written by BatchExtractor; <p>
+ *         GET /status: the numbers of requests. <p>
+ * The .tbl files are the legacy output of SeerSuite, which BoxTableExtractor extracts with its own rules: it needs no
+ * header models, and its documents are not counted in the heading statistics. Both outputs follow the configuration
+ * of the server: its caption keywords, average line width, triage limits and time and memory budget.
+ * A document whose tables are not extracted is answered with 422 and the reason. At most [threads] documents are
+ * extracted at the same time, and at most [queue] others wait; the requests beyond are answered at once with 503, so
+ * that the client can retry later instead of piling up in the server.
+ * <p>
+ * The server listens on the loopback address by default. Any client which can connect can read the PDF files of the
+ * server with the path parameter, so it must not be bound to a public address without a firewall.
+ */
+public class ExtractionServer
+{
+    public static final int DEFAULT_MAX_UPLOAD = 64;	//in MB
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private TableExtractor engine;
+    private String rowModelPath;
+    private String colModelPath;
+    private int threadNum;
+    private long maxUpload;	//in bytes
+    private Semaphore admission;	//the documents extracted or waiting
+    private Semaphore extraction;	//the documents extracted
+    private AtomicInteger servedNum = new AtomicInteger();
+    private AtomicInteger rejectedNum = new AtomicInteger();	//the documents whose tables are not extracted
+    private AtomicInteger failedNum = new AtomicInteger();	//the invalid requests and the extraction errors
+    private AtomicInteger busyNum = new AtomicInteger();	//the requests answered with 503
+
+    /**
+     * Main entry
+     *
+     * @param args
+     *            command line parameters: the port, the models, and the options
+     */
+    public static void main(String[] args)
+    {
+	if (args.length < 3)
+	{
+	    showUsage();
+	    System.exit(-1);
+	}
+	int port = parseNumber(args[0], "");
+	String bindAddress = "127.0.0.1";
+	int threadNum = Runtime.getRuntime().availableProcessors();
+	int queueSize = -1;
+	long maxUpload = DEFAULT_MAX_UPLOAD;
+	ExtractionConfig config = new ExtractionConfig();
+	for (int i = 3; i < args.length; i++)
+	{
+	    if (args[i].startsWith("--bind="))
+		bindAddress = args[i].substring("--bind=".length());
+	    else if (args[i].startsWith("--threads="))
+		threadNum = parseNumber(args[i], "--threads=");
+	    else if (args[i].startsWith("--queue="))
+		queueSize = parseNumber(args[i], "--queue=");
+	    else if (args[i].startsWith("--max-upload="))
+		maxUpload = parseNumber(args[i], "--max-upload=");
+	    else if (args[i].startsWith("--config="))
+	    {
+		try
+		{
+		    config = ExtractionConfig.load(new File(args[i].substring("--config=".length())));
+		}
+		catch (IOException e)
+		{
+		    System.out.printf("[Error] %s\n", e.getMessage());
+		    System.exit(-1);
+		}
+	    }
+	    else
+		threadNum = -1;
+	}
+	if (port < 0 || port > 65535 || threadNum < 1 || maxUpload < 1)
+	{
+	    showUsage();
+	    System.exit(-1);
+	}
+	if (queueSize < 0)
+	    queueSize = threadNum;
+
+	if (!HeaderModelRegistry.preload(args[1], FeatureSchema.ROW) || !HeaderModelRegistry.preload(args[2], FeatureSchema.COL))
+	    System.exit(-1);
+	try
+	{
+	    final ExtractionServer server = new ExtractionServer(new TableExtractor(config), args[1], args[2], threadNum,
+		    queueSize, maxUpload * 1024 * 1024);
+	    server.start(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+	    Runtime.getRuntime().addShutdownHook(new Thread(){
+		public void run(){
+		    server.stop();
+		}
+	    });
+	    System.out.printf("[Info] listening on %s:%d, %d threads, queue %d\n", bindAddress, port, threadNum, queueSize);
+	}
+	catch (IOException e)
+	{
+	    System.out.printf("[Error] the server cannot be started: %s\n", e.getMessage());
+	    System.exit(1);
+	}
+    }
+
+    /**
+     * Constructor
+     *
+     * @param engine
+     *            the extractor shared by the requests of the standard XML, whose configuration is also the one of the
+     *            .tbl files
+     * @param rowModelPath
+     *            the path of the row model
+     * @param colModelPath
+     *            the path of the column model
+     * @param threadNum
+     *            the largest number of documents extracted at the same time
+     * @param queueSize
+     *            the largest number of documents waiting to be extracted
+     * @param maxUpload
+     *            the largest PDF file sent to the server, in bytes
+     */
+    public ExtractionServer(TableExtractor engine, String rowModelPath, String colModelPath, int threadNum, int queueSize,
+	    long maxUpload)
+    {
+	this.engine = engine;
+	this.rowModelPath = rowModelPath;
+	this.colModelPath = colModelPath;
+	this.threadNum = threadNum;
+	this.maxUpload = maxUpload;
+	admission = new Semaphore(threadNum + queueSize);
+	extraction = new Semaphore(threadNum, true);
+    }
+
+    /**
+     * Starts listening
+     *
+     * @param address
+     *            the address and the port of the server
+     * @throws IOException
+     *             if the server can not listen on the address
+     */
+    public void start(InetSocketAddress address) throws IOException
+    {
+	server = HttpServer.create(address, 0);
+	server.createContext("/tbl", new HttpHandler(){
+	    public void handle(HttpExchange exchange) throws IOException{
+		extract(exchange, true);
+	    }
+	});
+	server.createContext("/xml", new HttpHandler(){
+	    public void handle(HttpExchange exchange) throws IOException{
+		extract(exchange, false);
+	    }
+	});
+	server.createContext("/status", new HttpHandler(){
+	    public void handle(HttpExchange exchange) throws IOException{
+		send(exchange, 200, "text/plain", getStatus());
+	    }
+	});
+	executor = Executors.newCachedThreadPool();	//the admission bounds the threads which extract
+	server.setExecutor(executor);
+	server.start();
+    }
+
+    /**
+     * Stops listening, and waits a little for the documents being extracted
+     */
+    public void stop()
+    {
+	if (server == null)
+	    return;
+	server.stop(1);
+	executor.shutdown();
+	server = null;
+    }
+
+    /**
+     * Gets the numbers of requests, and the heading detection of the documents of the standard XML
+     * @return the status, one key=value per line
+     */
+    public String getStatus()
+    {
+	StringBuilder status = new StringBuilder();
+	status.append("served=" + servedNum.get() + "\n");
+	status.append("rejected=" + rejectedNum.get() + "\n");
+	status.append("failed=" + failedNum.get() + "\n");
+	status.append("busy=" + busyNum.get() + "\n");
+	status.append("extracting=" + (threadNum - extraction.availablePermits()) + "\n");
+	status.append("waiting=" + extraction.getQueueLength() + "\n");
+	synchronized (engine.getHeadingStatistics())
+	{
+	    status.append(engine.getHeadingStatistics().toString());
+	}
+	return status.toString();
+    }
+
+    /**
+     * Extracts the tables of the document of a request, and answers them
+     *
+     * @param exchange
+     *            the request
+     * @param tbl
+     *            true: the XML of the .tbl file / false: the standard XML
+     */
+    private void extract(HttpExchange exchange, boolean tbl) throws IOException
+    {
+	if (!admission.tryAcquire())
+	{
+	    busyNum.incrementAndGet();
+	    send(exchange, 503, "text/plain", "busy, retry later\n");
+	    return;
+	}
+	File uploadDir = null;
+	try
+	{
+	    Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+	    File pdfFile;
+	    if (exchange.getRequestMethod().equalsIgnoreCase("POST"))
+	    {
+		String name = query.containsKey("name") ? new File(query.get("name")).getName() : "document.pdf";
+		if (!name.endsWith(".pdf"))
+		    name += ".pdf";
+		uploadDir = File.createTempFile("extraction", "");
+		if (!uploadDir.delete() || !uploadDir.mkdir())
+		    throw new IOException("cannot create the directory " + uploadDir.getPath());
+		pdfFile = new File(uploadDir, name);
+		if (!receive(exchange.getRequestBody(), pdfFile))
+		{
+		    failedNum.incrementAndGet();
+		    send(exchange, 413, "text/plain", "larger than " + maxUpload + " bytes\n");
+		    return;
+		}
+	    }
+	    else if (exchange.getRequestMethod().equalsIgnoreCase("GET") && query.containsKey("path"))
+	    {
+		pdfFile = new File(query.get("path"));
+		if (!pdfFile.isFile())
+		{
+		    failedNum.incrementAndGet();
+		    send(exchange, 404, "text/plain", pdfFile.getPath() + " does not exist\n");
+		    return;
+		}
+	    }
+	    else
+	    {
+		failedNum.incrementAndGet();
+		send(exchange, 400, "text/plain", "POST a PDF file, or GET with a path\n");
+		return;
+	    }
+	    String id = query.get("id");
+	    if (id == null)
+		id = pdfFile.getName().replaceAll("\\.pdf$", "");
+
+	    extraction.acquire();
+	    String xmlText;
+	    String rejectReason = null;
+	    try
+	    {
+		XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+		if (tbl)
+		{
+		    BoxTableExtractor extractor = new BoxTableExtractor(engine.getConfig());
+		    Document xmlDoc = SeerSuiteTableExtractor.extractTableDoc(extractor, pdfFile, id);
+		    xmlText = (xmlDoc != null) ? outputter.outputString(xmlDoc) : null;
+		    rejectReason = extractor.getRejectReason();
+		}
+		else
+		{
+		    ExtractionResult result = engine.extract(new ExtractionRequest(pdfFile, rowModelPath, colModelPath,
+			    System.getProperty("java.io.tmpdir")));
+		    xmlText = result.isExtracted() ? outputter.outputString(result.getXMLDoc()) : null;
+		    rejectReason = result.getRejectReason();
+		}
+	    }
+	    finally
+	    {
+		extraction.release();
+	    }
+	    if (xmlText != null)
+	    {
+		servedNum.incrementAndGet();
+		send(exchange, 200, "application/xml", xmlText);
+	    }
+	    else
+	    {
+		rejectedNum.incrementAndGet();
+		send(exchange, 422, "text/plain", "not extracted: " + ((rejectReason != null) ? rejectReason : "no table set")
+			+ "\n");
+	    }
+	}
+	catch (InterruptedException e)
+	{
+	    failedNum.incrementAndGet();
+	    sendError(exchange, 503, "the server is stopping\n");
+	    Thread.currentThread().interrupt();
+	}
+	catch (Exception e)
+	{
+	    failedNum.incrementAndGet();
+	    System.out.printf("[Error] %s: %s\n", exchange.getRequestURI(), e);
+	    sendError(exchange, 500, e + "\n");
+	}
+	finally
+	{
+	    admission.release();
+	    if (uploadDir != null)
+	    {
+		File[] files = uploadDir.listFiles();
+		for (int i = 0; files != null && i < files.length; i++)
+		    files[i].delete();
+		uploadDir.delete();
+	    }
+	}
+    }
+
+    /**
+     * Receives a PDF file sent to the server
+     * @return a boolean value: true / false (if it is larger than the largest upload)
+     */
+    private boolean receive(InputStream in, File pdfFile) throws IOException
+    {
+	OutputStream out = new FileOutputStream(pdfFile);
+	try
+	{
+	    byte[] buffer = new byte[64 * 1024];
+	    long size = 0;
+	    int n;
+	    while ((n = in.read(buffer)) > 0)
+	    {
+		size += n;
+		if (size > maxUpload)
+		    return false;
+		out.write(buffer, 0, n);
+	    }
+	    return true;
+	}
+	finally
+	{
+	    out.close();
+	    in.close();
+	}
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException
+    {
+	byte[] bytes = text.getBytes("UTF-8");
+	exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=UTF-8");
+	exchange.sendResponseHeaders(status, bytes.length);
+	OutputStream out = exchange.getResponseBody();
+	out.write(bytes);
+	out.close();
+    }
+
+    /**
+     * Answers a request with an error, unless its answer has already begun (e.g., the client went away while it was
+     * sent): its status and length are then sent, and the exchange can only be closed
+     */
+    private static void sendError(HttpExchange exchange, int status, String text) throws IOException
+    {
+	if (exchange.getResponseCode() < 0)
+	    send(exchange, status, "text/plain", text);
+	else
+	    exchange.close();
+    }
+
+    private static Map<String, String> parseQuery(String query) throws IOException
+    {
+	Map<String, String> parameters = new HashMap<String, String>();
+	if (query == null)
+	    return parameters;
+	for (String parameter : query.split("&"))
+	{
+	    int equal = parameter.indexOf('=');
+	    if (equal > 0)
+		parameters.put(URLDecoder.decode(parameter.substring(0, equal), "UTF-8"),
+			URLDecoder.decode(parameter.substring(equal + 1), "UTF-8"));
+	}
+	return parameters;
+    }
+
+    /**
+     * Parses a non-negative integer option
+     * @return the value / -1 (if it is not a non-negative integer)
+     */
+    private static int parseNumber(String arg, String prefix)
+    {
+	try
+	{
+	    return Math.max(-1, Integer.parseInt(arg.substring(prefix.length())));
+	}
+	catch (NumberFormatException e)
+	{
+	    return -1;
+	}
+    }
+
+    private static void showUsage()
+    {
+	System.out.println("ExtractionServer <port> <row-model> <column-model> [--bind=address] [--threads=N] [--queue=N] [--max-upload=MB] [--config=file]");
+	System.out.println("\t--bind: the address of the server, 127.0.0.1 by default");
+	System.out.println("\t--threads: the largest number of documents extracted at the same time, the number of processors by default");
+	System.out.println("\t--queue: the largest number of documents waiting to be extracted, the number of threads by default; the requests beyond are answered with 503");
+	System.out.println("\t--max-upload: the largest PDF file sent to the server, " + DEFAULT_MAX_UPLOAD + " MB by default");
+	System.out.println("\t--config: a properties file of the configuration, see ExtractionConfig");
+    }
+}
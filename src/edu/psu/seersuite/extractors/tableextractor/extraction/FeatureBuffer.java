@@ -0,0 +1,169 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+
+/**
+ * This class stores the feature vectors of the rows (or columns) of a table in one primitive array.
+ * <p>
+ * Each vector has one slot per feature of its FeatureSchema followed by the class label, i.e., the attribute
+ * layout of the .arff files. Values are stored as the classifiers see them (see FeatureValues).
+ *
+ * @see FeatureSchema
+ * @see FeatureCodec
+ */
+public class FeatureBuffer
+{
+    private final FeatureSchema schema;
+    private final int stride;          //the number of slots per vector: features + class label
+    private double[] values;
+    private int size = 0;
+
+    /**
+     * Constructor
+     *
+     * @param schema
+     *            the features stored in this buffer
+     * @param capacity
+     *            the expected number of vectors
+     */
+    public FeatureBuffer(FeatureSchema schema, int capacity)
+    {
+	this.schema = schema;
+	this.stride = schema.getNumAttributes();
+	this.values = new double[Math.max(1, capacity) * stride];
+    }
+
+    /**
+     * Gets the schema of the stored features
+     * @return the feature schema
+     */
+    public FeatureSchema getSchema()
+    {
+	return schema;
+    }
+
+    /**
+     * Gets the number of vectors in this buffer
+     * @return the number of vectors
+     */
+    public int size()
+    {
+	return size;
+    }
+
+    /**
+     * Appends a new vector, with all the features set to 0
+     * @return the index of the new vector
+     */
+    public int addVector()
+    {
+	if ((size + 1) * stride > values.length)
+	{
+	    double[] larger = new double[values.length * 2];
+	    System.arraycopy(values, 0, larger, 0, size * stride);
+	    values = larger;
+	}
+	int offset = size * stride;
+	for (int i = 0; i < stride; i++)
+	    values[offset + i] = 0.0;
+	return size++;
+    }
+
+    /**
+     * Drops the vectors added after the given size, e.g., the partial vectors of a table whose extraction failed
+     * @param size
+     *            the number of vectors to keep
+     */
+    public void truncate(int size)
+    {
+	if (size < 0 || size > this.size)
+	    throw new IndexOutOfBoundsException("size " + size);
+	this.size = size;
+    }
+
+    /**
+     * Sets an integer feature of a vector
+     * @throws IOException
+     *             if the value can not be represented in the .arff format
+     */
+    public void set(int vector, int feature, int value) throws IOException
+    {
+	values[vector * stride + feature] = FeatureValues.quantize(value);
+    }
+
+    /**
+     * Sets a real feature of a vector
+     * @throws IOException
+     *             if the value can not be represented in the .arff format
+     */
+    public void set(int vector, int feature, float value) throws IOException
+    {
+	values[vector * stride + feature] = FeatureValues.quantize(value);
+    }
+
+    /**
+     * Sets a feature value that is already in its stored form, e.g., read back from a feature file
+     */
+    void setValue(int vector, int feature, double value)
+    {
+	values[vector * stride + feature] = value;
+    }
+
+    /**
+     * Sets the class label of a vector
+     * @param label
+     *            FeatureSchema.HEADER or FeatureSchema.DATA
+     */
+    public void setClassLabel(int vector, int label)
+    {
+	values[vector * stride + stride - 1] = label;
+    }
+
+    /**
+     * Gets a feature value of a vector; NaN is a missing value
+     */
+    public double get(int vector, int feature)
+    {
+	return values[vector * stride + feature];
+    }
+
+    /**
+     * Gets the class label of a vector
+     */
+    public int getClassLabel(int vector)
+    {
+	return (int) values[vector * stride + stride - 1];
+    }
+
+    /**
+     * Copies a vector, with its class label, into a new array
+     * @param vector
+     *            the index of the vector
+     * @return the attribute values of the vector
+     */
+    public double[] toArray(int vector)
+    {
+	double[] attributes = new double[stride];
+	System.arraycopy(values, vector * stride, attributes, 0, stride);
+	return attributes;
+    }
+
+    /**
+     * Gets the backing array of the vectors, for the classifiers to read in place; it changes when vectors are added
+     */
+    double[] getValues()
+    {
+	return values;
+    }
+
+    /**
+     * Gets the position of a vector in the backing array
+     */
+    int getOffset(int vector)
+    {
+	return vector * stride;
+    }
+}
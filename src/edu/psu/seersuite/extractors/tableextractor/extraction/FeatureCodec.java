@@ -0,0 +1,190 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * This class writes feature vectors in the weka .arff format, in CSV or in a compact binary format.
+ * All three formats are generated from the FeatureSchema of the buffer, so they always agree on the feature order.
+ * <p>
+ * The binary format is: the magic number, the format version, the schema name, the number of attributes and the
+ * attribute names, the number of vectors, then every vector as doubles (the features followed by the class label).
+ */
+public class FeatureCodec
+{
+    public static final int BINARY_MAGIC = 0x54534654;    //"TSFT"
+    public static final int BINARY_VERSION = 1;
+
+    /**
+     * Writes feature vectors in the weka .arff format, in the layout of "row_feature.arff" and "col_feature.arff"
+     *
+     * @param buffer
+     *            the feature vectors
+     * @param out
+     *            the writer; it is flushed but not closed
+     * @throws IOException
+     */
+    public static void writeArff(FeatureBuffer buffer, Writer out) throws IOException
+    {
+	FeatureSchema schema = buffer.getSchema();
+	BufferedWriter writer = new BufferedWriter(out);
+	writer.write("@RELATION " + FeatureSchema.RELATION + "\n\n");
+	for (int i = 0; i < schema.getNumFeatures(); i++)
+	{
+	    String name = schema.getFeatureName(i);
+	    writer.write("@ATTRIBUTE " + name + (name.length() < 13 ? "\t\t" : "\t") + "NUMERIC\n");
+	}
+	writer.write("@ATTRIBUTE class\t{" + FeatureSchema.CLASS_VALUES[0] + ", " + FeatureSchema.CLASS_VALUES[1] + "}\n\n");
+	writer.write("@DATA\n");
+
+	for (int v = 0; v < buffer.size(); v++)
+	{
+	    for (int i = 0; i < schema.getNumFeatures(); i++)
+	    {
+		writer.write(formatValue(schema, i, buffer.get(v, i), "?"));
+		writer.write(",\t");
+	    }
+	    writer.write(FeatureSchema.CLASS_VALUES[buffer.getClassLabel(v)]);
+	    writer.write('\n');
+	}
+	writer.flush();
+    }
+
+    /**
+     * Writes feature vectors as CSV, with a header line of attribute names. Missing values are left empty.
+     *
+     * @param buffer
+     *            the feature vectors
+     * @param out
+     *            the writer; it is flushed but not closed
+     * @throws IOException
+     */
+    public static void writeCsv(FeatureBuffer buffer, Writer out) throws IOException
+    {
+	FeatureSchema schema = buffer.getSchema();
+	BufferedWriter writer = new BufferedWriter(out);
+	for (int i = 0; i < schema.getNumFeatures(); i++)
+	{
+	    writer.write(schema.getFeatureName(i));
+	    writer.write(',');
+	}
+	writer.write("class\n");
+
+	for (int v = 0; v < buffer.size(); v++)
+	{
+	    for (int i = 0; i < schema.getNumFeatures(); i++)
+	    {
+		writer.write(formatValue(schema, i, buffer.get(v, i), ""));
+		writer.write(',');
+	    }
+	    writer.write(FeatureSchema.CLASS_VALUES[buffer.getClassLabel(v)]);
+	    writer.write('\n');
+	}
+	writer.flush();
+    }
+
+    /**
+     * Writes feature vectors in the binary format
+     *
+     * @param buffer
+     *            the feature vectors
+     * @param out
+     *            the output stream; it is flushed but not closed
+     * @throws IOException
+     */
+    public static void writeBinary(FeatureBuffer buffer, OutputStream out) throws IOException
+    {
+	FeatureSchema schema = buffer.getSchema();
+	DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+	data.writeInt(BINARY_MAGIC);
+	data.writeInt(BINARY_VERSION);
+	data.writeUTF(schema.getName());
+	data.writeInt(schema.getNumAttributes());
+	for (int i = 0; i < schema.getNumFeatures(); i++)
+	    data.writeUTF(schema.getFeatureName(i));
+	data.writeUTF("class");
+	data.writeInt(buffer.size());
+	for (int v = 0; v < buffer.size(); v++)
+	{
+	    for (int i = 0; i < schema.getNumFeatures(); i++)
+		data.writeDouble(buffer.get(v, i));
+	    data.writeDouble(buffer.getClassLabel(v));
+	}
+	data.flush();
+    }
+
+    /**
+     * Reads feature vectors written by writeBinary
+     *
+     * @param in
+     *            the input stream; it is not closed
+     * @return the feature vectors
+     * @throws IOException
+     *             if the stream is not in the binary format or its attributes do not match a known schema
+     */
+    public static FeatureBuffer readBinary(InputStream in) throws IOException
+    {
+	DataInputStream data = new DataInputStream(in);
+	if (data.readInt() != BINARY_MAGIC)
+	    throw new IOException("not a binary feature file");
+	int version = data.readInt();
+	if (version != BINARY_VERSION)
+	    throw new IOException("unsupported binary feature file version " + version);
+
+	String name = data.readUTF();
+	FeatureSchema schema;
+	if (FeatureSchema.ROW.getName().equals(name))
+	    schema = FeatureSchema.ROW;
+	else if (FeatureSchema.COL.getName().equals(name))
+	    schema = FeatureSchema.COL;
+	else
+	    throw new IOException("unknown feature schema " + name);
+
+	int numAttributes = data.readInt();
+	if (numAttributes != schema.getNumAttributes())
+	    throw new IOException("expected " + schema.getNumAttributes() + " attributes, read " + numAttributes);
+	for (int i = 0; i < schema.getNumFeatures(); i++)
+	{
+	    String featureName = data.readUTF();
+	    if (!featureName.equals(schema.getFeatureName(i)))
+		throw new IOException("expected feature " + schema.getFeatureName(i) + ", read " + featureName);
+	}
+	data.readUTF(); // class
+
+	int size = data.readInt();
+	FeatureBuffer buffer = new FeatureBuffer(schema, size);
+	for (int v = 0; v < size; v++)
+	{
+	    int vector = buffer.addVector();
+	    for (int i = 0; i < schema.getNumFeatures(); i++)
+		buffer.setValue(vector, i, data.readDouble());
+	    buffer.setClassLabel(vector, (int) data.readDouble());
+	}
+	return buffer;
+    }
+
+    /**
+     * Formats a stored value: integer features without a fractional part, missing values as the given text
+     */
+    private static String formatValue(FeatureSchema schema, int feature, double value, String missing)
+    {
+	if (Double.isNaN(value))
+	    return missing;
+	if (schema.isIntegerFeature(feature) && value == (long) value)
+	    return Long.toString((long) value);
+	return Double.toString(value);
+    }
+
+    private FeatureCodec()
+    {
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class declares the features used to classify the header and data rows/columns of a table.
+ * <p>
+ * Each feature has a fixed index, which is its attribute position in the weka .arff files ("row_feature.arff",
+ * "col_feature.arff") and in the feature vectors given to the classifiers. The column features are the first
+ * eleven row features, in the same order, so the feature index constants below are valid for both schemas.
+ */
+public class FeatureSchema
+{
+    /**
+     * The relation name of the .arff files
+     */
+    public static final String RELATION = "HeaderDataClassification";
+
+    /**
+     * The values of the class attribute: data row/column (0) and header row/column (1)
+     */
+    public static final String[] CLASS_VALUES = { "HeaderDataClassification-0", "HeaderDataClassification-1" };
+
+    public static final int DATA = 0;
+    public static final int HEADER = 1;
+
+    // independent features of a row/column
+    public static final int CELL_NUM = 0;
+    public static final int AVG_CELL_LEN = 1;
+    public static final int CHAR_NUM = 2;
+    public static final int DIGIT_CH_RATIO = 3;
+    public static final int ALPHA_CH_RATIO = 4;
+    public static final int SYMBOL_CH_RATIO = 5;
+    public static final int FONT_SIZE = 6;
+    public static final int FONT_BOLD = 7;
+    public static final int FONT_ITALIC = 8;
+    public static final int NUM_CELL_RATIO = 9;
+    public static final int CELL_NUM_RATIO = 10;
+
+    // consistency features between adjacent rows
+    public static final int SPANNING_CELL = 11;
+    public static final int AVG_ALIGN = 12;
+    public static final int AVG_OVERLAP = 13;
+    public static final int AVG_CH_NUM_DIFF = 14;
+    public static final int AVG_SIM_DATA_TYPE = 15;
+    public static final int AVG_SIM_FONT_SIZE = 16;
+    public static final int SIM_FONT_STYLE = 17;
+    public static final int SIM_CONTENT = 18;
+
+    private static final String[] FEATURE_NAMES = { "CellNum", "AvgCellLen", "CharNum", "DigitChRatio",
+	    "AlphaChRatio", "SymbolChRatio", "FontSize", "FontBold", "FontItalic", "NumCellRatio", "CellNumRatio",
+	    "SpanningCell", "AvgAlign", "AvgOverlap", "AvgChNumDiff", "AvgSimDataType", "AvgSimFontSize",
+	    "SimFontStyle", "SimContent" };
+
+    /**
+     * The features of the table rows
+     */
+    public static final FeatureSchema ROW = new FeatureSchema("row", 19);
+
+    /**
+     * The features of the table columns
+     */
+    public static final FeatureSchema COL = new FeatureSchema("col", 11);
+
+    /**
+     * The name of the class attribute
+     */
+    public static final String CLASS_ATTRIBUTE = "class";
+
+    private final String name;
+    private final int numFeatures;
+
+    private FeatureSchema(String name, int numFeatures)
+    {
+	this.name = name;
+	this.numFeatures = numFeatures;
+    }
+
+    /**
+     * Gets the name of the schema: "row" or "col"
+     * @return the name of the schema
+     */
+    public String getName()
+    {
+	return name;
+    }
+
+    /**
+     * Gets the number of features, without the class attribute
+     * @return the number of features
+     */
+    public int getNumFeatures()
+    {
+	return numFeatures;
+    }
+
+    /**
+     * Gets the number of attributes, including the class attribute (the last one)
+     * @return the number of attributes
+     */
+    public int getNumAttributes()
+    {
+	return numFeatures + 1;
+    }
+
+    /**
+     * Gets the name of a feature
+     * @param index
+     *            the index of the feature
+     * @return the attribute name of the feature
+     */
+    public String getFeatureName(int index)
+    {
+	if (index < 0 || index >= numFeatures)
+	    throw new IndexOutOfBoundsException(name + " feature " + index);
+	return FEATURE_NAMES[index];
+    }
+
+    /**
+     * Gets the index of a feature
+     * @param featureName
+     *            the attribute name of the feature
+     * @return the index of the feature / -1 (if this schema has no such feature)
+     */
+    public int indexOf(String featureName)
+    {
+	for (int i = 0; i < numFeatures; i++)
+	{
+	    if (FEATURE_NAMES[i].equals(featureName))
+		return i;
+	}
+	return -1;
+    }
+
+    /**
+     * Judges whether a feature is stored as an integer (its value has no fractional part)
+     * @param index
+     *            the index of the feature
+     * @return a boolean value: true/false
+     */
+    public boolean isIntegerFeature(int index)
+    {
+	return index == CELL_NUM || index == AVG_CELL_LEN || index == CHAR_NUM;
+    }
+
+    /**
+     * Gets the attribute names: the feature names followed by the class attribute
+     * @return the attribute names
+     */
+    public String[] getAttributeNames()
+    {
+	String[] names = new String[getNumAttributes()];
+	System.arraycopy(FEATURE_NAMES, 0, names, 0, numFeatures);
+	names[numFeatures] = CLASS_ATTRIBUTE;
+	return names;
+    }
+
+    /**
+     * Judges whether a list of attribute names is exactly the attributes of this schema, in the same order
+     * @param names
+     *            the attribute names, the class attribute last
+     * @return a boolean value: true/false
+     */
+    public boolean matches(String[] names)
+    {
+	return Arrays.equals(getAttributeNames(), names);
+    }
+
+    /**
+     * Finds the schema of a list of attribute names, e.g., the attributes of a training model
+     * @param names
+     *            the attribute names, the class attribute last
+     * @return the row or column schema
+     * @throws IOException
+     *             if the attributes match neither schema
+     */
+    public static FeatureSchema forAttributes(String[] names) throws IOException
+    {
+	if (ROW.matches(names))
+	    return ROW;
+	if (COL.matches(names))
+	    return COL;
+	throw new IOException("the attributes " + Arrays.toString(names) + " match neither the row nor the column features");
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+
+/**
+ * This class converts the feature values of the row/column feature extractors into the numbers the header classifiers see.
+ * <p>
+ * The training models ("row_feature.arff", "col_feature.arff") were written with every feature value cut to its first
+ * four characters, e.g., 0.33333334 is stored as 0.33 and 10.4375 as 10.4. Features classified in memory must be cut the
+ * same way, otherwise they would not match the data the random forests were built from.
+ */
+class FeatureValues
+{
+    /**
+     * The number of characters kept from each feature value
+     */
+    static final int VALUE_LENGTH = 4;
+
+    /**
+     * Gets the value of an integer feature as it would be read back from a weka .arff file
+     *
+     * @param value
+     *            the feature value
+     * @return the truncated value
+     * @throws IOException
+     */
+    static double quantize(int value) throws IOException
+    {
+	if (value > -1000 && value < 10000)
+	    return value; // at most four characters, nothing to cut
+	return parse(Integer.toString(value));
+    }
+
+    /**
+     * Gets the value of a real feature as it would be read back from a weka .arff file
+     *
+     * @param value
+     *            the feature value
+     * @return the truncated value; NaN means a missing value, as in weka
+     * @throws IOException
+     *             if the truncated text is not a number, e.g., "Infi" (the .arff loader fails on such values too)
+     */
+    static double quantize(float value) throws IOException
+    {
+	if (value == (int) value && value > -10 && value < 100)
+	    return value; // "d.0", "dd.0" or "-d.0": nothing to cut
+	return parse(Float.toString(value));
+    }
+
+    /**
+     * Cuts the text of a feature value and parses it as the .arff loader does
+     */
+    private static double parse(String s) throws IOException
+    {
+	if (s.length() > VALUE_LENGTH)
+	    s = s.substring(0, VALUE_LENGTH);
+	try
+	{
+	    return Double.parseDouble(s);
+	}
+	catch (NumberFormatException e)
+	{
+	    throw new IOException("number expected, read Token[" + s + "]");
+	}
+    }
+
+    private FeatureValues()
+    {
+    }
+}
@@ -0,0 +1,598 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import weka.classifiers.Classifier;
+
+/**
+ * This class is a trained weka random forest compiled into flat arrays, for fast header row/column classification.
+ * <p>
+ * All the nodes of all the trees are numbered and stored in parallel arrays (split attribute, split point, children,
+ * proportions of training data per child, and an offset into one array of class distributions), so a prediction only
+ * reads primitive arrays: it creates no weka Instance and allocates nothing.
+ * <p>
+ * The predictions are the ones of weka: a numeric value goes left if it is smaller than the split point; a missing
+ * value (NaN) is sent down both children weighted by their training proportions; a branch with no training data gives
+ * the distribution of its parent; the tree distributions are summed, normalized and the first largest class wins.
+ * Split points are kept as doubles so that the comparisons are exactly the ones made by weka.
+ */
+public class FlatRandomForest
+{
+    private final int numClasses;
+    private final int[] roots;              //the root node of each tree
+    private final int[] attribute;          //the split attribute of each node, -1 for a leaf
+    private final double[] splitPoint;      //the split point of each node
+    private final int[] left;               //the child for values smaller than the split point
+    private final int[] right;              //the child for the other values
+    private final double[] leftProp;        //the proportion of training data sent to the left child
+    private final double[] rightProp;       //the proportion of training data sent to the right child
+    private final int[] distOffset;         //the offset of the class distribution of each node, -1 for an empty node
+    private final double[] dists;           //the normalized class distributions
+
+    private final int maxDepth;             //the depth of the deepest tree
+
+    /**
+     * The scratch arrays of a thread: the sum of the tree distributions and a stack of distributions, one per level
+     */
+    private final ThreadLocal<double[][]> workspace = new ThreadLocal<double[][]>() {
+	protected double[][] initialValue()
+	{
+	    return new double[][] { new double[numClasses], new double[(maxDepth + 1) * numClasses] };
+	}
+    };
+
+    /**
+     * Constructor, used by compile() and by the model file reader
+     */
+    FlatRandomForest(int numClasses, int[] roots, int[] attribute, double[] splitPoint, int[] left, int[] right,
+	    double[] leftProp, double[] rightProp, int[] distOffset, double[] dists)
+    {
+	this.numClasses = numClasses;
+	this.roots = roots;
+	this.attribute = attribute;
+	this.splitPoint = splitPoint;
+	this.left = left;
+	this.right = right;
+	this.leftProp = leftProp;
+	this.rightProp = rightProp;
+	this.distOffset = distOffset;
+	this.dists = dists;
+	int depth = 0;
+	for (int root : roots)
+	    depth = Math.max(depth, depth(root));
+	this.maxDepth = depth;
+    }
+
+    /**
+     * Gets the depth of a subtree, a single leaf having depth 0
+     */
+    private int depth(int node)
+    {
+	if (attribute[node] < 0)
+	    return 0;
+	return 1 + Math.max(depth(left[node]), depth(right[node]));
+    }
+
+    /**
+     * Gets the number of classes
+     * @return the number of classes
+     */
+    public int getNumClasses()
+    {
+	return numClasses;
+    }
+
+    /**
+     * Gets the number of trees
+     * @return the number of trees
+     */
+    public int getNumTrees()
+    {
+	return roots.length;
+    }
+
+    /**
+     * Gets the total number of nodes of all the trees
+     * @return the number of nodes
+     */
+    public int getNumNodes()
+    {
+	return attribute.length;
+    }
+
+    /**
+     * Classifies one feature vector of a feature buffer
+     *
+     * @param features
+     *            the feature buffer
+     * @param vector
+     *            the index of the vector
+     * @return the index of the predicted class / NaN (if no class is predicted, as weka's classifyInstance)
+     */
+    public double classify(FeatureBuffer features, int vector)
+    {
+	return classify(features.getValues(), features.getOffset(vector));
+    }
+
+    /**
+     * Classifies a feature vector
+     *
+     * @param values
+     *            the attribute values, in the attribute order of the training data
+     * @return the index of the predicted class / NaN (if no class is predicted, as weka's classifyInstance)
+     */
+    public double classify(double[] values)
+    {
+	return classify(values, 0);
+    }
+
+    /**
+     * Classifies a feature vector stored in a larger array
+     *
+     * @param values
+     *            the array holding the vector
+     * @param offset
+     *            the index of the first attribute of the vector
+     * @return the index of the predicted class / NaN (if no class is predicted)
+     */
+    public double classify(double[] values, int offset)
+    {
+	double[] dist = workspace.get()[0];
+	distributionForVector(values, offset, dist);
+	return predict(dist, 0);
+    }
+
+    /**
+     * Classifies all the vectors of a feature buffer in one pass. The trees are the outer loop, so each tree is
+     * walked for all the vectors while it is in the cache; the predictions are the same as classify() for each vector.
+     *
+     * @param features
+     *            the feature buffer
+     * @param predictions
+     *            the array receiving the index of the predicted class / NaN of each vector (at least features.size())
+     */
+    public void classifyAll(FeatureBuffer features, double[] predictions)
+    {
+	int size = features.size();
+	double[] values = features.getValues();
+	double[] stack = workspace.get()[1];
+	double[] sums = new double[size * numClasses];
+	for (int t = 0; t < roots.length; t++)
+	{
+	    for (int v = 0; v < size; v++)
+	    {
+		if (!treeDistribution(roots[t], values, features.getOffset(v), stack, 0))
+		    throw new IllegalStateException("empty tree " + t);
+		int out = v * numClasses;
+		for (int i = 0; i < numClasses; i++)
+		    sums[out + i] += stack[i];
+	    }
+	}
+	for (int v = 0; v < size; v++)
+	{
+	    normalize(sums, v * numClasses);
+	    predictions[v] = predict(sums, v * numClasses);
+	}
+    }
+
+    /**
+     * Computes the class distribution of a feature vector
+     *
+     * @param values
+     *            the array holding the vector
+     * @param offset
+     *            the index of the first attribute of the vector
+     * @param dist
+     *            the array receiving the normalized distribution (numClasses values)
+     */
+    public void distributionForVector(double[] values, int offset, double[] dist)
+    {
+	double[] stack = workspace.get()[1];
+	for (int i = 0; i < numClasses; i++)
+	    dist[i] = 0.0;
+	for (int t = 0; t < roots.length; t++)
+	{
+	    if (!treeDistribution(roots[t], values, offset, stack, 0))
+		throw new IllegalStateException("empty tree " + t);
+	    for (int i = 0; i < numClasses; i++)
+		dist[i] += stack[i];
+	}
+	normalize(dist, 0);
+    }
+
+    /**
+     * Normalizes a summed distribution, as weka's Bagging does (a sum of about 0 is left as it is)
+     */
+    private void normalize(double[] dist, int offset)
+    {
+	double sum = 0;
+	for (int i = 0; i < numClasses; i++)
+	    sum += dist[offset + i];
+	if (sum > 1e-6 || sum < -1e-6)
+	{
+	    for (int i = 0; i < numClasses; i++)
+		dist[offset + i] /= sum;
+	}
+    }
+
+    /**
+     * Gets the predicted class of a distribution, as weka's classifyInstance does: the first largest class, or NaN if
+     * no class has a positive probability
+     */
+    private double predict(double[] dist, int offset)
+    {
+	double max = 0;
+	int maxIndex = 0;
+	for (int i = 0; i < numClasses; i++)
+	{
+	    if (dist[offset + i] > max)
+	    {
+		maxIndex = i;
+		max = dist[offset + i];
+	    }
+	}
+	return max > 0 ? maxIndex : Double.NaN;
+    }
+
+    /**
+     * Computes the distribution of a subtree into the stack, at the given level. The arithmetic is done in the same
+     * order as weka (a missing value combines the full distributions of the children), so the results are identical.
+     *
+     * @return false if the subtree is an empty leaf (its parent then uses its own distribution)
+     */
+    private boolean treeDistribution(int node, double[] values, int offset, double[] stack, int level)
+    {
+	int out = level * numClasses;
+	while (attribute[node] >= 0)
+	{
+	    double value = values[offset + attribute[node]];
+	    if (Double.isNaN(value))
+	    {
+		// split the vector up, empty children contribute nothing
+		int in = out + numClasses;
+		for (int i = 0; i < numClasses; i++)
+		    stack[out + i] = 0.0;
+		if (treeDistribution(left[node], values, offset, stack, level + 1))
+		    for (int i = 0; i < numClasses; i++)
+			stack[out + i] += leftProp[node] * stack[in + i];
+		if (treeDistribution(right[node], values, offset, stack, level + 1))
+		    for (int i = 0; i < numClasses; i++)
+			stack[out + i] += rightProp[node] * stack[in + i];
+		return true;
+	    }
+	    int child = value < splitPoint[node] ? left[node] : right[node];
+	    if (attribute[child] < 0 && distOffset[child] < 0)
+		break; // empty leaf: use the distribution of this node
+	    node = child;
+	}
+	int d = distOffset[node];
+	if (d < 0)
+	    return false;
+	System.arraycopy(dists, d, stack, out, numClasses);
+	return true;
+    }
+
+    /**
+     * Writes the arrays of this forest
+     *
+     * @param out
+     *            the output stream
+     * @throws IOException
+     */
+    void write(DataOutputStream out) throws IOException
+    {
+	out.writeInt(numClasses);
+	writeInts(out, roots);
+	writeInts(out, attribute);
+	writeDoubles(out, splitPoint);
+	writeInts(out, left);
+	writeInts(out, right);
+	writeDoubles(out, leftProp);
+	writeDoubles(out, rightProp);
+	writeInts(out, distOffset);
+	writeDoubles(out, dists);
+    }
+
+    /**
+     * Reads a forest written by write(), checking that every node reference is valid
+     *
+     * @param in
+     *            the input stream, over data in memory (its available() must be the remaining length)
+     * @return the forest
+     * @throws IOException
+     *             if the data is not a valid forest
+     */
+    static FlatRandomForest read(DataInputStream in) throws IOException
+    {
+	int numClasses = in.readInt();
+	int[] roots = readInts(in);
+	int[] attribute = readInts(in);
+	double[] splitPoint = readDoubles(in);
+	int[] left = readInts(in);
+	int[] right = readInts(in);
+	double[] leftProp = readDoubles(in);
+	double[] rightProp = readDoubles(in);
+	int[] distOffset = readInts(in);
+	double[] dists = readDoubles(in);
+
+	int size = attribute.length;
+	if (numClasses < 1 || roots.length == 0 || splitPoint.length != size || left.length != size
+		|| right.length != size || leftProp.length != size || rightProp.length != size || distOffset.length != size)
+	    throw new IOException("inconsistent forest arrays");
+	for (int root : roots)
+	    if (root < 0 || root >= size)
+		throw new IOException("invalid root node " + root);
+	for (int i = 0; i < size; i++)
+	{
+	    if (distOffset[i] < -1 || distOffset[i] + numClasses > dists.length)
+		throw new IOException("invalid distribution of node " + i);
+	    // children are always numbered after their parent, which also rules out cycles
+	    if (attribute[i] >= 0 && (left[i] <= i || left[i] >= size || right[i] <= i || right[i] >= size || distOffset[i] < 0))
+		throw new IOException("invalid split node " + i);
+	}
+	return new FlatRandomForest(numClasses, roots, attribute, splitPoint, left, right, leftProp, rightProp,
+		distOffset, dists);
+    }
+
+    /**
+     * Gets the highest attribute index used by a split
+     * @return the highest split attribute / -1 (if all the trees are leaves)
+     */
+    public int getMaxAttribute()
+    {
+	int max = -1;
+	for (int a : attribute)
+	    max = Math.max(max, a);
+	return max;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException
+    {
+	out.writeInt(values.length);
+	for (int v : values)
+	    out.writeInt(v);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException
+    {
+	out.writeInt(values.length);
+	for (double v : values)
+	    out.writeDouble(v);
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException
+    {
+	int[] values = new int[readLength(in, 4)];
+	for (int i = 0; i < values.length; i++)
+	    values[i] = in.readInt();
+	return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException
+    {
+	double[] values = new double[readLength(in, 8)];
+	for (int i = 0; i < values.length; i++)
+	    values[i] = in.readDouble();
+	return values;
+    }
+
+    /**
+     * Reads an array length, rejecting lengths longer than the remaining data
+     */
+    private static int readLength(DataInputStream in, int elementSize) throws IOException
+    {
+	int length = in.readInt();
+	if (length < 0 || (long) length * elementSize > in.available())
+	    throw new IOException("invalid array length " + length);
+	return length;
+    }
+
+    /**
+     * Compiles a trained weka RandomForest, of weka 3.6.6 and earlier (whose RandomTree objects are the nodes) or of
+     * weka 3.6.8 and later (whose RandomTree objects hold their nodes in RandomTree$Tree objects)
+     *
+     * @param forest
+     *            the trained random forest (weka.classifiers.trees.RandomForest)
+     * @param numClasses
+     *            the number of classes of the training data
+     * @return the compiled forest
+     * @throws Exception
+     *             if the forest does not have the expected structure (e.g., another weka version or nominal attributes)
+     */
+    public static FlatRandomForest compile(Classifier forest, int numClasses) throws Exception
+    {
+	Object bagger = getField(forest, "m_bagger");
+	Object[] trees = (Object[]) getField(bagger, "m_Classifiers");
+	if (trees == null || trees.length == 0)
+	    throw new Exception("the random forest has no trees");
+
+	Builder builder = new Builder(numClasses);
+	int[] roots = new int[trees.length];
+	for (int t = 0; t < trees.length; t++)
+	    roots[t] = builder.addTree(trees[t]);
+	return builder.build(roots);
+    }
+
+    /**
+     * Collects the nodes of weka RandomTree objects
+     */
+    private static class Builder
+    {
+	private final int numClasses;
+	private final ArrayList<int[]> nodes = new ArrayList<int[]>();    // attribute, left, right, distOffset
+	private final ArrayList<double[]> splits = new ArrayList<double[]>(); // splitPoint, leftProp, rightProp
+	private final ArrayList<Double> dists = new ArrayList<Double>();
+
+	Builder(int numClasses)
+	{
+	    this.numClasses = numClasses;
+	}
+
+	/**
+	 * Adds the nodes of a RandomTree
+	 * @return the root node
+	 */
+	int addTree(Object tree) throws Exception
+	{
+	    // a tree of data without attributes is a ZeroR: m_ZeroR in weka 3.6.6 and earlier, m_zeroR later
+	    Object zeroR = hasField(tree, "m_ZeroR") ? getField(tree, "m_ZeroR") : getField(tree, "m_zeroR");
+	    if (zeroR != null)
+	    {
+		int node = nodes.size();
+		nodes.add(new int[] { -1, -1, -1, addDistribution((double[]) getField(zeroR, "m_Counts"), false) });
+		splits.add(new double[3]);
+		return node;
+	    }
+	    boolean allowUnclassified = ((Boolean) getField(tree, "m_AllowUnclassifiedInstances")).booleanValue();
+	    return add(hasField(tree, "m_Tree") ? getField(tree, "m_Tree") : tree, allowUnclassified);
+	}
+
+	/**
+	 * Adds a node and its subtree. Weka keeps the class distribution of a split node only if one of its children
+	 * is empty (its distribution then answers for that child); the other split nodes get the distribution of their
+	 * children weighted by their training proportions, so that every split node has one.
+	 *
+	 * @param allowUnclassified
+	 *            true if weka answers an empty leaf with a zero distribution, instead of the one of its parent
+	 * @return the node
+	 */
+	private int add(Object tree, boolean allowUnclassified) throws Exception
+	{
+	    int node = nodes.size();
+	    int[] n = new int[] { -1, -1, -1, -1 };
+	    double[] s = new double[3];
+	    nodes.add(n);
+	    splits.add(s);
+
+	    int att = ((Integer) getField(tree, "m_Attribute")).intValue();
+	    double[] distribution = (double[]) getField(tree, "m_ClassDistribution");
+	    if (att >= 0)
+	    {
+		Object[] successors = (Object[]) getField(tree, "m_Successors");
+		double[] prop = (double[]) getField(tree, "m_Prop");
+		if (successors == null || successors.length != 2 || prop == null || prop.length != 2)
+		    throw new Exception("only binary splits on numeric attributes are supported");
+		n[0] = att;
+		s[0] = ((Double) getField(tree, "m_SplitPoint")).doubleValue();
+		s[1] = prop[0];
+		s[2] = prop[1];
+		n[1] = add(successors[0], allowUnclassified);
+		n[2] = add(successors[1], allowUnclassified);
+		if (distribution == null)
+		{
+		    distribution = new double[numClasses];
+		    int[] children = { n[1], n[2] };
+		    for (int c = 0; c < 2; c++)
+		    {
+			int childDist = nodes.get(children[c])[3];
+			for (int i = 0; childDist >= 0 && i < numClasses; i++)
+			    distribution[i] += prop[c] * dists.get(childDist + i).doubleValue();
+		    }
+		}
+	    }
+	    else if (distribution == null && allowUnclassified)
+		distribution = new double[numClasses];
+	    if (distribution != null)
+		n[3] = addDistribution(distribution, true);
+	    return node;
+	}
+
+	/**
+	 * Adds a class distribution
+	 * @param normalize
+	 *            true: the distribution is normalized as weka normalizes it; a distribution without any training
+	 *            weight, which weka can not normalize, gives a zero vote / false: it is added as it is
+	 * @return the offset of the distribution
+	 */
+	private int addDistribution(double[] distribution, boolean normalize) throws Exception
+	{
+	    if (distribution.length != numClasses)
+		throw new Exception("unexpected class distribution of " + distribution.length + " classes");
+	    double sum = 0;
+	    for (double d : distribution)
+		sum += d;
+	    int offset = dists.size();
+	    for (double d : distribution)
+		dists.add((!normalize) ? d : (sum == 0) ? 0.0 : d / sum);
+	    return offset;
+	}
+
+	FlatRandomForest build(int[] roots)
+	{
+	    int size = nodes.size();
+	    int[] attribute = new int[size];
+	    double[] splitPoint = new double[size];
+	    int[] left = new int[size];
+	    int[] right = new int[size];
+	    double[] leftProp = new double[size];
+	    double[] rightProp = new double[size];
+	    int[] distOffset = new int[size];
+	    for (int i = 0; i < size; i++)
+	    {
+		int[] n = nodes.get(i);
+		double[] s = splits.get(i);
+		attribute[i] = n[0];
+		left[i] = n[1];
+		right[i] = n[2];
+		distOffset[i] = n[3];
+		splitPoint[i] = s[0];
+		leftProp[i] = s[1];
+		rightProp[i] = s[2];
+	    }
+	    double[] d = new double[dists.size()];
+	    for (int i = 0; i < d.length; i++)
+		d[i] = dists.get(i).doubleValue();
+	    return new FlatRandomForest(numClasses, roots, attribute, splitPoint, left, right, leftProp, rightProp,
+		    distOffset, d);
+	}
+    }
+
+    /**
+     * Judges whether a weka object has a (possibly inherited, non-public) field
+     * @return a boolean value: true/false
+     */
+    private static boolean hasField(Object o, String name)
+    {
+	for (Class<?> c = o.getClass(); c != null; c = c.getSuperclass())
+	{
+	    try
+	    {
+		c.getDeclaredField(name);
+		return true;
+	    }
+	    catch (NoSuchFieldException e)
+	    {
+		// look in the superclass
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Reads a (possibly inherited, non-public) field of a weka object
+     */
+    private static Object getField(Object o, String name) throws Exception
+    {
+	for (Class<?> c = o.getClass(); c != null; c = c.getSuperclass())
+	{
+	    try
+	    {
+		Field field = c.getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(o);
+	    }
+	    catch (NoSuchFieldException e)
+	    {
+		// look in the superclass
+	    }
+	}
+	throw new NoSuchFieldException(o.getClass().getName() + "." + name);
+    }
+}
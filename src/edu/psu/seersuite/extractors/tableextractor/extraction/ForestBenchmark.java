@@ -0,0 +1,158 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader;
+
+/**
+ * This class checks that the compiled random forests (FlatRandomForest) predict exactly what weka predicts, and
+ * measures the time of both.
+ * <p>
+ * Usage: java ForestBenchmark [training model ...] [-n rounds]. The default training models are "row_feature.arff"
+ * and "col_feature.arff". Every instance of a training model is classified by both, once as it is and once with some
+ * values made missing; the exit code is 1 if any prediction or distribution differs.
+ */
+public class ForestBenchmark
+{
+    public static void main(String[] args)
+    {
+	int rounds = 20;
+	ArrayList<String> modelPaths = new ArrayList<String>();
+	for (int i = 0; i < args.length; i++)
+	{
+	    if (args[i].equals("-n") && i + 1 < args.length)
+		rounds = Integer.parseInt(args[++i]);
+	    else
+		modelPaths.add(args[i]);
+	}
+	if (modelPaths.isEmpty())
+	{
+	    modelPaths.add("row_feature.arff");
+	    modelPaths.add("col_feature.arff");
+	}
+
+	int mismatches = 0;
+	for (String modelPath : modelPaths)
+	{
+	    try
+	    {
+		mismatches += check(modelPath, rounds);
+	    }
+	    catch (Exception e)
+	    {
+		System.out.printf("[Error] fail to check %s\n", modelPath);
+		e.printStackTrace();
+		mismatches++;
+	    }
+	}
+	System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    /**
+     * Compares the compiled and the weka classifier of a training model
+     *
+     * @param modelPath
+     *            the full path of the training model
+     * @param rounds
+     *            the number of timed classifications of the whole data set
+     * @return the number of mismatches
+     * @throws Exception
+     */
+    private static int check(String modelPath, int rounds) throws Exception
+    {
+	HeaderModel model = HeaderModelRegistry.getModel(modelPath);
+	if (model == null)
+	{
+	    System.out.printf("[Error] training model %s not found\n", modelPath);
+	    return 1;
+	}
+	FlatRandomForest forest = model.getCompiledForest();
+	if (forest == null)
+	{
+	    System.out.printf("[Error] the classifier of %s could not be compiled\n", modelPath);
+	    return 1;
+	}
+	Classifier classifier = model.getClassifier();
+	if (classifier == null)
+	{
+	    System.out.printf("[Error] %s is a model file, a training model is needed to compare with weka\n", modelPath);
+	    return 1;
+	}
+	Instances header = model.getHeader();
+
+	ArffLoader loader = new ArffLoader();
+	loader.setFile(new File(modelPath));
+	Instances data = loader.getDataSet();
+	data.setClassIndex(data.numAttributes() - 1);
+
+	// the instances as they are, then with about a quarter of the values missing
+	int n = data.numInstances();
+	int numAttributes = data.numAttributes();
+	double[][] vectors = new double[2 * n][];
+	Random random = new Random(1);
+	for (int i = 0; i < n; i++)
+	{
+	    vectors[i] = data.instance(i).toDoubleArray();
+	    vectors[n + i] = vectors[i].clone();
+	    for (int a = 0; a < numAttributes - 1; a++)
+		if (random.nextInt(4) == 0)
+		    vectors[n + i][a] = Instance.missingValue();
+	}
+
+	Instance[] instances = new Instance[vectors.length];
+	for (int i = 0; i < vectors.length; i++)
+	{
+	    instances[i] = new Instance(1.0, vectors[i]);
+	    instances[i].setDataset(header);
+	}
+
+	int mismatches = 0;
+	double[] dist = new double[forest.getNumClasses()];
+	for (int i = 0; i < vectors.length; i++)
+	{
+	    double expected = classifier.classifyInstance(instances[i]);
+	    double actual = forest.classify(vectors[i]);
+	    double[] expectedDist = classifier.distributionForInstance(instances[i]);
+	    forest.distributionForVector(vectors[i], 0, dist);
+	    boolean same = Double.isNaN(expected) ? Double.isNaN(actual) : expected == actual;
+	    for (int c = 0; c < dist.length; c++)
+		same &= Math.abs(expectedDist[c] - dist[c]) < 1e-9;
+	    if (!same)
+	    {
+		if (mismatches < 10)
+		    System.out.printf("[Error] instance %d: weka %s %s, compiled %s %s\n", i, expected,
+			    Arrays.toString(expectedDist), actual, Arrays.toString(dist));
+		mismatches++;
+	    }
+	}
+
+	// timing
+	long start = System.nanoTime();
+	for (int r = 0; r < rounds; r++)
+	    for (int i = 0; i < instances.length; i++)
+		classifier.classifyInstance(instances[i]);
+	long wekaTime = System.nanoTime() - start;
+	start = System.nanoTime();
+	for (int r = 0; r < rounds; r++)
+	    for (int i = 0; i < vectors.length; i++)
+		forest.classify(vectors[i]);
+	long compiledTime = System.nanoTime() - start;
+
+	long classifications = (long) rounds * vectors.length;
+	System.out.printf("%s: %d trees, %d nodes, %d vectors, %d mismatches\n", modelPath, forest.getNumTrees(),
+		forest.getNumNodes(), vectors.length, mismatches);
+	System.out.printf("  weka     %.2f us/vector\n", wekaTime / 1000.0 / classifications);
+	System.out.printf("  compiled %.2f us/vector (x%.1f)\n", compiledTime / 1000.0 / classifications,
+		(double) wekaTime / Math.max(1, compiledTime));
+	return mismatches;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import edu.psu.seersuite.extractors.tableextractor.model.GlyphPage;
+import edu.psu.seersuite.extractors.tableextractor.model.TextPiece;
+
+/**
+ * This class measures the heap taken by the glyphs of PDF documents, stored in GlyphPage objects as the parser now
+ * hands them out, and as one TextPiece object per character as the parser used to.
+ * <p>
+ * Usage: java GlyphBenchmark [pdf file or directory ...]. Both stores are built from the parsed glyphs of all the
+ * documents, several times, and their retained heap is measured after a garbage collection and printed per page and
+ * per glyph, with the reduction. The heap is read from the runtime,
+ * so the numbers are approximate; run it with a fixed heap (e.g., -Xms512m -Xmx512m) for stable ones.
+ */
+public class GlyphBenchmark
+{
+    private static final int REPLICAS = 20;	//the number of times each store is built, to measure above the noise of the heap
+
+    public static void main(String[] args) throws IOException
+    {
+	ArrayList<File> pdfFiles = new ArrayList<File>();
+	for (String arg : args)
+	{
+	    File file = new File(arg);
+	    if (file.isDirectory())
+	    {
+		for (File pdfFile : file.listFiles(new PdfFileFilter()))
+		    pdfFiles.add(pdfFile);
+	    }
+	    else
+		pdfFiles.add(file);
+	}
+	if (pdfFiles.isEmpty())
+	{
+	    System.out.println("GlyphBenchmark <pdf-file | pdf-dir> ...");
+	    return;
+	}
+
+	PdfBoxParser parser = new PdfBoxParser();
+	final ArrayList<GlyphPage> glyphsByPage = new ArrayList<GlyphPage>();
+	IPageHandler collector = new IPageHandler()
+	{
+	    public boolean handleDocument(DocumentTriage triage)
+	    {
+		return true;
+	    }
+
+	    public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage)
+	    {
+		glyphsByPage.add(glyphsOfAPage);
+		return true;
+	    }
+
+	    public boolean isCancelled()
+	    {
+		return false;
+	    }
+	};
+	for (File pdfFile : pdfFiles)
+	{
+	    if (parser.getTextPiecesByPage(pdfFile, collector) <= 0)
+		System.out.printf("[Error] no page parsed from %s\n", pdfFile.getName());
+	}
+	int pageNum = glyphsByPage.size();
+	if (pageNum == 0)
+	    return;
+	int glyphNum = 0;
+	for (GlyphPage glyphsOfAPage : glyphsByPage)
+	    glyphNum += glyphsOfAPage.size();
+
+	// toTextPieces creates a TextPiece and a String per character, as the parser used to
+	long base = usedHeap();
+	ArrayList<ArrayList<TextPiece>> wordsByPage = new ArrayList<ArrayList<TextPiece>>();
+	for (int r = 0; r < REPLICAS; r++)
+	    for (GlyphPage glyphsOfAPage : glyphsByPage)
+		wordsByPage.add(glyphsOfAPage.toTextPieces());
+	long pieceHeap = (usedHeap() - base) / REPLICAS;
+	if (wordsByPage.size() != REPLICAS * pageNum)	//keeps the pieces reachable until they are measured
+	    System.out.println();
+	wordsByPage = null;
+
+	// the glyph pages are copied, so that the heap of the parser is not counted
+	base = usedHeap();
+	ArrayList<GlyphPage> glyphsCopy = new ArrayList<GlyphPage>();
+	for (int r = 0; r < REPLICAS; r++)
+	{
+	    for (GlyphPage glyphsOfAPage : glyphsByPage)
+	    {
+		GlyphPage copy = new GlyphPage(glyphsOfAPage.size());
+		for (int i = 0; i < glyphsOfAPage.size(); i++)
+		    copy.add(glyphsOfAPage.getX(i), glyphsOfAPage.getY(i), glyphsOfAPage.getWidth(i),
+			    glyphsOfAPage.getHeight(i), glyphsOfAPage.getFontSize(i), glyphsOfAPage.getXScale(i),
+			    glyphsOfAPage.getYScale(i), glyphsOfAPage.getWidthOfSpace(i), glyphsOfAPage.getWordSpacing(i),
+			    glyphsOfAPage.getText(i));
+		glyphsCopy.add(copy);
+	    }
+	}
+	long glyphHeap = (usedHeap() - base) / REPLICAS;
+
+	System.out.printf("%d documents, %d pages, %d glyphs (%d per page)\n", pdfFiles.size(), pageNum, glyphNum,
+		glyphNum / pageNum);
+	System.out.printf("  TextPiece %d bytes/page, %d bytes/glyph\n", pieceHeap / pageNum, pieceHeap / Math.max(1, glyphNum));
+	System.out.printf("  GlyphPage %d bytes/page, %d bytes/glyph\n", glyphHeap / pageNum, glyphHeap / Math.max(1, glyphNum));
+	System.out.printf("  heap reduction %d bytes/page (-%.0f%%)\n", (pieceHeap - glyphHeap) / pageNum,
+		100.0 * (pieceHeap - glyphHeap) / Math.max(1, pieceHeap));
+	if (glyphsCopy.size() != REPLICAS * pageNum)	//keeps the copies reachable until they are measured
+	    System.out.println();
+    }
+
+    /**
+     * Gets the used heap after a garbage collection
+     * @return the used heap in bytes
+     */
+    private static long usedHeap()
+    {
+	Runtime runtime = Runtime.getRuntime();
+	for (int i = 0; i < 3; i++)
+	    System.gc();
+	return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
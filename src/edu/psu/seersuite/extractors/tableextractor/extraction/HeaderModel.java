@@ -0,0 +1,156 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * This class holds a trained header/data classifier together with the features it was trained on.
+ * <p>
+ * A header model is either trained from a weka .arff training model (it then has the weka classifier and, if it could
+ * be compiled, its FlatRandomForest) or loaded from a binary model file made by ModelTrainer (it then only has the
+ * FlatRandomForest). It is built once by HeaderModelRegistry and is then shared read-only by all the
+ * TableExtractor objects (and threads) of the process. It must not be modified after it is created.
+ *
+ * @see HeaderModelRegistry
+ * @see HeaderModelFile
+ */
+public class HeaderModel
+{
+    private final Classifier classifier;    //the trained random forest / null (loaded from a model file)
+    private final Instances header;         //the attribute structure of the training data, without instances / null
+    private final FeatureSchema schema;     //the features of the classified vectors
+    private final String modelPath;         //the full path of the model this classifier was built from
+    private final FlatRandomForest forest;  //the classifier compiled into flat arrays / null (weka is used)
+
+    /**
+     * Constructor of a model trained with weka
+     *
+     * @param classifier
+     *            the trained classifier
+     * @param header
+     *            the attribute structure of the training data, with the class index set
+     * @param schema
+     *            the features of the training data
+     * @param modelPath
+     *            the full path of the training model
+     * @param forest
+     *            the classifier compiled into flat arrays / null (the weka classifier is used)
+     */
+    public HeaderModel(Classifier classifier, Instances header, FeatureSchema schema, String modelPath, FlatRandomForest forest)
+    {
+	this.classifier = classifier;
+	this.header = header;
+	this.schema = schema;
+	this.modelPath = modelPath;
+	this.forest = forest;
+    }
+
+    /**
+     * Constructor of a model loaded from a binary model file
+     *
+     * @param forest
+     *            the compiled classifier
+     * @param schema
+     *            the features of the training data
+     * @param modelPath
+     *            the full path of the model file
+     */
+    public HeaderModel(FlatRandomForest forest, FeatureSchema schema, String modelPath)
+    {
+	this(null, null, schema, modelPath, forest);
+    }
+
+    /**
+     * Gets the trained weka classifier
+     * @return the trained classifier / null (if the model was loaded from a binary model file)
+     */
+    public Classifier getClassifier()
+    {
+	return classifier;
+    }
+
+    /**
+     * Gets the attribute structure of the training data. The returned object has no instances and its class index is set.
+     * @return the attribute structure of the training data / null (if the model was loaded from a binary model file)
+     */
+    public Instances getHeader()
+    {
+	return header;
+    }
+
+    /**
+     * Gets the features the classifier was trained on
+     * @return the feature schema
+     */
+    public FeatureSchema getSchema()
+    {
+	return schema;
+    }
+
+    /**
+     * Gets the full path of the training model or model file
+     * @return the full path of the model
+     */
+    public String getModelPath()
+    {
+	return modelPath;
+    }
+
+    /**
+     * Gets the compiled classifier
+     * @return the classifier compiled into flat arrays / null (if the weka classifier could not be compiled)
+     */
+    public FlatRandomForest getCompiledForest()
+    {
+	return forest;
+    }
+
+    /**
+     * Classifies one feature vector, with the compiled classifier if there is one
+     *
+     * @param features
+     *            the feature vectors of a table
+     * @param vector
+     *            the index of the vector to classify
+     * @return the index of the predicted class / NaN (if no class is predicted)
+     * @throws Exception
+     */
+    public double classify(FeatureBuffer features, int vector) throws Exception
+    {
+	if (features.getSchema() != schema)
+	    throw new IllegalArgumentException(features.getSchema().getName() + " features given to the "
+		    + schema.getName() + " model " + modelPath);
+	if (forest != null)
+	    return forest.classify(features, vector);
+	Instance instance = new Instance(1.0, features.toArray(vector));
+	instance.setDataset(header);
+	return classifier.classifyInstance(instance);
+    }
+
+    /**
+     * Classifies all the vectors of a feature buffer, e.g., the rows of all the tables of a page
+     *
+     * @param features
+     *            the feature vectors
+     * @param predictions
+     *            the array receiving the index of the predicted class / NaN of each vector (at least features.size())
+     * @throws Exception
+     */
+    public void classifyAll(FeatureBuffer features, double[] predictions) throws Exception
+    {
+	if (features.getSchema() != schema)
+	    throw new IllegalArgumentException(features.getSchema().getName() + " features given to the "
+		    + schema.getName() + " model " + modelPath);
+	if (forest != null)
+	{
+	    forest.classifyAll(features, predictions);
+	    return;
+	}
+	for (int v = 0; v < features.size(); v++)
+	    predictions[v] = classify(features, v);
+    }
+}
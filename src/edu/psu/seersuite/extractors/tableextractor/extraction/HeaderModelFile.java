@@ -0,0 +1,203 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * This class reads and writes the binary header model files made by ModelTrainer.
+ * <p>
+ * A model file holds a compiled random forest (FlatRandomForest) with the feature schema it was trained on, so that
+ * the extractors can load a ready classifier instead of training one from "row_feature.arff"/"col_feature.arff" at
+ * every start. The layout is: the magic number, the format version, the schema name, the attribute names, the class
+ * values, the name of the training model, the training time, the forest arrays, and a CRC32 of all the preceding bytes.
+ * A file that is truncated, corrupted, of another version or of an unexpected schema is rejected with an IOException.
+ */
+public class HeaderModelFile
+{
+    public static final int MAGIC = 0x54535246;      //"TSRF"
+    public static final int VERSION = 1;
+
+    /**
+     * Judges whether a file is a binary model file (and not, e.g., a weka .arff training model)
+     *
+     * @param file
+     *            the file to check
+     * @return a boolean value: true/false
+     */
+    public static boolean isModelFile(File file)
+    {
+	DataInputStream in = null;
+	try
+	{
+	    in = new DataInputStream(new FileInputStream(file));
+	    return in.readInt() == MAGIC;
+	}
+	catch (IOException e)
+	{
+	    return false;
+	}
+	finally
+	{
+	    close(in);
+	}
+    }
+
+    /**
+     * Writes a model file
+     *
+     * @param file
+     *            the model file
+     * @param forest
+     *            the compiled random forest
+     * @param schema
+     *            the features the forest was trained on
+     * @param source
+     *            the name of the training model
+     * @throws IOException
+     */
+    public static void write(File file, FlatRandomForest forest, FeatureSchema schema, String source) throws IOException
+    {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream out = new DataOutputStream(bytes);
+	out.writeInt(MAGIC);
+	out.writeInt(VERSION);
+	out.writeUTF(schema.getName());
+	String[] names = schema.getAttributeNames();
+	out.writeInt(names.length);
+	for (String name : names)
+	    out.writeUTF(name);
+	out.writeInt(FeatureSchema.CLASS_VALUES.length);
+	for (String value : FeatureSchema.CLASS_VALUES)
+	    out.writeUTF(value);
+	out.writeUTF(source);
+	out.writeLong(System.currentTimeMillis());
+	forest.write(out);
+	out.flush();
+
+	CRC32 crc = new CRC32();
+	crc.update(bytes.toByteArray());
+	out.writeLong(crc.getValue());
+	out.flush();
+
+	// write to a temporary file first, so that a running extractor never sees half a model
+	File temp = new File(file.getPath() + ".tmp");
+	FileOutputStream fos = new FileOutputStream(temp);
+	try
+	{
+	    bytes.writeTo(fos);
+	}
+	finally
+	{
+	    fos.close();
+	}
+	if (file.exists() && !file.delete())
+	    throw new IOException("cannot replace " + file.getPath());
+	if (!temp.renameTo(file))
+	    throw new IOException("cannot rename " + temp.getPath() + " to " + file.getPath());
+    }
+
+    /**
+     * Reads a model file
+     *
+     * @param file
+     *            the model file
+     * @return the header model (without a weka classifier)
+     * @throws IOException
+     *             if the file is not a valid model file
+     */
+    public static HeaderModel read(File file) throws IOException
+    {
+	byte[] bytes = readFully(file);
+	if (bytes.length < 16)
+	    throw new IOException(file.getPath() + " is not a model file");
+
+	int length = bytes.length - 8;
+	CRC32 crc = new CRC32();
+	crc.update(bytes, 0, length);
+	DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+	if (in.readInt() != MAGIC)
+	    throw new IOException(file.getPath() + " is not a model file");
+	int version = in.readInt();
+	if (version != VERSION)
+	    throw new IOException(file.getPath() + ": unsupported model file version " + version + ", expected " + VERSION);
+	long expected = new DataInputStream(new ByteArrayInputStream(bytes, length, 8)).readLong();
+	if (crc.getValue() != expected)
+	    throw new IOException(file.getPath() + ": checksum mismatch, the model file is corrupted");
+
+	String schemaName = in.readUTF();
+	String[] names = new String[in.readInt()];
+	if (names.length < 1 || names.length > 1000)
+	    throw new IOException(file.getPath() + ": invalid number of attributes " + names.length);
+	for (int i = 0; i < names.length; i++)
+	    names[i] = in.readUTF();
+	FeatureSchema schema = FeatureSchema.forAttributes(names);
+	if (!schema.getName().equals(schemaName))
+	    throw new IOException(file.getPath() + ": the attributes are " + schema.getName() + " features, not " + schemaName);
+	int numClasses = in.readInt();
+	if (numClasses != FeatureSchema.CLASS_VALUES.length)
+	    throw new IOException(file.getPath() + ": expected " + FeatureSchema.CLASS_VALUES.length + " classes, read " + numClasses);
+	for (int i = 0; i < numClasses; i++)
+	{
+	    String value = in.readUTF();
+	    if (!value.equals(FeatureSchema.CLASS_VALUES[i]))
+		throw new IOException(file.getPath() + ": expected class " + FeatureSchema.CLASS_VALUES[i] + ", read " + value);
+	}
+	in.readUTF(); // the training model
+	in.readLong(); // the training time
+
+	FlatRandomForest forest = FlatRandomForest.read(in);
+	if (forest.getNumClasses() != numClasses || forest.getMaxAttribute() >= schema.getNumFeatures())
+	    throw new IOException(file.getPath() + ": the forest does not match the " + schema.getName() + " features");
+	if (in.available() != 0)
+	    throw new IOException(file.getPath() + ": unexpected data after the forest");
+	return new HeaderModel(forest, schema, file.getPath());
+    }
+
+    private static byte[] readFully(File file) throws IOException
+    {
+	long size = file.length();
+	if (size > Integer.MAX_VALUE)
+	    throw new IOException(file.getPath() + " is too large");
+	byte[] bytes = new byte[(int) size];
+	DataInputStream in = new DataInputStream(new FileInputStream(file));
+	try
+	{
+	    in.readFully(bytes);
+	}
+	finally
+	{
+	    in.close();
+	}
+	return bytes;
+    }
+
+    private static void close(InputStream in)
+    {
+	if (in != null)
+	{
+	    try
+	    {
+		in.close();
+	    }
+	    catch (IOException e)
+	    {
+		// nothing to do
+	    }
+	}
+    }
+
+    private HeaderModelFile()
+    {
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.RandomForest;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader;
+
+/**
+ * This class keeps the header row/column classifiers of the process.
+ * <p>
+ * Building the 100-tree random forest from "row_feature.arff" or "col_feature.arff" is much more expensive than
+ * classifying the rows or columns of a table, so each training model is built only once, on first use (or when
+ * it is preloaded by a batch entry point), and the trained classifier is shared read-only by all the documents
+ * and threads of the process.
+ * <p>
+ * Models are keyed by the canonical path of the model file. A model file is either a weka .arff training model,
+ * which is trained here, or a binary model file made by ModelTrainer (see HeaderModelFile), which is only loaded:
+ * the kind of file is recognized from its content. Each trained forest is also compiled into flat arrays
+ * (FlatRandomForest) for classification; if it can not be compiled, weka itself is used.
+ * <p>
+ * A model whose features are not the expected ones (e.g., a column model given as the row model) is rejected.
+ */
+public class HeaderModelRegistry
+{
+    public static final int NUM_TREES = 100;       //the number of trees of each random forest
+    public static final int NUM_FEATURES = 4;      //the number of features considered at each split
+
+    private static final HashMap<String, HeaderModel> models = new HashMap<String, HeaderModel>();
+
+    /**
+     * Gets the header classifier of a model file, training or loading it if this is the first request for the file
+     *
+     * @param modelPath
+     *            the full path of the training model (.arff) or binary model file
+     * @return the header model / null (if the model file does not exist)
+     * @throws Exception
+     *             if the model can not be read or the classifier can not be built
+     */
+    public static HeaderModel getModel(String modelPath) throws Exception
+    {
+	if (modelPath == null)
+	    return null;
+	File input = new File(modelPath);
+	if (!input.exists() || !input.isFile())
+	    return null;
+
+	String key = input.getCanonicalPath();
+	synchronized (models)
+	{
+	    HeaderModel model = models.get(key);
+	    if (model == null)
+	    {
+		model = HeaderModelFile.isModelFile(input) ? HeaderModelFile.read(input) : train(input);
+		models.put(key, model);
+	    }
+	    return model;
+	}
+    }
+
+    /**
+     * Gets the header classifier of a model file and checks that it classifies the expected features
+     *
+     * @param modelPath
+     *            the full path of the training model (.arff) or binary model file
+     * @param schema
+     *            the expected features: FeatureSchema.ROW or FeatureSchema.COL
+     * @return the header model / null (if the model file does not exist)
+     * @throws Exception
+     *             if the model can not be read, the classifier can not be built or the features do not match
+     */
+    public static HeaderModel getModel(String modelPath, FeatureSchema schema) throws Exception
+    {
+	HeaderModel model = getModel(modelPath);
+	if (model != null && model.getSchema() != schema)
+	    throw new IOException(modelPath + " is a " + model.getSchema().getName() + " header model, a "
+		    + schema.getName() + " header model is expected");
+	return model;
+    }
+
+    /**
+     * Builds or loads the header classifier of a model file in advance, so that the first table does not pay for it.
+     * Missing model files are accepted: the extractor falls back to the cell-based heading detection for them.
+     *
+     * @param modelPath
+     *            the full path of the training model (.arff) or binary model file
+     * @param schema
+     *            the expected features: FeatureSchema.ROW or FeatureSchema.COL
+     * @return false if the model file exists but can not be used (e.g., its features do not match), true otherwise
+     */
+    public static boolean preload(String modelPath, FeatureSchema schema)
+    {
+	try
+	{
+	    if (getModel(modelPath, schema) == null)
+		System.out.printf("[Info] training model %s not found, the cell-based heading detection will be used\n", modelPath);
+	    return true;
+	}
+	catch (Exception e)
+	{
+	    System.out.printf("[Error] fail to load the %s header classifier of %s: %s\n", schema.getName(), modelPath, e.getMessage());
+	    e.printStackTrace();
+	    return false;
+	}
+    }
+
+    /**
+     * Trains a random forest from a training model in weka .arff format
+     *
+     * @param input
+     *            the training model file
+     * @return the trained header model
+     * @throws Exception
+     *             if the training model can not be read, its attributes are not row or column features, or the
+     *             classifier can not be built
+     */
+    static HeaderModel train(File input) throws Exception
+    {
+	ArffLoader atf = new ArffLoader();
+	atf.setFile(input);
+	Instances data = atf.getDataSet();
+	data.setClassIndex(data.numAttributes() - 1);
+
+	String[] names = new String[data.numAttributes()];
+	for (int i = 0; i < names.length; i++)
+	    names[i] = data.attribute(i).name();
+	FeatureSchema schema = FeatureSchema.forAttributes(names);
+	if (data.classAttribute().numValues() != FeatureSchema.CLASS_VALUES.length)
+	    throw new IOException(input.getPath() + ": expected " + FeatureSchema.CLASS_VALUES.length + " classes, read "
+		    + data.classAttribute().numValues());
+	for (int i = 0; i < FeatureSchema.CLASS_VALUES.length; i++)
+	{
+	    if (!FeatureSchema.CLASS_VALUES[i].equals(data.classAttribute().value(i)))
+		throw new IOException(input.getPath() + ": expected class " + FeatureSchema.CLASS_VALUES[i] + ", read "
+			+ data.classAttribute().value(i));
+	}
+
+	Classifier randomForest = new RandomForest();
+	((RandomForest) randomForest).setNumTrees(NUM_TREES);
+	((RandomForest) randomForest).setNumFeatures(NUM_FEATURES);
+	randomForest.buildClassifier(data);
+
+	Instances header = new Instances(data, 0);
+	header.setClassIndex(header.numAttributes() - 1);
+
+	FlatRandomForest forest = null;
+	try
+	{
+	    forest = FlatRandomForest.compile(randomForest, data.numClasses());
+	}
+	catch (Exception e)
+	{
+	    System.out.printf("[Error] fail to compile the classifier of %s, weka will be used: %s\n", input.getPath(), e.getMessage());
+	}
+	return new HeaderModel(randomForest, header, schema, input.getPath(), forest);
+    }
+
+    /**
+     * Drops all the cached classifiers, e.g., after the training models have been changed on disk
+     */
+    public static void clear()
+    {
+	synchronized (models)
+	{
+	    models.clear();
+	}
+    }
+
+    private HeaderModelRegistry()
+    {
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.util.ArrayList;
+
+import edu.psu.seersuite.extractors.tableextractor.model.TableCandidate;
+import edu.psu.seersuite.extractors.tableextractor.model.TextPiece;
+
+/**
+ * This class scores how reliable the cell-based heading decisions of a table are, for the cascade heading detection
+ * of TableExtractor: when the score of a decision reaches the cascade threshold, the decision is kept and the random
+ * forest is not called for that table.
+ * <p>
+ * A score is between 0 and 1. The heading rows found by the cells are reliable when the data rows below them are all
+ * full, mostly numeric, and written in another font than the heading rows. The first column is reliably the only
+ * heading column when its cells are texts, the cells of the other columns are numbers, and it has few empty cells.
+ */
+public class HeadingConfidence
+{
+    /**
+     * Scores the heading rows found by the cells
+     *
+     * @param tc
+     *            the object of the table candidate, with its cell contents
+     * @param cc
+     *            the number of the table columns
+     * @param headingLineNumber
+     *            the index of the last heading row
+     * @return the score between 0 (unreliable) and 1
+     */
+    public static double ofHeadingRows(TableCandidate tc, int cc, int headingLineNumber)
+    {
+	String[][] cells = tc.getCells();
+	int footnoteLineIndex = tc.getFootnoteBeginRow();
+	int firstDataRow = headingLineNumber + 1;
+	if (firstDataRow >= footnoteLineIndex)
+	    return 0.0;
+
+	int fullRows = 0;
+	for (int i = firstDataRow; i < footnoteLineIndex; i++)
+	{
+	    int j = 0;
+	    while (j < cc && cells[i][j].length() > 0)
+		j++;
+	    if (j == cc)
+		fullRows++;
+	}
+	double uniformity = (double) fullRows / (footnoteLineIndex - firstDataRow);
+	double numericContrast = numericRatio(cells, firstDataRow, footnoteLineIndex, 0, cc)
+		- numericRatio(cells, 0, firstDataRow, 0, cc);
+	double fontContrast = fontContrast(tc, firstDataRow);
+	return 0.5 * uniformity + 0.3 * Math.max(0.0, numericContrast) + 0.2 * fontContrast;
+    }
+
+    /**
+     * Scores the first column as the only heading column of a table, once its heading rows are known
+     *
+     * @param tc
+     *            the object of the table candidate, with its cell contents and heading rows
+     * @param cc
+     *            the number of the table columns
+     * @return the score between 0 (unreliable) and 1
+     */
+    public static double ofHeadingColumn(TableCandidate tc, int cc)
+    {
+	String[][] cells = tc.getCells();
+	int footnoteLineIndex = tc.getFootnoteBeginRow();
+	int firstDataRow = tc.getHeadingLineNumber() + 1;
+	if (firstDataRow >= footnoteLineIndex || cc < 2)
+	    return 0.0;
+
+	int labels = 0;
+	for (int i = firstDataRow; i < footnoteLineIndex; i++)
+	{
+	    if (cells[i][0].length() > 0)
+		labels++;
+	}
+	if (labels == 0)
+	    return 0.0;
+	double fill = (double) labels / (footnoteLineIndex - firstDataRow);
+	double textLabels = 1.0 - numericRatio(cells, firstDataRow, footnoteLineIndex, 0, 1);
+	double numericValues = numericRatio(cells, firstDataRow, footnoteLineIndex, 1, cc);
+	return 0.4 * textLabels + 0.4 * numericValues + 0.2 * fill;
+    }
+
+    /**
+     * Judges whether a cell is a number, e.g., "12.5", "-0.3 (2)" or "45%"
+     *
+     * @param cell
+     *            the content of the cell
+     * @return a boolean value: true/false
+     */
+    public static boolean isNumeric(String cell)
+    {
+	int digits = 0;
+	int letters = 0;
+	for (int k = 0; k < cell.length(); k++)
+	{
+	    char c = cell.charAt(k);
+	    if (Character.isDigit(c))
+		digits++;
+	    else if (Character.isLetter(c))
+		letters++;
+	}
+	return digits > 0 && digits >= letters;
+    }
+
+    /**
+     * Gets the ratio of the numeric cells among the non-empty cells of a block of rows and columns
+     *
+     * @return the ratio / 0 (if all the cells are empty)
+     */
+    private static double numericRatio(String[][] cells, int fromRow, int toRow, int fromColumn, int toColumn)
+    {
+	int nonEmpty = 0;
+	int numeric = 0;
+	for (int i = fromRow; i < toRow; i++)
+	{
+	    for (int j = fromColumn; j < toColumn; j++)
+	    {
+		if (cells[i][j].length() == 0)
+		    continue;
+		nonEmpty++;
+		if (isNumeric(cells[i][j]))
+		    numeric++;
+	    }
+	}
+	return nonEmpty == 0 ? 0.0 : (double) numeric / nonEmpty;
+    }
+
+    /**
+     * Gets the ratio of the text pieces of the heading rows whose font (name, size or weight) differs from the one of
+     * the first data row
+     *
+     * @return the ratio / 0 (if there is no heading text piece)
+     */
+    private static double fontContrast(TableCandidate tc, int firstDataRow)
+    {
+	ArrayList<TextPiece> dataPieces = tc.getRows().get(firstDataRow).getCells();
+	if (dataPieces.isEmpty())
+	    return 0.0;
+	TextPiece data = dataPieces.get(0);
+	int pieces = 0;
+	int different = 0;
+	for (int i = 0; i < firstDataRow; i++)
+	{
+	    for (TextPiece piece : tc.getRows().get(i).getCells())
+	    {
+		pieces++;
+		if (piece.getFontBold() != data.getFontBold() || Math.abs(piece.getFontSize() - data.getFontSize()) > 0.5f
+			|| (piece.getFontName() != null && !piece.getFontName().equals(data.getFontName())))
+		    different++;
+	    }
+	}
+	return pieces == 0 ? 0.0 : (double) different / pieces;
+    }
+
+    private HeadingConfidence()
+    {
+    }
+}
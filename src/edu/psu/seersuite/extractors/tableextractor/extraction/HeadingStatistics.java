@@ -0,0 +1,136 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+/**
+ * This class counts, for a run of a TableExtractor, which tier decided the heading rows and the heading columns of
+ * the tables: the cell heuristics trusted by the cascade, the random forests, or the cell heuristics because there is
+ * no training model. BatchExtractor prints it at the end of a batch, to tune the cascade threshold.
+ */
+public class HeadingStatistics
+{
+    public static final int TIER_CELLS = 0;	//the cell heuristics, confident enough for the cascade
+    public static final int TIER_LEARNING = 1;	//the random forests
+    public static final int TIER_NO_MODEL = 2;	//the cell heuristics, because the training model does not exist
+
+    private static final String[] TIER_NAMES = { "cells", "learning", "nomodel" };
+
+    private int[] rows = new int[TIER_NAMES.length];	//the number of tables whose heading rows were decided by each tier
+    private int[] columns = new int[TIER_NAMES.length];	//the number of tables whose heading columns were decided by each tier
+
+    /**
+     * Counts a table whose heading rows were decided by a tier
+     * @param tier
+     *            TIER_CELLS, TIER_LEARNING or TIER_NO_MODEL
+     */
+    public void countRows(int tier)
+    {
+	rows[tier]++;
+    }
+
+    /**
+     * Counts a table whose heading columns were decided by a tier
+     * @param tier
+     *            TIER_CELLS, TIER_LEARNING or TIER_NO_MODEL
+     */
+    public void countColumns(int tier)
+    {
+	columns[tier]++;
+    }
+
+    /**
+     * Gets the number of tables whose heading rows were decided by a tier
+     * @param tier
+     *            TIER_CELLS, TIER_LEARNING or TIER_NO_MODEL
+     * @return the number of tables
+     */
+    public int getRows(int tier)
+    {
+	return rows[tier];
+    }
+
+    /**
+     * Gets the number of tables whose heading columns were decided by a tier
+     * @param tier
+     *            TIER_CELLS, TIER_LEARNING or TIER_NO_MODEL
+     * @return the number of tables
+     */
+    public int getColumns(int tier)
+    {
+	return columns[tier];
+    }
+
+    /**
+     * Adds the counts of another run, e.g., of another TableExtractor of the same batch
+     * @param other
+     *            the statistics to add
+     */
+    public void add(HeadingStatistics other)
+    {
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	{
+	    rows[tier] += other.rows[tier];
+	    columns[tier] += other.columns[tier];
+	}
+    }
+
+    /**
+     * Resets all the counts to 0
+     */
+    public void clear()
+    {
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	{
+	    rows[tier] = 0;
+	    columns[tier] = 0;
+	}
+    }
+
+    /**
+     * Formats the counts in one field, e.g., for a line of the BatchJournal
+     * @return the counts of the heading rows and then of the heading columns, per tier, separated by commas
+     */
+    public String toCounts()
+    {
+	StringBuilder sb = new StringBuilder();
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	    sb.append(rows[tier]).append(',');
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	    sb.append(columns[tier]).append(tier < TIER_NAMES.length - 1 ? "," : "");
+	return sb.toString();
+    }
+
+    /**
+     * Adds counts formatted by toCounts
+     * @param counts
+     *            the formatted counts
+     * @throws IllegalArgumentException
+     *             if the counts are not formatted by toCounts
+     */
+    public void addCounts(String counts)
+    {
+	String[] fields = counts.split(",");
+	if (fields.length != 2 * TIER_NAMES.length)
+	    throw new IllegalArgumentException("invalid heading counts " + counts);
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	{
+	    rows[tier] += Integer.parseInt(fields[tier]);
+	    columns[tier] += Integer.parseInt(fields[TIER_NAMES.length + tier]);
+	}
+    }
+
+    /**
+     * Gets the counts as "key=value" lines, in the format of the batch summary file
+     * @return the counts, one per line
+     */
+    public String toString()
+    {
+	StringBuilder sb = new StringBuilder();
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	    sb.append("headingrows_").append(TIER_NAMES[tier]).append('=').append(rows[tier]).append('\n');
+	for (int tier = 0; tier < TIER_NAMES.length; tier++)
+	    sb.append("headingcolumns_").append(TIER_NAMES[tier]).append('=').append(columns[tier]).append('\n');
+	return sb.toString();
+    }
+}
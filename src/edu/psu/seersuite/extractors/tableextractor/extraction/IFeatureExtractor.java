@@ -0,0 +1,29 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+
+/**
+ * Interface of the header row/column feature extractors, extracting the feature vectors of a table one at a time,
+ * from the top row (or the leftmost column) down, so that the classification can stop at the first data row (or column)
+ * without featurizing the rest of the table. An extractor is used for one table only.
+ */
+public interface IFeatureExtractor
+{
+    /**
+     * Extracts the features of the next row (or column) of a table, and appends them to a buffer
+     * 
+     * @param tc
+     *            the candidate table to be extracted, the same at every call
+     * @param buffer
+     *            the buffer receiving the feature vector
+     * @return true if a vector is appended, false if all the rows (or columns) are already extracted
+     * @throws IOException
+     *             if a feature value is not a number once truncated (no vector is then appended)
+     */
+    public boolean extractNextFeatures(TableCandidate tc, FeatureBuffer buffer) throws IOException;
+}
@@ -0,0 +1,45 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+
+/**
+ * Interface of the receivers of the pages of a PDF document, as a PDF parser extracts them one at a time. A handler
+ * can skip a document once it is loaded (see DocumentTriage), or stop the parsing, e.g., once it has seen enough pages
+ * of a document it will not process.
+ *
+ * @see IPdfParser#getTextPiecesByPage(java.io.File, IPageHandler)
+ */
+public interface IPageHandler
+{
+    /**
+     * Receives what the parser knows about the document once it is loaded, before the text of any page is stripped
+     *
+     * @param triage
+     *            the page number, encryption and text layer of the document
+     * @return true to parse the pages, false to skip the document
+     */
+    public boolean handleDocument(DocumentTriage triage);
+
+    /**
+     * Receives the glyphs of the next page of the document
+     *
+     * @param pageNo
+     *            the number of the page in the PDF document, from 1
+     * @param glyphsOfAPage
+     *            the glyphs of the page, now owned by the handler
+     * @return true to go on parsing, false to stop after this page
+     */
+    public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage);
+
+    /**
+     * Judges whether the parsing must be abandoned. The parser checks it regularly while it strips the text of a
+     * page, so that a page which takes too long is not finished.
+     *
+     * @return a boolean value: true (the parser stops at once, as if the document could not be parsed)/false
+     * @see DocumentBudget
+     */
+    public boolean isCancelled();
+}
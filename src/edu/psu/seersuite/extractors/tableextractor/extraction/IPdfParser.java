@@ -1,28 +1,48 @@
-/**
- * This package defines the core table extraction classes
- */
-package edu.psu.seersuite.extractors.tableextractor.extraction;
-
-import java.util.ArrayList;
-import java.io.File;
-
-import edu.psu.seersuite.extractors.tableextractor.model.*;
-
-/**
- * Interface of PDF Parser
- * 
- * @author Shuyi, Ying
- * 
- */
-public interface IPdfParser
-{
-
-    /**
-     * Gets text pieces from a PDF document. The input is a PDF file and the output is an ArrayList.
-     * 
-     * @param pdfFile
-     *            input PDF file
-     * @return lists of text pieces (one list per page)
-     */
-    public ArrayList<ArrayList<TextPiece>> getTextPiecesByPage(File pdfFile);
-}
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.util.ArrayList;
+import java.io.File;
+
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+
+/**
+ * Interface of PDF Parser
+ * 
+ * @author Shuyi, Ying
+ * 
+ */
+public interface IPdfParser
+{
+
+    /**
+     * Gets text pieces from a PDF document. The input is a PDF file and the output is an ArrayList.
+     * 
+     * @param pdfFile
+     *            input PDF file
+     * @return lists of text pieces (one list per page)
+     */
+    public ArrayList<ArrayList<TextPiece>> getTextPiecesByPage(File pdfFile);
+
+    /**
+     * Gets the glyphs of a PDF document page by page: each page is handed to the handler as soon as it is extracted,
+     * and is not kept by the parser. Pages without contents are skipped.
+     * 
+     * @param pdfFile
+     *            input PDF file
+     * @param handler
+     *            the receiver of the pages, which may stop the parsing
+     * @return the number of pages handed to the handler / -1 (if the document can not be parsed)
+     */
+    public int getTextPiecesByPage(File pdfFile, IPageHandler handler);
+
+    /**
+     * Gets the version of the output of the parser, which must change whenever the parser extracts different glyphs
+     * from the same document (e.g., another library version, or word runs instead of single glyphs)
+     * 
+     * @return the version, e.g., to key the parsed documents in a cache
+     */
+    public String getVersion();
+}
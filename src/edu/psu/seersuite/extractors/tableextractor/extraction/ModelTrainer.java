@@ -0,0 +1,106 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+
+/**
+ * This class trains the header row/column classifiers offline and saves them as binary model files.
+ * <p>
+ * Usage: ModelTrainer [training-model model-file] ... <p>
+ *         [training-model]: a weka .arff training model, e.g., row_feature.arff or col_feature.arff. <p>
+ *         [model-file]: the binary model file to write. <p>
+ * Without arguments, row_feature.arff and col_feature.arff of the current directory are trained into
+ * row_feature.model and col_feature.model.
+ * <p>
+ * The model files can be given to BatchExtractor in place of the training models: they are loaded in milliseconds
+ * instead of training the random forests at every start. Each model file records its feature schema (row or column),
+ * and the extractors reject a model file whose features are not the expected ones.
+ *
+ * @see HeaderModelFile
+ */
+public class ModelTrainer
+{
+    /**
+     * Main entry
+     *
+     * @param args
+     *            command line parameters: pairs of training model and model file paths
+     */
+    public static void main(String[] args)
+    {
+	if (args.length == 0)
+	    args = new String[] { "row_feature.arff", "row_feature.model", "col_feature.arff", "col_feature.model" };
+	if (args.length % 2 != 0)
+	{
+	    showUsage();
+	    System.exit(-1);
+	}
+
+	boolean failed = false;
+	for (int i = 0; i < args.length; i += 2)
+	{
+	    if (!train(args[i], args[i + 1]))
+		failed = true;
+	}
+	System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Trains one training model into a model file
+     *
+     * @param trainingPath
+     *            the path of the .arff training model
+     * @param modelPath
+     *            the path of the model file to write
+     * @return true if the model file was written and read back successfully
+     */
+    public static boolean train(String trainingPath, String modelPath)
+    {
+	File input = new File(trainingPath);
+	if (!input.exists() || !input.isFile())
+	{
+	    System.out.printf("[Error] %s does not exist\n", trainingPath);
+	    return false;
+	}
+	try
+	{
+	    long start = System.currentTimeMillis();
+	    HeaderModel model = HeaderModelRegistry.train(input);
+	    FlatRandomForest forest = model.getCompiledForest();
+	    if (forest == null)
+	    {
+		System.out.printf("[Error] the classifier of %s could not be compiled\n", trainingPath);
+		return false;
+	    }
+	    long trained = System.currentTimeMillis();
+
+	    File output = new File(modelPath);
+	    HeaderModelFile.write(output, forest, model.getSchema(), input.getName());
+	    HeaderModel loaded = HeaderModelFile.read(output);
+	    long loadTime = System.currentTimeMillis() - trained;
+	    if (loaded.getSchema() != model.getSchema() || loaded.getCompiledForest().getNumNodes() != forest.getNumNodes())
+	    {
+		System.out.printf("[Error] %s does not read back as written\n", modelPath);
+		return false;
+	    }
+	    System.out.printf("[Info] %s: %s features, %d trees, %d nodes, trained in %d ms, written to %s (%d bytes, read back in %d ms)\n",
+		    trainingPath, model.getSchema().getName(), forest.getNumTrees(), forest.getNumNodes(), trained - start,
+		    modelPath, output.length(), loadTime);
+	    return true;
+	}
+	catch (Exception e)
+	{
+	    System.out.printf("[Error] fail to train %s\n", trainingPath);
+	    e.printStackTrace();
+	    return false;
+	}
+    }
+
+    private static void showUsage()
+    {
+	System.out.println("ModelTrainer <training-model> <model-file> [<training-model> <model-file> ...]");
+	System.out.println("ModelTrainer    (row_feature.arff -> row_feature.model, col_feature.arff -> col_feature.model)");
+    }
+}
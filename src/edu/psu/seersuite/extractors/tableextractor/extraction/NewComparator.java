@@ -1,18 +1,18 @@
-package edu.psu.seersuite.extractors.tableextractor.extraction;
- 
-import java.util.Comparator;
-import java.util.ArrayList;
-
-import edu.psu.seersuite.extractors.tableextractor.*;
-import edu.psu.seersuite.extractors.tableextractor.model.*;
- 
-public class NewComparator implements Comparator<TextPiece>{
- 
-	@Override
-    public int compare(TextPiece tp1, TextPiece tp2) {
-		if (tp1.getX() > tp2.getX())
-			return 1;
-		else 
-			return -1;
-    }
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+ 
+import java.util.Comparator;
+import java.util.ArrayList;
+
+import edu.psu.seersuite.extractors.tableextractor.*;
+import edu.psu.seersuite.extractors.tableextractor.model.*;
+ 
+public class NewComparator implements Comparator<TextPiece>{
+ 
+	@Override
+    public int compare(TextPiece tp1, TextPiece tp2) {
+		if (tp1.getX() > tp2.getX())
+			return 1;
+		else 
+			return -1;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,435 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import edu.psu.seersuite.extractors.tableextractor.model.GlyphPage;
+
+/**
+ * This class keeps the output of a PDF parser on disk, one file per document, so that a corpus processed again (e.g.,
+ * to retune the caption or column heuristics) is read back instead of being parsed by PDFBox again. It is used
+ * through CachingPdfParser.
+ * <p>
+ * A document is keyed by the SHA-1 of the parser version and of the bytes of the PDF file, so that a modified PDF, a
+ * new version of the parser or another glyph granularity never reads the entry of another one. An entry file holds,
+ * as length-prefixed binary values: the magic number, the format version, the parser version, whether the pages were
+ * parsed or the document was skipped after its triage, the triage, the numbers and glyphs of the pages (see
+ * GlyphPage.write), and the magic number again. It is read back through a memory-mapped buffer. An entry which can
+ * not be read is deleted and counted as a miss.
+ * <p>
+ * The entries not used for maxAge are deleted, and the least recently used ones are deleted as long as the cache is
+ * larger than maxSize, down to 90% of it. The cache is evicted when it is opened and whenever an entry makes it too
+ * large. The threads of a process can share a cache.
+ * <p>
+ * The SHA-1 of the bytes of a PDF file is computed with its key, and kept until it is taken by takeFileHash, so that
+ * the journal of a batch does not read the file again.
+ */
+public class ParsedTextCache
+{
+    public static final int MAGIC = 0x54535054;      //"TSPT"
+    public static final int VERSION = 1;
+    public static final String SUFFIX = ".tpt";
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;	//1 GB
+    public static final long DEFAULT_MAX_AGE = 30L * 24 * 3600 * 1000;	//30 days
+
+    private static final byte TRIAGE_ONLY = 0;	//the document was skipped after its triage
+    private static final byte PARSED = 1;		//the pages of the document were parsed
+    private static final long TEMP_FILE_AGE = 3600 * 1000;	//the age from which a temporary file is left over by a stopped writer
+
+    private File dir;
+    private long maxSize;	//the largest size of the cache, in bytes / 0 (no limit)
+    private long maxAge;	//the longest time an entry is kept without being used, in milliseconds / 0 (no limit)
+    private long size = 0;	//the size of the entries, in bytes
+    private int hitNum = 0;
+    private int missNum = 0;
+    private HashMap<String, String> fileHashes = new HashMap<String, String>();	//by the path of the PDF file
+
+    /**
+     * A parsed document read from the cache
+     */
+    static class Entry
+    {
+	DocumentTriage triage;
+	boolean parsed;		//false if the document was skipped after its triage
+	int[] pageNos;
+	GlyphPage[] pages;
+    }
+
+    /**
+     * Constructor: opens (or creates) the cache directory and evicts the entries which are too old or too many
+     * @param dir
+     *            the cache directory
+     * @param maxSize
+     *            the largest size of the cache, in bytes / 0 (no limit)
+     * @param maxAge
+     *            the longest time an entry is kept without being used, in milliseconds / 0 (no limit)
+     * @throws IOException
+     *             if the directory can not be created
+     */
+    public ParsedTextCache(File dir, long maxSize, long maxAge) throws IOException
+    {
+	if (!dir.isDirectory() && !dir.mkdirs())
+	    throw new IOException("cannot create the cache directory " + dir.getPath());
+	this.dir = dir;
+	this.maxSize = maxSize;
+	this.maxAge = maxAge;
+	evict();
+    }
+
+    /**
+     * Computes the key of a document, and keeps the SHA-1 of its file for takeFileHash
+     * @param pdfFile
+     *            the PDF file
+     * @param parserVersion
+     *            the version of the parser output, see IPdfParser.getVersion
+     * @return the SHA-1 of the parser version and the file, in hexadecimal
+     * @throws IOException
+     *             if the file can not be read
+     */
+    public String computeKey(File pdfFile, String parserVersion) throws IOException
+    {
+	MessageDigest digest;
+	MessageDigest fileDigest;	//of the bytes of the file only
+	try
+	{
+	    digest = MessageDigest.getInstance("SHA-1");
+	    fileDigest = MessageDigest.getInstance("SHA-1");
+	}
+	catch (NoSuchAlgorithmException e)
+	{
+	    throw new IOException("SHA-1 is not available");
+	}
+	digest.update(parserVersion.getBytes("UTF-8"));
+	digest.update((byte) 0);
+	byte[] buffer = new byte[64 * 1024];
+	InputStream in = new FileInputStream(pdfFile);
+	try
+	{
+	    int n;
+	    while ((n = in.read(buffer)) > 0)
+	    {
+		digest.update(buffer, 0, n);
+		fileDigest.update(buffer, 0, n);
+	    }
+	}
+	finally
+	{
+	    in.close();
+	}
+
+	synchronized (this)
+	{
+	    fileHashes.put(pdfFile.getPath(), toHex(fileDigest.digest()));
+	}
+	return toHex(digest.digest());
+    }
+
+    /**
+     * Takes the SHA-1 of a PDF file, computed with its key
+     * @param pdfFile
+     *            the PDF file
+     * @return the SHA-1 of its bytes, in hexadecimal (as BatchJournal.computeHash) / null (if its key was not
+     *         computed since it was last taken)
+     */
+    public synchronized String takeFileHash(File pdfFile)
+    {
+	return fileHashes.remove(pdfFile.getPath());
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+	StringBuilder hex = new StringBuilder();
+	for (byte b : bytes)
+	    hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+	return hex.toString();
+    }
+
+    /**
+     * Reads a document from the cache
+     * @param key
+     *            the key of the document
+     * @param parserVersion
+     *            the version of the parser output
+     * @return the parsed document / null (if it is not in the cache)
+     */
+    Entry read(String key, String parserVersion)
+    {
+	File file = getFile(key);
+	if (!file.isFile())
+	{
+	    countMiss();
+	    return null;
+	}
+	try
+	{
+	    RandomAccessFile raf = new RandomAccessFile(file, "r");
+	    Entry entry;
+	    try
+	    {
+		FileChannel channel = raf.getChannel();
+		entry = readEntry(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), parserVersion);
+	    }
+	    finally
+	    {
+		raf.close();
+	    }
+	    file.setLastModified(System.currentTimeMillis());	//the age of an entry is the time since it was last used
+	    synchronized (this)
+	    {
+		hitNum++;
+	    }
+	    return entry;
+	}
+	catch (IOException e)
+	{
+	    System.out.printf("[Error] invalid cache entry %s: %s\n", file.getName(), e.getMessage());
+	    remove(file);
+	    countMiss();
+	    return null;
+	}
+    }
+
+    private Entry readEntry(ByteBuffer in, String parserVersion) throws IOException
+    {
+	try
+	{
+	    if (in.getInt() != MAGIC)
+		throw new IOException("not a cache entry");
+	    int version = in.getInt();
+	    if (version != VERSION)
+		throw new IOException("unsupported cache entry version " + version + ", expected " + VERSION);
+	    int length = in.getInt();
+	    if (length != parserVersion.length())
+		throw new IOException("entry of another parser");
+	    for (int i = 0; i < length; i++)
+		if (in.getChar() != parserVersion.charAt(i))
+		    throw new IOException("entry of another parser");
+
+	    Entry entry = new Entry();
+	    byte kind = in.get();
+	    if (kind != TRIAGE_ONLY && kind != PARSED)
+		throw new IOException("invalid entry kind " + kind);
+	    entry.parsed = kind == PARSED;
+	    entry.triage = new DocumentTriage();
+	    entry.triage.setPageNum(in.getInt());
+	    entry.triage.setEncrypted(in.get() != 0);
+	    int sampledPageNum = in.getInt();
+	    int textPageNum = in.getInt();
+	    if (sampledPageNum < 0 || textPageNum < 0 || textPageNum > sampledPageNum
+		    || sampledPageNum > DocumentTriage.SAMPLED_PAGE_NUM)
+		throw new IOException("invalid triage");
+	    for (int i = 0; i < sampledPageNum; i++)
+		entry.triage.addSampledPage(i < textPageNum);
+
+	    int pageNum = in.getInt();
+	    if (pageNum < 0 || (!entry.parsed && pageNum > 0) || pageNum > in.remaining() / 8)
+		throw new IOException("invalid page number " + pageNum);
+	    entry.pageNos = new int[pageNum];
+	    entry.pages = new GlyphPage[pageNum];
+	    for (int i = 0; i < pageNum; i++)
+	    {
+		entry.pageNos[i] = in.getInt();
+		entry.pages[i] = GlyphPage.read(in);
+	    }
+	    if (in.getInt() != MAGIC || in.hasRemaining())
+		throw new IOException("unexpected data after the pages");
+	    return entry;
+	}
+	catch (RuntimeException e)	//e.g., BufferUnderflowException of a truncated entry
+	{
+	    throw new IOException("truncated cache entry");
+	}
+    }
+
+    /**
+     * Writes a document to the cache, replacing its entry if there is one
+     * @param key
+     *            the key of the document
+     * @param parserVersion
+     *            the version of the parser output
+     * @param triage
+     *            the triage of the document
+     * @param parsed
+     *            whether the pages were parsed (or the document was skipped after its triage)
+     * @param pageNos
+     *            the numbers of the parsed pages
+     * @param pages
+     *            the glyphs of the parsed pages
+     * @throws IOException
+     *             if the entry can not be written
+     */
+    void write(String key, String parserVersion, DocumentTriage triage, boolean parsed, ArrayList<Integer> pageNos,
+	    ArrayList<GlyphPage> pages) throws IOException
+    {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream out = new DataOutputStream(bytes);
+	out.writeInt(MAGIC);
+	out.writeInt(VERSION);
+	out.writeInt(parserVersion.length());
+	out.writeChars(parserVersion);
+	out.writeByte(parsed ? PARSED : TRIAGE_ONLY);
+	out.writeInt(triage.getPageNum());
+	out.writeBoolean(triage.isEncrypted());
+	out.writeInt(triage.getSampledPageNum());
+	out.writeInt(triage.getTextPageNum());
+	out.writeInt(pages.size());
+	for (int i = 0; i < pages.size(); i++)
+	{
+	    out.writeInt(pageNos.get(i));
+	    pages.get(i).write(out);
+	}
+	out.writeInt(MAGIC);
+	out.flush();
+
+	// write to a temporary file first, so that no reader sees half an entry
+	File file = getFile(key);
+	File subDir = file.getParentFile();
+	if (!subDir.isDirectory() && !subDir.mkdirs())
+	    throw new IOException("cannot create " + subDir.getPath());
+	File temp = File.createTempFile(key, ".tmp", subDir);
+	FileOutputStream fos = new FileOutputStream(temp);
+	try
+	{
+	    bytes.writeTo(fos);
+	}
+	finally
+	{
+	    fos.close();
+	}
+
+	synchronized (this)
+	{
+	    long oldSize = file.length();
+	    if (file.exists() && !file.delete())
+	    {
+		temp.delete();
+		throw new IOException("cannot replace " + file.getPath());
+	    }
+	    if (!temp.renameTo(file))
+	    {
+		temp.delete();
+		size -= oldSize;
+		throw new IOException("cannot rename " + temp.getPath() + " to " + file.getPath());
+	    }
+	    size += bytes.size() - oldSize;
+	    if (maxSize > 0 && size > maxSize)
+		evict();
+	}
+    }
+
+    /**
+     * Deletes the entries not used for maxAge, then the least recently used entries while the cache is larger than
+     * maxSize, down to 90% of it
+     */
+    public synchronized void evict()
+    {
+	ArrayList<File> files = new ArrayList<File>();
+	long now = System.currentTimeMillis();
+	size = 0;
+	File[] subDirs = dir.listFiles();
+	for (File subDir : (subDirs == null) ? new File[0] : subDirs)
+	{
+	    File[] subDirFiles = subDir.listFiles();
+	    for (File file : (subDirFiles == null) ? new File[0] : subDirFiles)
+	    {
+		long age = now - file.lastModified();
+		if (file.getName().endsWith(".tmp") && age > TEMP_FILE_AGE)
+		    file.delete();
+		else if (!file.getName().endsWith(SUFFIX))
+		    continue;
+		else if (maxAge > 0 && age > maxAge)
+		    file.delete();
+		else
+		{
+		    files.add(file);
+		    size += file.length();
+		}
+	    }
+	}
+	if (maxSize <= 0 || size <= maxSize)
+	    return;
+
+	File[] lruFiles = files.toArray(new File[files.size()]);
+	final long[] lastModified = new long[lruFiles.length];
+	for (int i = 0; i < lruFiles.length; i++)
+	    lastModified[i] = lruFiles[i].lastModified();	//read once, so that the order does not change while sorting
+	Integer[] order = new Integer[lruFiles.length];
+	for (int i = 0; i < order.length; i++)
+	    order[i] = i;
+	Arrays.sort(order, new Comparator<Integer>()
+	{
+	    public int compare(Integer a, Integer b)
+	    {
+		return lastModified[a] < lastModified[b] ? -1 : (lastModified[a] > lastModified[b] ? 1 : 0);
+	    }
+	});
+	for (int i = 0; i < order.length && size > maxSize / 10 * 9; i++)
+	{
+	    File file = lruFiles[order[i]];
+	    long length = file.length();
+	    if (file.delete())
+		size -= length;
+	}
+    }
+
+    /**
+     * Gets the size of the entries
+     * @return the size in bytes
+     */
+    public synchronized long getSize()
+    {
+	return size;
+    }
+
+    /**
+     * Gets the number of documents read from the cache
+     * @return the number of hits
+     */
+    public synchronized int getHitNum()
+    {
+	return hitNum;
+    }
+
+    /**
+     * Gets the number of documents not found in the cache
+     * @return the number of misses
+     */
+    public synchronized int getMissNum()
+    {
+	return missNum;
+    }
+
+    private File getFile(String key)
+    {
+	return new File(new File(dir, key.substring(0, 2)), key + SUFFIX);
+    }
+
+    private synchronized void countMiss()
+    {
+	missNum++;
+    }
+
+    private synchronized void remove(File file)
+    {
+	long length = file.length();
+	if (file.delete())
+	    size -= length;
+    }
+}
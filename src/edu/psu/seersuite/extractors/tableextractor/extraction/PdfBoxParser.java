@@ -1,179 +1,473 @@
-/**
- * This package defines the core table extraction classes
- */
-
-package edu.psu.seersuite.extractors.tableextractor.extraction;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-
-import org.pdfbox.cos.COSStream;
-import org.pdfbox.pdmodel.PDDocument;
-import org.pdfbox.pdmodel.PDPage;
-import org.pdfbox.pdmodel.common.PDStream;
-import org.pdfbox.util.PDFTextStripper;
-import org.pdfbox.util.TextPosition;
-
-import edu.psu.seersuite.extractors.tableextractor.model.TextPiece;
-
-/**
- * This class is designed for a specific PDF Parser with PDFBox library
- * 
- * @author Ying, Shuyi
- * 
- */
-public class PdfBoxParser extends PDFTextStripper implements IPdfParser
-{
-    private ArrayList<ArrayList<TextPiece>> m_wordsByPage;
-    private int m_currentPageNo = 0;
-
-    /**
-     * Constructor
-     * 
-     * @throws IOException
-     */
-    public PdfBoxParser() throws IOException
-    {
-	super();
-    }
-
-    /**
-     * Get text pieces from a PDF document
-     * 
-     * @param pdfFile
-     *            input PDF file
-     * @return lists of text pieces (one list per page)
-     * @throws IOException
-     */
-    @SuppressWarnings("unchecked")
-    public ArrayList<ArrayList<TextPiece>> getTextPiecesByPage(File pdfFile)
-    {
-	m_wordsByPage = new ArrayList<ArrayList<TextPiece>>();
-
-	PDDocument document = null;
-	try
-	{
-	    document = PDDocument.load(pdfFile);
-
-	    resetEngine();
-	    m_currentPageNo = 0;
-
-	    // No support for encrypted file in the current version
-	    if (document.isEncrypted())
-	    {
-		// TODO: log
-	    }
-	    else
-	    {
-		ArrayList<PDPage> pages = (ArrayList<PDPage>) document.getDocumentCatalog().getAllPages();
-
-		for (PDPage page : pages)
-		{
-		    m_currentPageNo++;
-		    PDStream contentStream = page.getContents();
-		    if (contentStream != null)
-		    {
-			COSStream contents = contentStream.getStream();
-			processPage(page, contents);
-		    }
-		}
-
-	    }
-	}
-	catch (Exception e)
-	{
-	    System.out.printf("[Error] Fail to extract words\n");
-	    m_wordsByPage = null;
-	}
-	catch (OutOfMemoryError e)
-	{
-	    System.out.printf("[Error] Out Of Memory\n");
-	    m_wordsByPage = null;
-	}
-	finally
-	{
-	    if (document != null)
-	    {
-		try
-		{
-		    document.close();
-		}
-		catch (IOException e)
-		{
-		    // ignore
-		}
-	    }
-	}
-
-	return m_wordsByPage;
-    }
-
-    
-    /**
-     * this overrides PDFTextStripper's flushText method: instead of writing to
-     * output stream, we save the information in our own data structure
-     * 
-     * 
-     * @throws IOException
-     *             If there is an error processing the page.
-     */
-    @SuppressWarnings("unchecked")
-    protected void flushText() throws IOException
-    {
-	ArrayList<TextPiece> wordsOfThisPage = new ArrayList<TextPiece>();
-
-	for (int i = 0; i < charactersByArticle.size(); i++)
-	{
-	    ArrayList<TextPosition> textList = (ArrayList<TextPosition>) charactersByArticle.get(i);
-	    for(TextPosition t : textList)
-	    {
-	    
-		// copy information
-
-		TextPiece w = new TextPiece();
-		w.setX(t.getX());
-		w.setY(t.getY());
-		
-		/*
-		 * 100: a simple step to fix the font size to the normal range, for those documents in unknown codes that PDFBox can not process now
-		 */
-		if(t.getFontSize()<0.3 && t.getYScale()<=1.0) { 	
-			w.setFontSize(t.getFontSize()*100);
-			w.setHeight(Math.max(t.getYScale(), t.getFontSize())*100);
-			w.setXScale(t.getXScale());
-			w.setYScale(t.getYScale());
-		}
-		else {
-			if (t.getYScale()<0.3 && t.getFontSize()<=1.0) {
-				w.setYScale(t.getYScale()*100);
-				w.setXScale(t.getXScale()*100);
-				w.setHeight(Math.max(t.getYScale()*100, t.getFontSize()));
-			}
-			else {
-				w.setFontSize(t.getFontSize());
-				w.setHeight(Math.max(t.getYScale(), t.getFontSize()));
-				w.setXScale(t.getXScale());
-				w.setYScale(t.getYScale());
-			}
-		}
-		
-		// Width might be negative according to the PDF text extractors
-		w.setWidth(Math.abs(t.getWidth()));
-		w.setEndX(w.getX() + w.getWidth());
-		
-		//w.setHeight(Math.max(t.getYScale(), t.getFontSize()));
-		w.setEndY(w.getY() + w.getHeight());
-		
-		w.setWidthOfSpace(t.getWidthOfSpace());
-		w.setWordSpacing(t.getWordSpacing());
-		
-		w.setText(t.getCharacter());
-		wordsOfThisPage.add(w);
-	    }
-	}
-
-	m_wordsByPage.add(wordsOfThisPage);
-    }
-
-}
+/**
+ * This package defines the core table extraction classes
+ */
+
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.pdfbox.cos.COSBase;
+import org.pdfbox.cos.COSDictionary;
+import org.pdfbox.cos.COSName;
+import org.pdfbox.cos.COSStream;
+import org.pdfbox.pdmodel.PDDocument;
+import org.pdfbox.pdmodel.PDPage;
+import org.pdfbox.pdmodel.PDResources;
+import org.pdfbox.pdmodel.common.PDStream;
+import org.pdfbox.util.PDFOperator;
+import org.pdfbox.util.PDFTextStripper;
+import org.pdfbox.util.TextPosition;
+
+import edu.psu.seersuite.extractors.tableextractor.model.GlyphPage;
+import edu.psu.seersuite.extractors.tableextractor.model.TextPiece;
+
+/**
+ * This class is designed for a specific PDF Parser with PDFBox library.
+ * <p>
+ * A parser parses one document at a time: it must not be shared by threads. PdfParserPool keeps the idle parsers
+ * of the process for reuse.
+ * <p>
+ * The parser asks the page handler whether the parsing is cancelled every CANCEL_CHECK_OPERATORS operators of the
+ * content streams, and before each page. Loading the document can not be interrupted: PDFBox parses the whole file
+ * at once. An OutOfMemoryError is not caught: the JVM may be in a bad state after it, and the document budgets
+ * (see DocumentBudget) are there to abandon the documents which allocate too much before it happens.
+ * 
+ * @author Ying, Shuyi
+ * 
+ */
+public class PdfBoxParser extends PDFTextStripper implements IPdfParser
+{
+    public static final String VERSION = "pdfbox-0.7.3/1";	//to be increased whenever flushText hands out different glyphs
+
+    /*
+     * The rules for grouping glyphs into word runs, the ones with which TableExtractor combines words into lines: a
+     * glyph joins the run of the previous glyph if it is on the same baseline, to its right, and closer to it than
+     * MAX_RUN_GAP. The line combination also joins glyphs closer than 1.5 average character widths, but this width is
+     * only known once the whole document is parsed, so the runs never join glyphs that the lines would not join.
+     */
+    private static final float MAX_RUN_GAP = 5.0f;	//the largest gap between two glyphs of a run
+    private static final float SPACE_GAP = 1.5f;	//the gap from which a space is put between two glyphs of a run, as in the lines
+    private static final int CANCEL_CHECK_OPERATORS = 256;	//the number of content stream operators between two cancellation checks
+
+    private boolean m_wordRuns = false;	//whether the glyphs of a page are grouped into word runs
+    private IPageHandler m_handler;	//the receiver of the pages of the document being parsed
+    private boolean m_stopped;		//whether the handler asked to stop the parsing
+    private int m_pageCount;		//the number of pages handed to the handler
+    private int m_operatorCount;	//the number of content stream operators since the last cancellation check
+    private int m_currentPageNo = 0;
+
+    /**
+     * Constructor
+     * 
+     * @throws IOException
+     */
+    public PdfBoxParser() throws IOException
+    {
+	super();
+    }
+
+    /**
+     * Judges whether the parser groups the glyphs of a page into word runs
+     * @return a boolean value: true/false (one glyph per text position of PDFBox)
+     */
+    public boolean isWordRuns()
+    {
+	return m_wordRuns;
+    }
+
+    /**
+     * Sets whether the parser groups the glyphs of a page into word runs while it strips the text of the page: the
+     * glyphs of one font scale which TableExtractor would combine into the same line anyway are handed out as one
+     * glyph, with the text of all of them. The pages then have several times fewer glyphs, and the lines are combined
+     * from fewer and longer texts. The document parameters (e.g., the average gap in lines) and the table detection
+     * work on the runs as on any other glyphs, so the extracted tables may differ slightly from the ones extracted
+     * from single glyphs.
+     * @param wordRuns
+     *            true/false (one glyph per text position of PDFBox, by default)
+     */
+    public void setWordRuns(boolean wordRuns)
+    {
+	m_wordRuns = wordRuns;
+    }
+
+    /**
+     * Gets the version of the output of the parser: the library and VERSION, and whether the glyphs are grouped
+     * into word runs
+     */
+    public String getVersion()
+    {
+	return VERSION + (m_wordRuns ? "/words" : "/glyphs");
+    }
+
+    /**
+     * Drops the state of the last parsed document, e.g., its last page, so that the parser can be kept idle in a pool
+     * without holding memory. The parser is set back to single glyphs.
+     */
+    public void reset()
+    {
+	m_wordRuns = false;
+	m_handler = null;
+	m_stopped = false;
+	m_pageCount = 0;
+	m_operatorCount = 0;
+	m_currentPageNo = 0;
+	if (charactersByArticle != null)
+	    charactersByArticle.clear();
+    }
+
+    /**
+     * Get text pieces from a PDF document
+     * 
+     * @param pdfFile
+     *            input PDF file
+     * @return lists of text pieces (one list per page) / null (if the document can not be parsed)
+     */
+    public ArrayList<ArrayList<TextPiece>> getTextPiecesByPage(File pdfFile)
+    {
+	final ArrayList<ArrayList<TextPiece>> wordsByPage = new ArrayList<ArrayList<TextPiece>>();
+	int pageCount = getTextPiecesByPage(pdfFile, new IPageHandler()
+	{
+	    public boolean handleDocument(DocumentTriage triage)
+	    {
+		return true;
+	    }
+
+	    public boolean handlePage(int pageNo, GlyphPage glyphsOfAPage)
+	    {
+		wordsByPage.add(glyphsOfAPage.toTextPieces());
+		return true;
+	    }
+
+	    public boolean isCancelled()
+	    {
+		return false;
+	    }
+	});
+	return pageCount < 0 ? null : wordsByPage;
+    }
+
+    /**
+     * Get text pieces from a PDF document, handing each page to a handler as soon as it is extracted
+     * 
+     * @param pdfFile
+     *            input PDF file
+     * @param handler
+     *            the receiver of the pages
+     * @return the number of pages handed to the handler / -1 (if the document can not be parsed)
+     */
+    @SuppressWarnings("unchecked")
+    public int getTextPiecesByPage(File pdfFile, IPageHandler handler)
+    {
+	m_handler = handler;
+	m_stopped = false;
+	m_pageCount = 0;
+	m_operatorCount = 0;
+
+	PDDocument document = null;
+	try
+	{
+	    document = PDDocument.load(pdfFile);
+
+	    resetEngine();
+	    m_currentPageNo = 0;
+
+	    ArrayList<PDPage> pages = (ArrayList<PDPage>) document.getDocumentCatalog().getAllPages();
+	    if (!handler.handleDocument(triage(document, pages)))
+	    {
+		// skipped by the handler
+	    }
+	    // No support for encrypted file in the current version
+	    else if (document.isEncrypted())
+	    {
+		// TODO: log
+	    }
+	    else
+	    {
+		for (PDPage page : pages)
+		{
+		    if (m_stopped || handler.isCancelled())
+			break;
+		    m_currentPageNo++;
+		    PDStream contentStream = page.getContents();
+		    if (contentStream != null)
+		    {
+			COSStream contents = contentStream.getStream();
+			processPage(page, contents);
+		    }
+		}
+
+	    }
+	}
+	catch (DocumentCancelledException e)
+	{
+	    m_pageCount = -1;	//the handler knows why
+	}
+	catch (Exception e)
+	{
+	    System.out.printf("[Error] Fail to extract words\n");
+	    m_pageCount = -1;
+	}
+	finally
+	{
+	    m_handler = null;
+	    if (document != null)
+	    {
+		try
+		{
+		    document.close();
+		}
+		catch (IOException e)
+		{
+		    // ignore
+		}
+	    }
+	}
+
+	return m_pageCount;
+    }
+
+    /**
+     * Gets what is known about a loaded document without stripping its text
+     * 
+     * @param document
+     *            the loaded PDF document
+     * @param pages
+     *            the pages of the document
+     * @return the triage information of the document
+     */
+    private DocumentTriage triage(PDDocument document, ArrayList<PDPage> pages)
+    {
+	DocumentTriage triage = new DocumentTriage();
+	triage.setPageNum(pages.size());
+	triage.setEncrypted(document.isEncrypted());
+	if (triage.isEncrypted() || pages.isEmpty())
+	    return triage;
+
+	int sampledPageNum = Math.min(DocumentTriage.SAMPLED_PAGE_NUM, pages.size());
+	for (int i = 0; i < sampledPageNum; i++)
+	{
+	    int pageIndex = (sampledPageNum == 1) ? 0 : i * (pages.size() - 1) / (sampledPageNum - 1);
+	    triage.addSampledPage(hasTextLayer(pages.get(pageIndex)));
+	}
+	return triage;
+    }
+
+    /**
+     * Judges whether a page may have text, from its resources only: it has text if it uses fonts, or forms, which
+     * can use their own fonts
+     * 
+     * @param page
+     *            a page of the document
+     * @return a boolean value: true/false
+     */
+    private boolean hasTextLayer(PDPage page)
+    {
+	PDResources resources = page.findResources();
+	if (resources == null)
+	    return false;
+	COSBase fonts = resources.getCOSDictionary().getDictionaryObject("Font");
+	if (fonts instanceof COSDictionary && ((COSDictionary) fonts).size() > 0)
+	    return true;
+	COSBase xObjects = resources.getCOSDictionary().getDictionaryObject("XObject");
+	if (xObjects instanceof COSDictionary)
+	{
+	    COSDictionary xObjectDictionary = (COSDictionary) xObjects;
+	    for (Object key : xObjectDictionary.keyList())
+	    {
+		COSBase xObject = xObjectDictionary.getDictionaryObject((COSName) key);
+		if (xObject instanceof COSDictionary && "Form".equals(((COSDictionary) xObject).getNameAsString("Subtype")))
+		    return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * this overrides PDFStreamEngine's processOperator method: the parsing of a page is abandoned if the handler
+     * cancels it
+     * 
+     * @throws DocumentCancelledException
+     *             if the handler cancels the parsing
+     */
+    protected void processOperator(PDFOperator operator, List arguments) throws IOException
+    {
+	if (++m_operatorCount >= CANCEL_CHECK_OPERATORS)
+	{
+	    m_operatorCount = 0;
+	    if (m_handler != null && m_handler.isCancelled())
+		throw new DocumentCancelledException(DocumentTriage.REJECT_CANCELLED);
+	}
+	super.processOperator(operator, arguments);
+    }
+
+    /**
+     * this overrides PDFTextStripper's flushText method: instead of writing to
+     * output stream, we hand the glyphs of the page (or their word runs) to the page handler
+     * 
+     * 
+     * @throws IOException
+     *             If there is an error processing the page.
+     */
+    @SuppressWarnings("unchecked")
+    protected void flushText() throws IOException
+    {
+	int glyphNum = 0;
+	for (int i = 0; i < charactersByArticle.size(); i++)
+	    glyphNum += ((ArrayList<TextPosition>) charactersByArticle.get(i)).size();
+	GlyphPage glyphsOfThisPage = new GlyphPage(glyphNum);
+	WordRun run = m_wordRuns ? new WordRun() : null;
+
+	for (int i = 0; i < charactersByArticle.size(); i++)
+	{
+	    ArrayList<TextPosition> textList = (ArrayList<TextPosition>) charactersByArticle.get(i);
+	    for(TextPosition t : textList)
+	    {
+	    
+		// copy information
+
+		float fontSize = 0;
+		float height;
+		float xScale;
+		float yScale;
+		
+		/*
+		 * 100: a simple step to fix the font size to the normal range, for those documents in unknown codes that PDFBox can not process now
+		 */
+		if(t.getFontSize()<0.3 && t.getYScale()<=1.0) { 	
+			fontSize = t.getFontSize()*100;
+			height = Math.max(t.getYScale(), t.getFontSize())*100;
+			xScale = t.getXScale();
+			yScale = t.getYScale();
+		}
+		else {
+			if (t.getYScale()<0.3 && t.getFontSize()<=1.0) {
+				yScale = t.getYScale()*100;
+				xScale = t.getXScale()*100;
+				height = Math.max(t.getYScale()*100, t.getFontSize());
+			}
+			else {
+				fontSize = t.getFontSize();
+				height = Math.max(t.getYScale(), t.getFontSize());
+				xScale = t.getXScale();
+				yScale = t.getYScale();
+			}
+		}
+		
+		// Width might be negative according to the PDF text extractors
+		if (run == null)
+		    glyphsOfThisPage.add(t.getX(), t.getY(), Math.abs(t.getWidth()), height, fontSize, xScale, yScale,
+			    t.getWidthOfSpace(), t.getWordSpacing(), t.getCharacter());
+		else if (!run.join(t.getX(), t.getY(), Math.abs(t.getWidth()), height, fontSize, xScale, yScale,
+			t.getCharacter()))
+		{
+		    run.addTo(glyphsOfThisPage);
+		    run.begin(t.getX(), t.getY(), Math.abs(t.getWidth()), height, fontSize, xScale, yScale,
+			    t.getWidthOfSpace(), t.getWordSpacing(), t.getCharacter());
+		}
+	    }
+	}
+	if (run != null)
+	{
+	    run.addTo(glyphsOfThisPage);
+	    glyphsOfThisPage.trimToSize();
+	}
+
+	m_pageCount++;
+	if (!m_handler.handlePage(m_currentPageNo, glyphsOfThisPage))
+	    m_stopped = true;
+    }
+
+    /**
+     * The word run being grouped from the glyphs of a page
+     */
+    private static class WordRun
+    {
+	private boolean empty = true;
+	private float x;
+	private float y;
+	private float width;		//the width of the first glyph, kept as is while the run has a single glyph
+	private float height;
+	private float fontSize;
+	private float xScale;
+	private float yScale;
+	private float widthOfSpace;
+	private float wordSpacing;
+	private String firstText;	//the text of the first glyph, kept as is while the run has a single glyph
+	private StringBuilder text = new StringBuilder();	//the text of the run, once it has several glyphs
+	private int glyphNum;
+	private float lastX;		//the last glyph, to which the next glyph is compared
+	private float lastY;
+	private float lastEndX;
+
+	/**
+	 * Begins a run with a glyph
+	 */
+	void begin(float x, float y, float width, float height, float fontSize, float xScale, float yScale,
+		float widthOfSpace, float wordSpacing, String text)
+	{
+	    empty = false;
+	    this.x = x;
+	    this.y = y;
+	    this.width = width;
+	    this.height = height;
+	    this.fontSize = fontSize;
+	    this.xScale = xScale;
+	    this.yScale = yScale;
+	    this.widthOfSpace = widthOfSpace;
+	    this.wordSpacing = wordSpacing;
+	    firstText = text;
+	    glyphNum = 1;
+	    lastX = x;
+	    lastY = y;
+	    lastEndX = x + width;
+	}
+
+	/**
+	 * Adds the next glyph of the page to the run if it belongs to it
+	 * @return a boolean value: true/false (the glyph begins the next run)
+	 */
+	boolean join(float x, float y, float width, float height, float fontSize, float xScale, float yScale,
+		String text)
+	{
+	    /*
+	     * A " " or "" glyph which begins a run is left alone: the line combination ignores it at the beginning of a line
+	     */
+	    if (empty || (glyphNum == 1 && (firstText == " " || firstText == "")))
+		return false;
+	    float gap = x - lastEndX;
+	    if (Math.abs(y - lastY) > Math.max(this.yScale, this.fontSize) || x <= lastX || gap >= MAX_RUN_GAP
+		    || height != this.height || fontSize != this.fontSize || xScale != this.xScale
+		    || yScale != this.yScale)
+		return false;
+
+	    if (glyphNum == 1)
+	    {
+		this.text.setLength(0);
+		this.text.append(firstText);
+	    }
+	    if (gap > SPACE_GAP)
+		this.text.append(' ');
+	    this.text.append(text);
+	    glyphNum++;
+	    lastX = x;
+	    lastY = y;
+	    lastEndX = x + width;
+	    return true;
+	}
+
+	/**
+	 * Adds the run to the glyphs of the page, as one glyph from its first x to the end x of its last glyph
+	 */
+	void addTo(GlyphPage glyphs)
+	{
+	    if (empty)
+		return;
+	    glyphs.add(x, y, (glyphNum == 1) ? width : lastEndX - x, height, fontSize, xScale, yScale, widthOfSpace, wordSpacing,
+		    (glyphNum == 1) ? firstText : text);
+	    empty = true;
+	}
+    }
+}
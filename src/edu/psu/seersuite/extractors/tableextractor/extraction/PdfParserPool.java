@@ -0,0 +1,73 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This class keeps the idle PDFBox parsers of the process, so that they are reused from one document to the next
+ * instead of being created for every document.
+ * <p>
+ * A PdfBoxParser keeps the state of the document it is parsing, so it must not parse two documents at the same time.
+ * A parser taken from the pool with acquire is confined to the thread which took it until it is given back with
+ * release; in between, the thread can parse as many documents as it likes with it. release resets the parser, and
+ * drops it if the pool already holds MAX_IDLE parsers.
+ */
+public class PdfParserPool
+{
+    public static final int MAX_IDLE = 16;	//the largest number of idle parsers kept in the pool
+
+    private static final ArrayList<PdfBoxParser> idleParsers = new ArrayList<PdfBoxParser>();
+
+    /**
+     * Takes an idle parser from the pool, or creates one if the pool is empty
+     *
+     * @return a parser for the calling thread only, until it is released
+     * @throws IOException
+     *             if a new parser can not be created
+     */
+    public static PdfBoxParser acquire() throws IOException
+    {
+	synchronized (idleParsers)
+	{
+	    if (!idleParsers.isEmpty())
+		return idleParsers.remove(idleParsers.size() - 1);
+	}
+	return new PdfBoxParser();
+    }
+
+    /**
+     * Gives a parser back to the pool. The parser must not be used by the caller after this call.
+     *
+     * @param parser
+     *            a parser taken with acquire / null (nothing is done)
+     */
+    public static void release(PdfBoxParser parser)
+    {
+	if (parser == null)
+	    return;
+	parser.reset();
+	synchronized (idleParsers)
+	{
+	    if (idleParsers.size() < MAX_IDLE)
+		idleParsers.add(parser);
+	}
+    }
+
+    /**
+     * Drops all the idle parsers, e.g., at the end of a batch
+     */
+    public static void clear()
+    {
+	synchronized (idleParsers)
+	{
+	    idleParsers.clear();
+	}
+    }
+
+    private PdfParserPool()
+    {
+    }
+}
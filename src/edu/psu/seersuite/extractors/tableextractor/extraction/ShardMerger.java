@@ -0,0 +1,172 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * This class merges the outputs of the nodes of a sharded batch (see the --shard and --leases options of
+ * BatchExtractor) into the outputs of one batch: the mysql-infile, the journal and the summary of the output directory.
+ * <p>
+ * Usage: ShardMerger [output-dir-path] <p>
+ *         [output-dir-path]: the output directory of the nodes, whose shards directory holds a directory per node. <p>
+ * <p>
+ * A document is taken from the first node, by name, whose journal has it, so that a document processed by two nodes
+ * is merged once. The documents are merged in the order of their names, so the merged outputs do not depend on which
+ * node processed which document. The merge can be run again at any time, e.g., while the nodes are running.
+ */
+public class ShardMerger
+{
+    public static final String SHARDS_DIR = "shards";	//the directory of the node directories, in the output directory
+
+    /**
+     * Main entry
+     *
+     * @param args
+     *            command line parameters: the output directory
+     */
+    public static void main(String[] args)
+    {
+	if (args.length != 1)
+	{
+	    System.out.println("ShardMerger <output-dir-path>");
+	    System.exit(-1);
+	}
+	try
+	{
+	    merge(new File(args[0]));
+	}
+	catch (IOException e)
+	{
+	    System.out.printf("[Error] %s\n", e.getMessage());
+	    System.exit(1);
+	}
+    }
+
+    /**
+     * Merges the outputs of the nodes of a sharded batch
+     *
+     * @param outputDir
+     *            the output directory of the nodes
+     * @return the number of merged documents
+     * @throws IOException
+     *             if the outputs of a node can not be read, or the merged outputs written
+     */
+    public static int merge(File outputDir) throws IOException
+    {
+	File[] nodeDirs = new File(outputDir, SHARDS_DIR).listFiles();
+	if (nodeDirs == null)
+	    throw new IOException("no " + SHARDS_DIR + " directory in " + outputDir.getPath());
+	Arrays.sort(nodeDirs);
+
+	/*
+	 *  The node of each document
+	 */
+	ArrayList<File> nodes = new ArrayList<File>();
+	ArrayList<BatchJournal> journals = new ArrayList<BatchJournal>();
+	TreeMap<String, Integer> documentNodes = new TreeMap<String, Integer>();
+	int total = 0;
+	for (File nodeDir : nodeDirs)
+	{
+	    File journalFile = new File(nodeDir, "journal");
+	    if (!journalFile.isFile())
+		continue;
+	    BatchJournal journal = BatchJournal.load(journalFile);
+	    for (String name : journal.getNames())
+	    {
+		if (!documentNodes.containsKey(name))
+		    documentNodes.put(name, journals.size());
+	    }
+	    nodes.add(nodeDir);
+	    journals.add(journal);
+	    total = Math.max(total, readTotal(new File(nodeDir, "summary")));
+	}
+
+	/*
+	 *  The tables of the documents, copied from the mysql-infile of their nodes
+	 */
+	RandomAccessFile[] nodeInFiles = new RandomAccessFile[nodes.size()];
+	String fingerprint = journals.isEmpty() ? null : journals.get(0).getFingerprint();
+	BatchJournal journal = new BatchJournal(new File(outputDir, "journal"), false,
+		fingerprint == null ? "-" : fingerprint);	//the nodes run with the same settings
+	OutputStream mysqlInFile = new FileOutputStream(new File(outputDir, "mysql-infile"));
+	try
+	{
+	    for (int n = 0; n < nodes.size(); n++)
+		nodeInFiles[n] = new RandomAccessFile(new File(nodes.get(n), "mysql-infile"), "r");
+	    long offset = 0;
+	    byte[] buffer = new byte[64 * 1024];
+	    for (String name : documentNodes.keySet())
+	    {
+		int n = documentNodes.get(name);
+		BatchJournal nodeJournal = journals.get(n);
+		long start = nodeJournal.getOutputStart(name);
+		long end = nodeJournal.getOutputEnd(name);
+		if (end > nodeInFiles[n].length())
+		    throw new IOException("the mysql-infile of " + nodes.get(n).getName() + " is shorter than its journal");
+		nodeInFiles[n].seek(start);
+		for (long remaining = end - start; remaining > 0;)
+		{
+		    int length = nodeInFiles[n].read(buffer, 0, (int) Math.min(buffer.length, remaining));
+		    mysqlInFile.write(buffer, 0, length);
+		    remaining -= length;
+		}
+		offset += end - start;
+		journal.append(name, nodeJournal, offset);
+	    }
+	}
+	finally
+	{
+	    for (RandomAccessFile nodeInFile : nodeInFiles)
+	    {
+		if (nodeInFile != null)
+		    nodeInFile.close();
+	    }
+	    mysqlInFile.close();
+	    journal.close();
+	}
+
+	BatchExtractor.writeSummary(new File(outputDir, "summary"), Math.max(total, documentNodes.size()), journal, null);
+	System.out.printf("[Info] %d documents of %d nodes merged\n", documentNodes.size(), nodes.size());
+	return documentNodes.size();
+    }
+
+    /**
+     * Reads the number of PDF documents of the batch from the summary of a node
+     * @return the number / 0 (if the summary is not written yet)
+     */
+    private static int readTotal(File summaryFile) throws IOException
+    {
+	if (!summaryFile.isFile())
+	    return 0;
+	BufferedReader reader = new BufferedReader(new FileReader(summaryFile));
+	try
+	{
+	    String line;
+	    while ((line = reader.readLine()) != null)
+	    {
+		if (line.startsWith("total="))
+		    return Integer.parseInt(line.substring("total=".length()).trim());
+	    }
+	    return 0;
+	}
+	catch (NumberFormatException e)
+	{
+	    return 0;
+	}
+	finally
+	{
+	    reader.close();
+	}
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+/**
+ * This class holds the limits from which TableExtractor rejects a PDF document without extracting its tables: the
+ * size of the file, the number of pages, and the time and memory budgets of the whole processing of the document. In
+ * order to keep the fast speed for large repositories, the file size and the number of pages are checked before the
+ * text of any page is stripped; the budgets are checked while the document is parsed and its tables extracted.
+ * <p>
+ * A limit of 0 means no limit. By default, the documents with more than 150 pages are rejected.
+ *
+ * @see DocumentTriage
+ * @see DocumentBudget
+ */
+public class TriageLimits
+{
+    private int maxPageNum = 150;	//the largest number of pages of a processed document
+    private long maxFileSize = 0;	//the largest size of a processed PDF file, in bytes
+    private long maxTime = 0;		//the longest time to process a document, in milliseconds
+    private long maxAllocation = 0;	//the largest number of bytes allocated to process a document
+    private boolean textLayerRequired = true;	//whether the documents without text layer in the sampled pages are rejected
+
+    /**
+     * Gets the largest number of pages of a processed document
+     * @return the number of pages / 0 (no limit)
+     */
+    public int getMaxPageNum()
+    {
+	return maxPageNum;
+    }
+
+    /**
+     * Sets the largest number of pages of a processed document
+     * @param maxPageNum
+     *            the number of pages / 0 (no limit)
+     */
+    public void setMaxPageNum(int maxPageNum)
+    {
+	this.maxPageNum = maxPageNum;
+    }
+
+    /**
+     * Gets the largest size of a processed PDF file
+     * @return the size in bytes / 0 (no limit)
+     */
+    public long getMaxFileSize()
+    {
+	return maxFileSize;
+    }
+
+    /**
+     * Sets the largest size of a processed PDF file
+     * @param maxFileSize
+     *            the size in bytes / 0 (no limit)
+     */
+    public void setMaxFileSize(long maxFileSize)
+    {
+	this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Gets the longest time to process a document
+     * @return the time in milliseconds / 0 (no limit)
+     */
+    public long getMaxTime()
+    {
+	return maxTime;
+    }
+
+    /**
+     * Sets the longest time to process a document, i.e., to load it, strip its text and extract its tables. The time
+     * is checked while the pages are stripped, and at each page and table of the extraction.
+     * @param maxTime
+     *            the time in milliseconds / 0 (no limit)
+     */
+    public void setMaxTime(long maxTime)
+    {
+	this.maxTime = maxTime;
+    }
+
+    /**
+     * Gets the largest number of bytes allocated to process a document
+     * @return the number of bytes / 0 (no limit)
+     */
+    public long getMaxAllocation()
+    {
+	return maxAllocation;
+    }
+
+    /**
+     * Sets the largest number of bytes allocated to process a document, checked as the time. It counts all the
+     * allocations of the thread of the document, including the garbage, so it is usually several times the heap the
+     * document needs at once.
+     * @param maxAllocation
+     *            the number of bytes / 0 (no limit)
+     */
+    public void setMaxAllocation(long maxAllocation)
+    {
+	this.maxAllocation = maxAllocation;
+    }
+
+    /**
+     * Judges whether the documents without text layer in the sampled pages are rejected
+     * @return a boolean value: true/false
+     */
+    public boolean isTextLayerRequired()
+    {
+	return textLayerRequired;
+    }
+
+    /**
+     * Sets whether the documents without text layer in the sampled pages (e.g., scanned documents) are rejected
+     * @param textLayerRequired
+     *            true/false
+     */
+    public void setTextLayerRequired(boolean textLayerRequired)
+    {
+	this.textLayerRequired = textLayerRequired;
+    }
+}
@@ -0,0 +1,381 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * This class is a worker JVM of a supervised batch (see the --workers option of BatchExtractor), and the handle of
+ * the supervisor on it. A document which crashes PDFBox (a stack overflow, a runaway heap, a hang) then only takes
+ * its worker down: the supervisor starts another one, and the batch goes on.
+ * <p>
+ * Usage: WorkerProcess [row-model] [column-model] [output-dir-path] [parser] [key=value] ... <p>
+ *         [key=value]: the settings of the ExtractionConfig. <p>
+ * <p>
+ * The supervisor writes the documents to the standard input of the worker, and reads their results from its standard
+ * output, one document at a time, once the worker writes that it is ready: the index (-1 stops the worker) and the path of a document; then the index and the
+ * fields of its BatchExtractor.DocumentResult. Whatever the extraction prints goes to the standard error, which the
+ * supervisor copies to its own. A worker which can not go on after an Error (e.g., out of memory) exits at once with
+ * CRASH_EXIT_CODE.
+ */
+public class WorkerProcess
+{
+    public static final int CRASH_EXIT_CODE = 3;
+    public static final int INVALID_EXIT_CODE = 2;	//the arguments or the models are invalid
+    public static final long START_TIMEOUT = 300 * 1000;	//the longest wait for a worker to be ready, in milliseconds
+    private static final int READY = 0x52454459;	//written by the worker once its models are loaded
+    private static final Timer startWatchdog = new Timer("worker-start-watchdog", true);	//kills the workers which hang at start
+
+    private List<String> command;
+    private Process process = null;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private int docNum = 0;	//the number of documents extracted by the process
+
+    /**
+     * Main entry of a worker JVM
+     *
+     * @param args
+     *            command line parameters: the models, the output directory, the parser and the settings
+     */
+    public static void main(String[] args)
+    {
+	DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+	System.setOut(System.err);	//the standard output is the channel of the results
+	if (args.length < 4)
+	{
+	    System.err.println("WorkerProcess <row-model> <column-model> <output-dir-path> <parser> [key=value] ...");
+	    System.exit(INVALID_EXIT_CODE);
+	}
+	Properties settings = new Properties();
+	for (int i = 4; i < args.length; i++)
+	{
+	    int equal = args[i].indexOf('=');
+	    if (equal < 0)
+		System.exit(INVALID_EXIT_CODE);
+	    settings.setProperty(args[i].substring(0, equal), args[i].substring(equal + 1));
+	}
+	try
+	{
+	    if (!HeaderModelRegistry.preload(args[0], FeatureSchema.ROW) || !HeaderModelRegistry.preload(args[1], FeatureSchema.COL))
+		System.exit(INVALID_EXIT_CODE);
+	    BatchExtractor.DocumentWorker worker = new BatchExtractor.DocumentWorker(
+		    new TableExtractor(new ExtractionConfig(settings)), args[0], args[1], args[2], null,
+		    args[3].compareToIgnoreCase("pdfbox-words") == 0);
+	    if (!worker.open())
+		System.exit(INVALID_EXIT_CODE);
+	    out.writeInt(READY);
+	    out.flush();
+	    DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+	    while (true)
+	    {
+		int index = in.readInt();
+		if (index < 0)
+		    break;
+		File pdfFile = new File(readString(in));
+		writeResult(out, worker.extract(index, pdfFile));
+		out.flush();
+	    }
+	    worker.close();
+	    System.exit(0);
+	}
+	catch (IllegalArgumentException e)
+	{
+	    System.err.printf("[Error] %s\n", e.getMessage());
+	    System.exit(INVALID_EXIT_CODE);
+	}
+	catch (IOException e)
+	{
+	    System.exit(0);	//the supervisor is gone
+	}
+	catch (Throwable e)
+	{
+	    System.err.printf("[Error] worker crashed: %s\n", e);
+	    Runtime.getRuntime().halt(CRASH_EXIT_CODE);
+	}
+    }
+
+    /**
+     * Constructor of the handle of a worker JVM, which is started by start
+     *
+     * @param command
+     *            the command of the worker JVM
+     */
+    public WorkerProcess(List<String> command)
+    {
+	this.command = new ArrayList<String>(command);
+    }
+
+    /**
+     * Builds the command of a worker JVM, with the class path of this JVM
+     *
+     * @param heapSize
+     *            the largest heap of the worker, in MB / 0 (the default of the JVM)
+     * @param rowModelPath
+     *            the path of the row model
+     * @param colModelPath
+     *            the path of the column model
+     * @param outputDirPath
+     *            the output directory
+     * @param parserType
+     *            the parser: pdfbox or pdfbox-words
+     * @param config
+     *            the configuration of the extraction
+     * @return the command
+     */
+    public static List<String> buildCommand(
+	    long heapSize,
+	    String rowModelPath,
+	    String colModelPath,
+	    String outputDirPath,
+	    String parserType,
+	    ExtractionConfig config)
+    {
+	List<String> command = new ArrayList<String>();
+	command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+	if (heapSize > 0)
+	    command.add("-Xmx" + heapSize + "m");
+	command.add("-cp");
+	command.add(System.getProperty("java.class.path"));
+	command.add(WorkerProcess.class.getName());
+	command.add(rowModelPath);
+	command.add(colModelPath);
+	command.add(outputDirPath);
+	command.add(parserType);
+	Properties settings = config.toProperties();
+	for (String key : settings.stringPropertyNames())
+	    command.add(key + "=" + settings.getProperty(key));
+	return command;
+    }
+
+    /**
+     * Starts the worker JVM, and waits until its models are loaded, so that the time of its documents does not count
+     * the start
+     *
+     * @param timeout
+     *            the longest wait for the worker to be ready, in milliseconds (e.g., START_TIMEOUT), after which it is
+     *            killed
+     * @throws IOException
+     *             if it can not be started, exits before it is ready, or is not ready in time
+     */
+    public void start(long timeout) throws IOException
+    {
+	process = new ProcessBuilder(command).start();
+	in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+	out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+	docNum = 0;
+	final InputStream err = process.getErrorStream();
+	Thread copier = new Thread("worker-stderr"){
+	    public void run(){
+		byte[] buffer = new byte[4096];
+		try
+		{
+		    int n;
+		    while ((n = err.read(buffer)) > 0)
+			System.err.write(buffer, 0, n);
+		}
+		catch (IOException e)
+		{
+		    // the worker is gone
+		}
+	    }
+	};
+	copier.setDaemon(true);
+	copier.start();
+	final Process started = process;
+	final boolean[] expired = { false };
+	TimerTask kill = new TimerTask(){
+	    public void run(){
+		synchronized (expired){
+		    expired[0] = true;
+		}
+		started.destroy();
+	    }
+	};
+	startWatchdog.schedule(kill, timeout);
+	try
+	{
+	    if (in.readInt() != READY)
+		throw new IOException("invalid answer");
+	}
+	catch (IOException e)
+	{
+	    kill();
+	    int exitCode = waitFor();
+	    synchronized (expired)
+	    {
+		if (expired[0])
+		    throw new IOException("the worker process was not ready after " + timeout / 1000 + " s, killed");
+	    }
+	    throw new IOException("the worker process exited with " + exitCode + " at start");
+	}
+	finally
+	{
+	    kill.cancel();
+	}
+    }
+
+    /**
+     * Extracts the tables of a document in the worker JVM
+     *
+     * @param index
+     *            the position of the document in the batch
+     * @param pdfFile
+     *            the document
+     * @return the result of the document
+     * @throws IOException
+     *             if the worker is gone, e.g., it crashed or was killed
+     */
+    BatchExtractor.DocumentResult extract(int index, File pdfFile) throws IOException
+    {
+	out.writeInt(index);
+	writeString(out, pdfFile.getPath());
+	out.flush();
+	BatchExtractor.DocumentResult result = readResult(in, pdfFile);
+	if (result.index != index)
+	    throw new IOException("the worker answered document " + result.index + " instead of " + index);
+	docNum++;
+	return result;
+    }
+
+    /**
+     * Gets the number of documents extracted since the worker JVM started
+     * @return the number of documents
+     */
+    public int getDocNum()
+    {
+	return docNum;
+    }
+
+    /**
+     * Stops the worker JVM once it is idle, and waits for it
+     */
+    public void stop()
+    {
+	try
+	{
+	    out.writeInt(-1);
+	    out.flush();
+	    out.close();
+	    process.waitFor();
+	}
+	catch (IOException e)
+	{
+	    kill();
+	}
+	catch (InterruptedException e)
+	{
+	    kill();
+	    Thread.currentThread().interrupt();
+	}
+    }
+
+    /**
+     * Kills the worker JVM at once, e.g., when it hangs
+     */
+    public void kill()
+    {
+	process.destroy();
+    }
+
+    /**
+     * Waits for the worker JVM to exit, e.g., after a crash
+     * @return its exit code / -1 (if the calling thread is interrupted)
+     */
+    public int waitFor()
+    {
+	try
+	{
+	    return process.waitFor();
+	}
+	catch (InterruptedException e)
+	{
+	    Thread.currentThread().interrupt();
+	    return -1;
+	}
+    }
+
+    private static void writeResult(DataOutputStream out, BatchExtractor.DocumentResult result) throws IOException
+    {
+	out.writeInt(result.index);
+	writeString(out, result.xmlText);
+	writeString(out, result.mysqlLines);
+	out.writeInt(result.tableNum);
+	writeString(out, result.rejectReason);
+	out.writeLong(result.elapsedTime);
+	out.writeLong(result.allocation);
+	writeString(out, result.headingStatistics.toCounts());
+	String exception = null;
+	if (result.exception != null)
+	{
+	    StringWriter trace = new StringWriter();
+	    result.exception.printStackTrace(new PrintWriter(trace));
+	    exception = trace.toString();
+	}
+	writeString(out, exception);
+    }
+
+    private static BatchExtractor.DocumentResult readResult(DataInputStream in, File pdfFile) throws IOException
+    {
+	BatchExtractor.DocumentResult result = new BatchExtractor.DocumentResult(in.readInt(), pdfFile);
+	result.xmlText = readString(in);
+	result.mysqlLines = readString(in);
+	result.tableNum = in.readInt();
+	result.rejectReason = readString(in);
+	result.elapsedTime = in.readLong();
+	result.allocation = in.readLong();
+	try
+	{
+	    result.headingStatistics.addCounts(readString(in));
+	}
+	catch (IllegalArgumentException e)
+	{
+	    throw new IOException("invalid heading counts from the worker");
+	}
+	String exception = readString(in);
+	if (exception != null)
+	    result.exception = new Exception("in the worker process: " + exception);
+	return result;
+    }
+
+    /**
+     * Writes a string of any length / null
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+	if (s == null)
+	{
+	    out.writeInt(-1);
+	    return;
+	}
+	byte[] bytes = s.getBytes("UTF-8");
+	out.writeInt(bytes.length);
+	out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+	int length = in.readInt();
+	if (length < 0)
+	    return null;
+	byte[] bytes = new byte[length];
+	in.readFully(bytes);
+	return new String(bytes, "UTF-8");
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ *
+ */
+package edu.psu.seersuite.extractors.tableextractor.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * This class summarizes the text pieces of the rows of a table candidate: for each piece, the number of its digit,
+ * letter and symbol characters, whether it is a number, and its font. It is computed once per table from the rows
+ * and is shared by the header row and column feature extractors, which aggregate it instead of rescanning the texts.
+ * <p>
+ * The pieces are numbered row by row, in the order of the cells of each row. A column refers to the same text pieces
+ * as the rows, see indexOf; a piece which is not in the rows (e.g., merged by the header hierarchy extraction) is
+ * summarized when it is first looked up.
+ *
+ * @author Ying, Shuyi
+ *
+ */
+public class CellSummary
+{
+    private static final Pattern NUMBER = Pattern.compile("[0-9]*.[0-9]*");
+
+    private int[] rowStart;	//the index of the first piece of each row, and the number of pieces of the rows at the end
+    private int size;		//the number of summarized pieces
+    private TextPiece[] pieces;
+    private int[] length;	//the number of characters of each piece
+    private int[] digits;	//the number of digit characters of each piece
+    private int[] letters;	//the number of letter characters of each piece
+    private float[] fontSize;
+    private boolean[] bold;
+    private boolean[] italic;
+    private boolean[] numeric;	//whether the text of each piece is a number
+    private IdentityHashMap<TextPiece, Integer> indexes;
+
+    /**
+     * Summarizes the text pieces of the rows of a table
+     * @param rows
+     *            the rows of the table, with their cells sorted
+     */
+    public CellSummary(ArrayList<TableRow> rows)
+    {
+	rowStart = new int[rows.size() + 1];
+	int n = 0;
+	for (int r = 0; r < rows.size(); r++)
+	{
+	    rowStart[r] = n;
+	    n += rows.get(r).getCells().size();
+	}
+	rowStart[rows.size()] = n;
+
+	allocate(Math.max(n, 16));
+	indexes = new IdentityHashMap<TextPiece, Integer>(2 * n);
+	for (TableRow row : rows)
+	{
+	    for (TextPiece piece : row.getCells())
+		add(piece);
+	}
+    }
+
+    /**
+     * Judges whether this summary is still the one of some rows, i.e., whether the rows have the same pieces
+     * @param rows
+     *            the rows of the table
+     * @return a boolean value: true/false
+     */
+    public boolean isSummaryOf(ArrayList<TableRow> rows)
+    {
+	if (rows.size() + 1 != rowStart.length)
+	    return false;
+	for (int r = 0; r < rows.size(); r++)
+	{
+	    ArrayList<TextPiece> cells = rows.get(r).getCells();
+	    if (cells.size() != rowStart[r + 1] - rowStart[r])
+		return false;
+	    for (int k = 0; k < cells.size(); k++)
+	    {
+		if (cells.get(k) != pieces[rowStart[r] + k])
+		    return false;
+	    }
+	}
+	return true;
+    }
+
+    private void allocate(int capacity)
+    {
+	if (pieces == null)
+	{
+	    pieces = new TextPiece[capacity];
+	    length = new int[capacity];
+	    digits = new int[capacity];
+	    letters = new int[capacity];
+	    fontSize = new float[capacity];
+	    bold = new boolean[capacity];
+	    italic = new boolean[capacity];
+	    numeric = new boolean[capacity];
+	}
+	else
+	{
+	    pieces = Arrays.copyOf(pieces, capacity);
+	    length = Arrays.copyOf(length, capacity);
+	    digits = Arrays.copyOf(digits, capacity);
+	    letters = Arrays.copyOf(letters, capacity);
+	    fontSize = Arrays.copyOf(fontSize, capacity);
+	    bold = Arrays.copyOf(bold, capacity);
+	    italic = Arrays.copyOf(italic, capacity);
+	    numeric = Arrays.copyOf(numeric, capacity);
+	}
+    }
+
+    /**
+     * Summarizes one more text piece
+     * @param piece
+     *            the text piece
+     * @return the index of the piece
+     */
+    private int add(TextPiece piece)
+    {
+	if (size == pieces.length)
+	    allocate(2 * size);
+	int index = size++;
+	String text = piece.getText();
+	pieces[index] = piece;
+	length[index] = text.length();
+	for (int j = 0; j < text.length(); ++j)
+	{
+	    char c = text.charAt(j);
+	    if (Character.isDigit(c))
+		digits[index]++;
+	    else if (Character.isLetter(c))
+		letters[index]++;
+	}
+	fontSize[index] = piece.getFontSize();
+	bold[index] = piece.getFontBold();
+	italic[index] = piece.getFontItalic();
+	numeric[index] = isNumString(text);
+	if (!indexes.containsKey(piece))
+	    indexes.put(piece, index);
+	return index;
+    }
+
+    /**
+     * Judges whether a text is a number, as the header features define it
+     * @param text
+     *            the text to check
+     * @return a boolean value: true/false
+     */
+    public static boolean isNumString(String text)
+    {
+	return NUMBER.matcher(text).matches();
+    }
+
+    /**
+     * Gets the index of the first piece of a row
+     * @param row
+     *            the index of the row
+     * @return the index of the piece
+     */
+    public int getRowStart(int row)
+    {
+	return rowStart[row];
+    }
+
+    /**
+     * Gets the index of a text piece of the table, summarizing it if it is not in the rows
+     * @param piece
+     *            a text piece of a row (or a column) of the table
+     * @return the index of the piece
+     */
+    public int indexOf(TextPiece piece)
+    {
+	Integer index = indexes.get(piece);
+	return index == null ? add(piece) : index.intValue();
+    }
+
+    /**
+     * Gets the number of characters of a piece
+     * @param index
+     *            the index of the piece
+     * @return the number of characters
+     */
+    public int getLength(int index)
+    {
+	return length[index];
+    }
+
+    /**
+     * Gets the number of digit characters of a piece
+     * @param index
+     *            the index of the piece
+     * @return the number of digits
+     */
+    public int getDigits(int index)
+    {
+	return digits[index];
+    }
+
+    /**
+     * Gets the number of letter characters of a piece
+     * @param index
+     *            the index of the piece
+     * @return the number of letters
+     */
+    public int getLetters(int index)
+    {
+	return letters[index];
+    }
+
+    /**
+     * Gets the number of the characters of a piece which are neither digits nor letters
+     * @param index
+     *            the index of the piece
+     * @return the number of symbols
+     */
+    public int getSymbols(int index)
+    {
+	return length[index] - digits[index] - letters[index];
+    }
+
+    /**
+     * Gets the font size of a piece
+     * @param index
+     *            the index of the piece
+     * @return the font size
+     */
+    public float getFontSize(int index)
+    {
+	return fontSize[index];
+    }
+
+    /**
+     * Judges whether a piece is in bold
+     * @param index
+     *            the index of the piece
+     * @return a boolean value: true/false
+     */
+    public boolean isBold(int index)
+    {
+	return bold[index];
+    }
+
+    /**
+     * Judges whether a piece is in italic
+     * @param index
+     *            the index of the piece
+     * @return a boolean value: true/false
+     */
+    public boolean isItalic(int index)
+    {
+	return italic[index];
+    }
+
+    /**
+     * Judges whether the text of a piece is a number
+     * @param index
+     *            the index of the piece
+     * @return a boolean value: true/false
+     */
+    public boolean isNumeric(int index)
+    {
+	return numeric[index];
+    }
+}
@@ -0,0 +1,491 @@
+/**
+ *
+ */
+package edu.psu.seersuite.extractors.tableextractor.model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class stores the glyphs (the characters extracted by the PDF parser) of one document page, as parallel
+ * arrays of their coordinates and scales and one packed buffer of their texts, instead of one TextPiece object and
+ * one String per character. A glyph is read through its index on the page, without allocating anything; toTextPiece
+ * converts it to a TextPiece for the code which still works on text pieces.
+ * <p>
+ * When the parser groups the characters into word runs (see PdfBoxParser.setWordRuns), each "glyph" of the page is
+ * a run of characters of one line and one font scale instead.
+ * <p>
+ * The end coordinates are not stored: as for the text pieces made by the parser, the end x is x + width and the end
+ * y is y + height.
+ *
+ * @author Ying, Shuyi
+ *
+ */
+public class GlyphPage
+{
+    private int size;		//the number of glyphs
+    private float[] x;
+    private float[] y;
+    private float[] width;
+    private float[] height;
+    private float[] fontSize;
+    private float[] xScale;
+    private float[] yScale;
+    private float[] widthOfSpace;
+    private float[] wordSpacing;
+    private boolean[] literalBlank;	//whether the text of each glyph was the " " or "" literal, see isLiteralBlank
+    private int[] textStart;	//the offset of the text of each glyph in the buffer, and the used length of the buffer at the end
+    private char[] text;		//the texts of all the glyphs, one after the other
+
+    /**
+     * Constructor
+     * @param capacity
+     *            the expected number of glyphs of the page
+     */
+    public GlyphPage(int capacity)
+    {
+	capacity = Math.max(capacity, 16);
+	x = new float[capacity];
+	y = new float[capacity];
+	width = new float[capacity];
+	height = new float[capacity];
+	fontSize = new float[capacity];
+	xScale = new float[capacity];
+	yScale = new float[capacity];
+	widthOfSpace = new float[capacity];
+	wordSpacing = new float[capacity];
+	literalBlank = new boolean[capacity];
+	textStart = new int[capacity + 1];
+	text = new char[capacity];
+    }
+
+    /**
+     * Constructor of a page read by read(), which sets all the arrays
+     */
+    private GlyphPage()
+    {
+    }
+
+    private void grow()
+    {
+	int capacity = Math.max(2 * x.length, 16);
+	x = Arrays.copyOf(x, capacity);
+	y = Arrays.copyOf(y, capacity);
+	width = Arrays.copyOf(width, capacity);
+	height = Arrays.copyOf(height, capacity);
+	fontSize = Arrays.copyOf(fontSize, capacity);
+	xScale = Arrays.copyOf(xScale, capacity);
+	yScale = Arrays.copyOf(yScale, capacity);
+	widthOfSpace = Arrays.copyOf(widthOfSpace, capacity);
+	wordSpacing = Arrays.copyOf(wordSpacing, capacity);
+	literalBlank = Arrays.copyOf(literalBlank, capacity);
+	textStart = Arrays.copyOf(textStart, capacity + 1);
+    }
+
+    /**
+     * Adds a glyph at the end of the page
+     *
+     * @param x
+     *            the x coordinate
+     * @param y
+     *            the y coordinate
+     * @param width
+     *            the width, not negative
+     * @param height
+     *            the height
+     * @param fontSize
+     *            the font size
+     * @param xScale
+     *            the x scale
+     * @param yScale
+     *            the y scale
+     * @param widthOfSpace
+     *            the width of a space in the font of the glyph
+     * @param wordSpacing
+     *            the word spacing
+     * @param text
+     *            the text of the glyph, usually one character, or the text of a word run
+     * @return the index of the glyph
+     */
+    public int add(float x, float y, float width, float height, float fontSize, float xScale, float yScale,
+	    float widthOfSpace, float wordSpacing, CharSequence text)
+    {
+	if (size == this.x.length)
+	    grow();
+	int index = size++;
+	this.x[index] = x;
+	this.y[index] = y;
+	this.width[index] = width;
+	this.height[index] = height;
+	this.fontSize[index] = fontSize;
+	this.xScale[index] = xScale;
+	this.yScale[index] = yScale;
+	this.widthOfSpace[index] = widthOfSpace;
+	this.wordSpacing[index] = wordSpacing;
+	this.literalBlank[index] = text == " " || text == "";
+
+	int start = textStart[index];
+	int length = text.length();
+	if (start + length > this.text.length)
+	    this.text = Arrays.copyOf(this.text, Math.max(2 * this.text.length, start + length));
+	for (int k = 0; k < length; k++)
+	    this.text[start + k] = text.charAt(k);
+	textStart[index + 1] = start + length;
+	return index;
+    }
+
+    /**
+     * Trims the arrays to the number of glyphs and the length of their texts, e.g., once the glyphs of a page are
+     * grouped into fewer word runs than expected
+     */
+    public void trimToSize()
+    {
+	x = Arrays.copyOf(x, size);
+	y = Arrays.copyOf(y, size);
+	width = Arrays.copyOf(width, size);
+	height = Arrays.copyOf(height, size);
+	fontSize = Arrays.copyOf(fontSize, size);
+	xScale = Arrays.copyOf(xScale, size);
+	yScale = Arrays.copyOf(yScale, size);
+	widthOfSpace = Arrays.copyOf(widthOfSpace, size);
+	wordSpacing = Arrays.copyOf(wordSpacing, size);
+	literalBlank = Arrays.copyOf(literalBlank, size);
+	textStart = Arrays.copyOf(textStart, size + 1);
+	text = Arrays.copyOf(text, textStart[size]);
+    }
+
+    /**
+     * Gets the number of glyphs of the page
+     * @return the number of glyphs
+     */
+    public int size()
+    {
+	return size;
+    }
+
+    /**
+     * Gets the x coordinate of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the x coordinate
+     */
+    public float getX(int i)
+    {
+	return x[i];
+    }
+
+    /**
+     * Gets the y coordinate of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the y coordinate
+     */
+    public float getY(int i)
+    {
+	return y[i];
+    }
+
+    /**
+     * Gets the end x coordinate of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the x coordinate plus the width
+     */
+    public float getEndX(int i)
+    {
+	return x[i] + width[i];
+    }
+
+    /**
+     * Gets the end y coordinate of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the y coordinate plus the height
+     */
+    public float getEndY(int i)
+    {
+	return y[i] + height[i];
+    }
+
+    /**
+     * Gets the width of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the width
+     */
+    public float getWidth(int i)
+    {
+	return width[i];
+    }
+
+    /**
+     * Gets the height of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the height
+     */
+    public float getHeight(int i)
+    {
+	return height[i];
+    }
+
+    /**
+     * Gets the font size of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the font size
+     */
+    public float getFontSize(int i)
+    {
+	return fontSize[i];
+    }
+
+    /**
+     * Gets the x scale of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the x scale
+     */
+    public float getXScale(int i)
+    {
+	return xScale[i];
+    }
+
+    /**
+     * Gets the y scale of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the y scale
+     */
+    public float getYScale(int i)
+    {
+	return yScale[i];
+    }
+
+    /**
+     * Gets the width of a space in the font of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the width of a space
+     */
+    public float getWidthOfSpace(int i)
+    {
+	return widthOfSpace[i];
+    }
+
+    /**
+     * Gets the word spacing of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the word spacing
+     */
+    public float getWordSpacing(int i)
+    {
+	return wordSpacing[i];
+    }
+
+    /**
+     * Gets the number of characters of the text of a glyph
+     * @param i
+     *            the index of the glyph
+     * @return the number of characters
+     */
+    public int getTextLength(int i)
+    {
+	return textStart[i + 1] - textStart[i];
+    }
+
+    /**
+     * Gets the number of characters of the text of a glyph without its leading and trailing white spaces, as
+     * String.trim would leave them
+     * @param i
+     *            the index of the glyph
+     * @return the number of characters
+     */
+    public int getTrimmedTextLength(int i)
+    {
+	int start = textStart[i];
+	int end = textStart[i + 1];
+	while (start < end && text[start] <= ' ')
+	    start++;
+	while (end > start && text[end - 1] <= ' ')
+	    end--;
+	return end - start;
+    }
+
+    /**
+     * Appends the text of a glyph to a string builder, without creating a String
+     * @param i
+     *            the index of the glyph
+     * @param sb
+     *            the string builder
+     */
+    public void appendText(int i, StringBuilder sb)
+    {
+	sb.append(text, textStart[i], textStart[i + 1] - textStart[i]);
+    }
+
+    /**
+     * Gets the text of a glyph. A new String is created at each call.
+     * @param i
+     *            the index of the glyph
+     * @return the text
+     */
+    public String getText(int i)
+    {
+	return new String(text, textStart[i], textStart[i + 1] - textStart[i]);
+    }
+
+    /**
+     * Judges whether the text of a glyph was the " " or the "" literal itself. The line combination used to ignore
+     * such glyphs at the beginning of a line by comparing the references of the texts, which is kept as it was.
+     * @param i
+     *            the index of the glyph
+     * @return a boolean value: true/false
+     */
+    public boolean isLiteralBlank(int i)
+    {
+	return literalBlank[i];
+    }
+
+    /**
+     * Writes the glyphs of the page as length-prefixed arrays, e.g., to cache the output of the parser
+     * @param out
+     *            the output stream
+     * @throws IOException
+     */
+    public void write(DataOutputStream out) throws IOException
+    {
+	out.writeInt(size);
+	writeFloats(out, x);
+	writeFloats(out, y);
+	writeFloats(out, width);
+	writeFloats(out, height);
+	writeFloats(out, fontSize);
+	writeFloats(out, xScale);
+	writeFloats(out, yScale);
+	writeFloats(out, widthOfSpace);
+	writeFloats(out, wordSpacing);
+	out.writeInt(size);
+	for (int i = 0; i < size; i++)
+	    out.writeBoolean(literalBlank[i]);
+	out.writeInt(size + 1);
+	for (int i = 0; i <= size; i++)
+	    out.writeInt(textStart[i]);
+	out.writeInt(textStart[size]);
+	for (int k = 0; k < textStart[size]; k++)
+	    out.writeChar(text[k]);
+    }
+
+    /**
+     * Reads the glyphs of a page written by write(), with bulk reads of the arrays (e.g., from a memory-mapped file)
+     * @param in
+     *            the buffer, positioned at the page, and positioned after it on return
+     * @return the page, with arrays of the exact number of glyphs
+     * @throws IOException
+     *             if the data is not a valid page
+     */
+    public static GlyphPage read(ByteBuffer in) throws IOException
+    {
+	GlyphPage page = new GlyphPage();
+	page.size = readLength(in, 0);
+	page.x = readFloats(in);
+	page.y = readFloats(in);
+	page.width = readFloats(in);
+	page.height = readFloats(in);
+	page.fontSize = readFloats(in);
+	page.xScale = readFloats(in);
+	page.yScale = readFloats(in);
+	page.widthOfSpace = readFloats(in);
+	page.wordSpacing = readFloats(in);
+	page.literalBlank = new boolean[readLength(in, 1)];
+	for (int i = 0; i < page.literalBlank.length; i++)
+	    page.literalBlank[i] = in.get() != 0;
+	page.textStart = new int[readLength(in, 4)];
+	in.asIntBuffer().get(page.textStart);
+	in.position(in.position() + 4 * page.textStart.length);
+	page.text = new char[readLength(in, 2)];
+	in.asCharBuffer().get(page.text);
+	in.position(in.position() + 2 * page.text.length);
+
+	int size = page.size;
+	if (page.x.length != size || page.y.length != size || page.width.length != size || page.height.length != size
+		|| page.fontSize.length != size || page.xScale.length != size || page.yScale.length != size
+		|| page.widthOfSpace.length != size || page.wordSpacing.length != size
+		|| page.literalBlank.length != size || page.textStart.length != size + 1)
+	    throw new IOException("inconsistent glyph arrays");
+	if (page.textStart[0] != 0 || page.textStart[size] != page.text.length)
+	    throw new IOException("invalid glyph texts");
+	for (int i = 0; i < size; i++)
+	    if (page.textStart[i + 1] < page.textStart[i])
+		throw new IOException("invalid text of glyph " + i);
+	return page;
+    }
+
+    private void writeFloats(DataOutputStream out, float[] values) throws IOException
+    {
+	out.writeInt(size);
+	for (int i = 0; i < size; i++)
+	    out.writeFloat(values[i]);
+    }
+
+    private static float[] readFloats(ByteBuffer in) throws IOException
+    {
+	float[] values = new float[readLength(in, 4)];
+	in.asFloatBuffer().get(values);
+	in.position(in.position() + 4 * values.length);
+	return values;
+    }
+
+    /**
+     * Reads the length of an array and checks that the buffer holds that many values
+     */
+    private static int readLength(ByteBuffer in, int valueSize) throws IOException
+    {
+	if (in.remaining() < 4)
+	    throw new IOException("truncated glyph page");
+	int length = in.getInt();
+	if (length < 0 || (long) length * valueSize > in.remaining())
+	    throw new IOException("invalid array length " + length);
+	return length;
+    }
+
+    /**
+     * Converts a glyph to a text piece, as the parser used to create it
+     * @param i
+     *            the index of the glyph
+     * @return a new text piece
+     */
+    public TextPiece toTextPiece(int i)
+    {
+	TextPiece w = new TextPiece();
+	w.setX(x[i]);
+	w.setY(y[i]);
+	w.setFontSize(fontSize[i]);
+	w.setHeight(height[i]);
+	w.setXScale(xScale[i]);
+	w.setYScale(yScale[i]);
+	w.setWidth(width[i]);
+	w.setEndX(getEndX(i));
+	w.setEndY(getEndY(i));
+	w.setWidthOfSpace(widthOfSpace[i]);
+	w.setWordSpacing(wordSpacing[i]);
+	w.setText(getText(i));
+	return w;
+    }
+
+    /**
+     * Converts all the glyphs of the page to text pieces
+     * @return a list of new text pieces, in the order of the glyphs
+     */
+    public ArrayList<TextPiece> toTextPieces()
+    {
+	ArrayList<TextPiece> pieces = new ArrayList<TextPiece>(size);
+	for (int i = 0; i < size; i++)
+	    pieces.add(toTextPiece(i));
+	return pieces;
+    }
+}
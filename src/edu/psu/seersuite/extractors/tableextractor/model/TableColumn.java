@@ -1,38 +1,38 @@
-/**
- * 
- */
-package edu.psu.seersuite.extractors.tableextractor.model;
-
-import java.util.ArrayList;
-
-/**
- * This class defines the internal data structure for a table column.
- * 
- * @author Jing
- * 
- */
-public class TableColumn
-{
-   
-    private ArrayList<TextPiece> m_cells = new ArrayList<TextPiece>();
-
-    /**
-     * Adds a table cell into a table column
-     * @param cell
-     *            the cell to add
-     */
-    public void addCell(TextPiece cell)
-    {
-    	m_cells.add(cell);
-    }
-
-    /**
-     * Gets the cells of a table column 
-     * @return the table cells
-     */
-    public ArrayList<TextPiece> getCells()
-    {
-    	return m_cells;
-    }
-
-}
+/**
+ * 
+ */
+package edu.psu.seersuite.extractors.tableextractor.model;
+
+import java.util.ArrayList;
+
+/**
+ * This class defines the internal data structure for a table column.
+ * 
+ * @author Jing
+ * 
+ */
+public class TableColumn
+{
+   
+    private ArrayList<TextPiece> m_cells = new ArrayList<TextPiece>();
+
+    /**
+     * Adds a table cell into a table column
+     * @param cell
+     *            the cell to add
+     */
+    public void addCell(TextPiece cell)
+    {
+    	m_cells.add(cell);
+    }
+
+    /**
+     * Gets the cells of a table column 
+     * @return the table cells
+     */
+    public ArrayList<TextPiece> getCells()
+    {
+    	return m_cells;
+    }
+
+}
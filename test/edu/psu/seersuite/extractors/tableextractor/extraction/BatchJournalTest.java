@@ -0,0 +1,250 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks how a BatchJournal is resumed after a batch stopped: the line cut off by the stop, the length of the
+ * mysql-infile, the documents which changed and the fingerprint, and how ShardMerger copies the lines of the journals
+ * of the nodes.
+ */
+public class BatchJournalTest extends TestCase
+{
+    private static final String FINGERPRINT = "0123456789abcdef";
+
+    private File dir;
+    private File journalFile;
+
+    protected void setUp() throws IOException
+    {
+	dir = File.createTempFile("journal", "");
+	if (!dir.delete() || !dir.mkdir())
+	    throw new IOException("cannot create " + dir);
+	journalFile = new File(dir, "journal");
+    }
+
+    protected void tearDown()
+    {
+	File[] children = dir.listFiles();
+	for (File child : (children == null) ? new File[0] : children)
+	    child.delete();
+	dir.delete();
+    }
+
+    /**
+     * A line cut off by the stop is dropped from the file, and its document processed again
+     */
+    public void testCutOffLine() throws IOException
+    {
+	File a = writePdf("a.pdf", 100);
+	File b = writePdf("b.pdf", 200);
+	BatchJournal journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	journal.append(a, null, BatchJournal.SUCCESS, 2, null, 120, statistics(2));
+	journal.close();
+	long length = journalFile.length();
+	appendBytes(journalFile, "b.pdf\t-\t200\t");	//the stop cuts the line of b.pdf
+
+	journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertEquals(length, journalFile.length());
+	assertEquals(Arrays.asList("a.pdf"), journal.getNames());
+	assertTrue(journal.isCompleted(a));
+	assertFalse(journal.isCompleted(b));
+	journal.append(b, null, BatchJournal.SUCCESS, 1, null, 180, statistics(1));
+	journal.close();
+
+	journal = BatchJournal.load(journalFile);
+	assertEquals(Arrays.asList("a.pdf", "b.pdf"), journal.getNames());
+	assertEquals(3, journal.getTableNum());
+	journal.close();
+    }
+
+    /**
+     * The mysql-infile is cut back to the length after the tables of the last complete line
+     */
+    public void testOutputOffset() throws IOException
+    {
+	File a = writePdf("a.pdf", 100);
+	File b = writePdf("b.pdf", 200);
+	BatchJournal journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertEquals(-1, journal.getOutputOffset());
+	journal.append(a, null, BatchJournal.SUCCESS, 2, null, 120, statistics(2));
+	journal.append(b, null, BatchJournal.FAIL, 0, DocumentTriage.REJECT_TIMEOUT, 120, statistics(0));
+	journal.close();
+	appendBytes(journalFile, "c.pdf\t-\t300\t0\tsuccess\t3\t-\t400");	//the tables of c.pdf are not journaled
+
+	journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertEquals(120, journal.getOutputOffset());
+	assertEquals(0, journal.getOutputStart("a.pdf"));
+	assertEquals(120, journal.getOutputEnd("a.pdf"));
+	assertEquals(120, journal.getOutputStart("b.pdf"));
+	assertEquals(120, journal.getOutputEnd("b.pdf"));
+	assertEquals(1, journal.getCount(BatchJournal.SUCCESS));
+	assertEquals(Integer.valueOf(1), journal.getRejects().get(DocumentTriage.REJECT_TIMEOUT));
+	journal.close();
+
+	journal = new BatchJournal(journalFile, false, FINGERPRINT);
+	assertEquals(-1, journal.getOutputOffset());
+	assertTrue(journal.getNames().isEmpty());
+	journal.close();
+    }
+
+    /**
+     * A document whose file changed is processed again, and counted once with its last line; a file which was only
+     * touched is not, if its SHA-1 is journaled
+     */
+    public void testChangedPdf() throws IOException
+    {
+	File a = writePdf("a.pdf", 100);
+	File b = writePdf("b.pdf", 200);
+	BatchJournal journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	journal.append(a, BatchJournal.computeHash(a), BatchJournal.FAIL, 0, DocumentTriage.REJECT_TIMEOUT, 0,
+		statistics(0));
+	journal.append(b, null, BatchJournal.SUCCESS, 1, null, 50, statistics(1));
+	journal.close();
+
+	assertTrue(a.setLastModified(a.lastModified() - 10000));	//touched
+	assertTrue(b.setLastModified(b.lastModified() - 10000));
+	journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertTrue(journal.isCompleted(a));
+	assertFalse(journal.isCompleted(b));	//no SHA-1 to tell
+	writePdf("a.pdf", 150);
+	assertFalse(journal.isCompleted(a));
+	journal.append(a, null, BatchJournal.SUCCESS, 4, null, 130, statistics(4));
+	journal.close();
+
+	journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertEquals(Arrays.asList("b.pdf", "a.pdf"), journal.getNames());
+	assertEquals(2, journal.getCount(BatchJournal.SUCCESS));
+	assertEquals(0, journal.getCount(BatchJournal.FAIL));
+	assertTrue(journal.getRejects().isEmpty());
+	assertEquals(5, journal.getTableNum());
+	assertEquals(5, journal.getHeadingStatistics().getRows(HeadingStatistics.TIER_LEARNING));
+	assertEquals(50, journal.getOutputStart("a.pdf"));
+	assertEquals(130, journal.getOutputEnd("a.pdf"));
+	assertTrue(journal.isCompleted(a));
+	journal.close();
+    }
+
+    /**
+     * The lines of a journal written with another fingerprint are dropped
+     */
+    public void testOtherFingerprint() throws IOException
+    {
+	File a = writePdf("a.pdf", 100);
+	BatchJournal journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	journal.append(a, null, BatchJournal.SUCCESS, 2, null, 120, statistics(2));
+	journal.close();
+
+	journal = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertFalse(journal.isFingerprintChanged());
+	journal.close();
+	journal = new BatchJournal(journalFile, true, "fedcba9876543210");
+	assertTrue(journal.isFingerprintChanged());
+	assertTrue(journal.getNames().isEmpty());
+	assertEquals(-1, journal.getOutputOffset());
+	assertFalse(journal.isCompleted(a));
+	journal.close();
+	journal = BatchJournal.load(journalFile);
+	assertEquals("fedcba9876543210", journal.getFingerprint());
+	assertTrue(journal.getNames().isEmpty());
+	journal.close();
+    }
+
+    /**
+     * A loaded journal is only read, and its lines are copied as ShardMerger merges the journals of the nodes
+     */
+    public void testLoadAndMerge() throws IOException
+    {
+	File a = writePdf("a.pdf", 100);
+	File b = writePdf("b.pdf", 200);
+	File nodeFile = new File(dir, "node");
+	BatchJournal node = new BatchJournal(nodeFile, true, FINGERPRINT);
+	node.append(b, BatchJournal.computeHash(b), BatchJournal.SUCCESS, 1, null, 70, statistics(1));
+	node.append(a, null, BatchJournal.FAIL, 0, DocumentTriage.REJECT_TIMEOUT, 70, statistics(0));
+	node.close();
+
+	node = BatchJournal.load(nodeFile);
+	assertEquals(FINGERPRINT, node.getFingerprint());
+	try
+	{
+	    node.append(a, null, BatchJournal.SUCCESS, 0, null, 70, statistics(0));
+	    fail("a loaded journal is only read");
+	}
+	catch (IllegalStateException e)
+	{
+	    // expected
+	}
+
+	BatchJournal merged = new BatchJournal(journalFile, false, node.getFingerprint());
+	merged.append("a.pdf", node, 0);
+	merged.append("b.pdf", node, 70);
+	merged.close();
+	node.close();
+
+	merged = new BatchJournal(journalFile, true, FINGERPRINT);
+	assertFalse(merged.isFingerprintChanged());
+	assertEquals(Arrays.asList("a.pdf", "b.pdf"), merged.getNames());
+	assertEquals(0, merged.getOutputEnd("a.pdf"));
+	assertEquals(0, merged.getOutputStart("b.pdf"));
+	assertEquals(70, merged.getOutputEnd("b.pdf"));
+	assertEquals(70, merged.getOutputOffset());
+	assertEquals(1, merged.getCount(BatchJournal.SUCCESS));
+	assertEquals(Integer.valueOf(1), merged.getRejects().get(DocumentTriage.REJECT_TIMEOUT));
+	assertTrue(merged.isCompleted(a));
+	assertTrue(merged.isCompleted(b));
+	merged.close();
+    }
+
+    /**
+     * The heading statistics of a document whose tables are all classified by the random forests
+     */
+    private static HeadingStatistics statistics(int tableNum)
+    {
+	HeadingStatistics statistics = new HeadingStatistics();
+	for (int t = 0; t < tableNum; t++)
+	{
+	    statistics.countRows(HeadingStatistics.TIER_LEARNING);
+	    statistics.countColumns(HeadingStatistics.TIER_LEARNING);
+	}
+	return statistics;
+    }
+
+    /**
+     * Writes a file of a size, standing for a PDF document
+     */
+    private File writePdf(String name, int size) throws IOException
+    {
+	File file = new File(dir, name);
+	OutputStream out = new FileOutputStream(file);
+	try
+	{
+	    out.write(new byte[size]);
+	}
+	finally
+	{
+	    out.close();
+	}
+	return file;
+    }
+
+    private static void appendBytes(File file, String text) throws IOException
+    {
+	OutputStream out = new FileOutputStream(file, true);
+	try
+	{
+	    out.write(text.getBytes("UTF-8"));
+	}
+	finally
+	{
+	    out.close();
+	}
+    }
+}
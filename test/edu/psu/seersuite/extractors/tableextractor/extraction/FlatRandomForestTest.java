@@ -0,0 +1,145 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader;
+
+/**
+ * Checks that the compiled random forests (FlatRandomForest) give exactly the class distributions and the predictions
+ * of weka on the training models, row_feature.arff and col_feature.arff of the project directory. The timing of both is
+ * measured by ForestBenchmark.
+ */
+public class FlatRandomForestTest extends TestCase
+{
+    public void testRowFeatureForest() throws Exception
+    {
+	checkForest(new File("row_feature.arff"));
+    }
+
+    public void testColFeatureForest() throws Exception
+    {
+	checkForest(new File("col_feature.arff"));
+    }
+
+    /**
+     * A leaf without training weight, which weka can not normalize, gives a zero vote instead of NaN
+     */
+    public void testLeafWithoutWeight() throws Exception
+    {
+	FakeTree leaf = new FakeTree();
+	leaf.m_ClassDistribution = new double[] { 0.0, 0.0 };
+	FakeTree split = new FakeTree();
+	split.m_Attribute = 0;
+	split.m_SplitPoint = 0.5;
+	split.m_Prop = new double[] { 0.5, 0.5 };
+	split.m_Successors = new FakeTree[] { leaf, new FakeTree() };
+	split.m_Successors[1].m_ClassDistribution = new double[] { 1.0, 3.0 };
+	FakeForest forest = new FakeForest(split);
+
+	FlatRandomForest flat = FlatRandomForest.compile(forest, 2);
+	double[] dist = new double[2];
+	flat.distributionForVector(new double[] { 0.0 }, 0, dist);
+	assertEquals(0.0, dist[0], 0.0);
+	assertEquals(0.0, dist[1], 0.0);
+	assertTrue(Double.isNaN(flat.classify(new double[] { 0.0 })));
+	flat.distributionForVector(new double[] { 1.0 }, 0, dist);
+	assertEquals(0.25, dist[0], 0.0);
+	assertEquals(0.75, dist[1], 0.0);
+	flat.distributionForVector(new double[] { Instance.missingValue() }, 0, dist);
+	assertEquals(0.25, dist[0], 0.0);
+	assertEquals(0.75, dist[1], 0.0);
+    }
+
+    /**
+     * Compares the compiled forest and weka on every instance of a training model, as it is and with about a quarter
+     * of its values missing
+     */
+    private static void checkForest(File trainingModel) throws Exception
+    {
+	HeaderModel model = HeaderModelRegistry.train(trainingModel);
+	FlatRandomForest forest = model.getCompiledForest();
+	assertNotNull("the forest of " + trainingModel + " is not compiled", forest);
+	Classifier classifier = model.getClassifier();
+
+	ArffLoader loader = new ArffLoader();
+	loader.setFile(trainingModel);
+	Instances data = loader.getDataSet();
+	data.setClassIndex(data.numAttributes() - 1);
+
+	Random random = new Random(1);
+	double[] dist = new double[forest.getNumClasses()];
+	for (int i = 0; i < 2 * data.numInstances(); i++)
+	{
+	    double[] vector = data.instance(i % data.numInstances()).toDoubleArray();
+	    if (i >= data.numInstances())
+	    {
+		for (int a = 0; a < vector.length - 1; a++)
+		    if (random.nextInt(4) == 0)
+			vector[a] = Instance.missingValue();
+	    }
+	    Instance instance = new Instance(1.0, vector);
+	    instance.setDataset(model.getHeader());
+
+	    double[] expected = classifier.distributionForInstance(instance);
+	    forest.distributionForVector(vector, 0, dist);
+	    for (int c = 0; c < dist.length; c++)
+		assertEquals(trainingModel + " instance " + i + " class " + c, expected[c], dist[c], 0.0);
+	    assertEquals(trainingModel + " instance " + i, Double.valueOf(classifier.classifyInstance(instance)),
+		    Double.valueOf(forest.classify(vector)));	//NaN if no class is predicted
+	}
+    }
+
+    /**
+     * A node of a RandomTree, with the fields compile reads
+     */
+    static class FakeTree
+    {
+	int m_Attribute = -1;
+	double m_SplitPoint;
+	double[] m_Prop;
+	double[] m_ClassDistribution;
+	FakeTree[] m_Successors;
+    }
+
+    /**
+     * A RandomTree, holding its nodes as weka 3.6.8 and later do
+     */
+    static class FakeRandomTree
+    {
+	Object m_zeroR = null;
+	boolean m_AllowUnclassifiedInstances = false;
+	FakeTree m_Tree;
+    }
+
+    static class FakeBagging
+    {
+	Object[] m_Classifiers;
+    }
+
+    /**
+     * A RandomForest of one tree
+     */
+    static class FakeForest extends Classifier
+    {
+	FakeBagging m_bagger = new FakeBagging();
+
+	FakeForest(FakeTree root)
+	{
+	    FakeRandomTree tree = new FakeRandomTree();
+	    tree.m_Tree = root;
+	    m_bagger.m_Classifiers = new Object[] { tree };
+	}
+
+	public void buildClassifier(Instances data)
+	{
+	}
+    }
+}
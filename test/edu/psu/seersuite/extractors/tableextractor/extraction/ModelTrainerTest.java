@@ -0,0 +1,75 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader;
+
+/**
+ * Checks that the model files written by ModelTrainer read back into header models whose predictions are the ones of
+ * the random forests trained from the training models.
+ */
+public class ModelTrainerTest extends TestCase
+{
+    public void testRowFeatureModelFile() throws Exception
+    {
+	checkModelFile(new File("row_feature.arff"), FeatureSchema.ROW);
+    }
+
+    public void testColFeatureModelFile() throws Exception
+    {
+	checkModelFile(new File("col_feature.arff"), FeatureSchema.COL);
+    }
+
+    /**
+     * Trains a training model into a model file, reads it back, and compares its predictions with the ones of the
+     * random forest trained again from the training model (weka trains it with a fixed seed)
+     */
+    private static void checkModelFile(File trainingModel, FeatureSchema schema) throws Exception
+    {
+	File modelFile = File.createTempFile("header", ".model");
+	try
+	{
+	    assertTrue("the model file of " + trainingModel + " is not written",
+		    ModelTrainer.train(trainingModel.getPath(), modelFile.getPath()));
+	    assertTrue(HeaderModelFile.isModelFile(modelFile));
+	    HeaderModel loaded = HeaderModelFile.read(modelFile);
+	    assertSame(schema, loaded.getSchema());
+	    assertNull(loaded.getClassifier());
+
+	    Classifier classifier = HeaderModelRegistry.train(trainingModel).getClassifier();
+	    ArffLoader loader = new ArffLoader();
+	    loader.setFile(trainingModel);
+	    Instances data = loader.getDataSet();
+	    data.setClassIndex(data.numAttributes() - 1);
+
+	    FeatureBuffer features = new FeatureBuffer(schema, data.numInstances());
+	    for (int i = 0; i < data.numInstances(); i++)
+	    {
+		int vector = features.addVector();
+		double[] values = data.instance(i).toDoubleArray();
+		for (int f = 0; f < values.length; f++)
+		    features.setValue(vector, f, values[f]);
+	    }
+	    double[] predictions = new double[data.numInstances()];
+	    loaded.classifyAll(features, predictions);
+	    for (int i = 0; i < data.numInstances(); i++)
+	    {
+		Instance instance = data.instance(i);
+		Double expected = Double.valueOf(classifier.classifyInstance(instance));
+		assertEquals(trainingModel + " instance " + i, expected, Double.valueOf(loaded.classify(features, i)));
+		assertEquals(trainingModel + " instance " + i, expected, Double.valueOf(predictions[i]));
+	    }
+	}
+	finally
+	{
+	    modelFile.delete();
+	}
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+import edu.psu.seersuite.extractors.tableextractor.model.GlyphPage;
+
+/**
+ * Checks that the pages written to a ParsedTextCache read back as they were, that an entry which can not be read is a
+ * miss, that the cache is evicted by size and by age, and that the key of a document depends on the parser version.
+ */
+public class ParsedTextCacheTest extends TestCase
+{
+    private static final String PARSER_VERSION = "pdfbox-0.7.3/1/glyphs";
+    private static final long DAY = 24L * 3600 * 1000;
+
+    private File dir;
+
+    protected void setUp() throws IOException
+    {
+	dir = File.createTempFile("cache", "");
+	if (!dir.delete() || !dir.mkdir())
+	    throw new IOException("cannot create " + dir);
+    }
+
+    protected void tearDown()
+    {
+	delete(dir);
+    }
+
+    public void testRoundTrip() throws IOException
+    {
+	ParsedTextCache cache = new ParsedTextCache(dir, 0, 0);
+	ArrayList<Integer> pageNos = new ArrayList<Integer>();
+	ArrayList<GlyphPage> pages = new ArrayList<GlyphPage>();
+	pageNos.add(0);
+	pages.add(createPage(0));
+	pageNos.add(2);
+	pages.add(createPage(2));
+	cache.write("ab01", PARSER_VERSION, createTriage(), true, pageNos, pages);
+
+	ParsedTextCache.Entry entry = cache.read("ab01", PARSER_VERSION);
+	assertNotNull(entry);
+	assertTrue(entry.parsed);
+	assertEquals(12, entry.triage.getPageNum());
+	assertFalse(entry.triage.isEncrypted());
+	assertEquals(3, entry.triage.getSampledPageNum());
+	assertEquals(2, entry.triage.getTextPageNum());
+	assertEquals(2, entry.pages.length);
+	for (int p = 0; p < pages.size(); p++)
+	{
+	    assertEquals(pageNos.get(p).intValue(), entry.pageNos[p]);
+	    GlyphPage expected = pages.get(p);
+	    GlyphPage page = entry.pages[p];
+	    assertEquals(expected.size(), page.size());
+	    for (int i = 0; i < expected.size(); i++)
+	    {
+		assertEquals(expected.getX(i), page.getX(i), 0.0f);
+		assertEquals(expected.getY(i), page.getY(i), 0.0f);
+		assertEquals(expected.getWidth(i), page.getWidth(i), 0.0f);
+		assertEquals(expected.getHeight(i), page.getHeight(i), 0.0f);
+		assertEquals(expected.getFontSize(i), page.getFontSize(i), 0.0f);
+		assertEquals(expected.getXScale(i), page.getXScale(i), 0.0f);
+		assertEquals(expected.getYScale(i), page.getYScale(i), 0.0f);
+		assertEquals(expected.getWidthOfSpace(i), page.getWidthOfSpace(i), 0.0f);
+		assertEquals(expected.getWordSpacing(i), page.getWordSpacing(i), 0.0f);
+		assertEquals(expected.getText(i), page.getText(i));
+	    }
+	}
+
+	cache.write("ab02", PARSER_VERSION, createTriage(), false, new ArrayList<Integer>(), new ArrayList<GlyphPage>());
+	entry = cache.read("ab02", PARSER_VERSION);
+	assertFalse(entry.parsed);
+	assertEquals(0, entry.pages.length);
+	assertEquals(2, cache.getHitNum());
+	assertEquals(0, cache.getMissNum());
+    }
+
+    /**
+     * A truncated entry, an entry of an old format version and an entry of another parser are misses, and are
+     * deleted
+     */
+    public void testInvalidEntry() throws IOException
+    {
+	ParsedTextCache cache = new ParsedTextCache(dir, 0, 0);
+	assertNull(cache.read("cd01", PARSER_VERSION));
+	assertEquals(1, cache.getMissNum());
+
+	writeEntry(cache, "cd02");
+	File file = getFile("cd02");
+	RandomAccessFile raf = new RandomAccessFile(file, "rw");
+	try
+	{
+	    raf.setLength(raf.length() / 2);
+	}
+	finally
+	{
+	    raf.close();
+	}
+	assertNull(cache.read("cd02", PARSER_VERSION));
+	assertFalse(file.exists());
+
+	writeEntry(cache, "cd03");
+	file = getFile("cd03");
+	raf = new RandomAccessFile(file, "rw");
+	try
+	{
+	    raf.seek(4);	//after the magic number
+	    raf.writeInt(ParsedTextCache.VERSION - 1);
+	}
+	finally
+	{
+	    raf.close();
+	}
+	assertNull(cache.read("cd03", PARSER_VERSION));
+	assertFalse(file.exists());
+
+	writeEntry(cache, "cd04");
+	assertNull(cache.read("cd04", "pdfbox-0.7.3/1/words"));
+	assertFalse(getFile("cd04").exists());
+	assertEquals(4, cache.getMissNum());
+	assertEquals(0, cache.getHitNum());
+    }
+
+    /**
+     * The least recently used entries are deleted while the cache is larger than its size, down to 90% of it
+     */
+    public void testEvictionBySize() throws IOException
+    {
+	ParsedTextCache cache = new ParsedTextCache(dir, 0, 0);
+	String[] keys = { "ef01", "ef02", "ef03", "ef04" };
+	long now = System.currentTimeMillis();
+	for (int k = 0; k < keys.length; k++)
+	{
+	    writeEntry(cache, keys[k]);
+	    assertTrue(getFile(keys[k]).setLastModified(now - (keys.length - k) * 60000));	//ef01 is the oldest
+	}
+	long entrySize = getFile(keys[0]).length();
+	assertEquals(keys.length * entrySize, cache.getSize());
+	assertNotNull(cache.read("ef01", PARSER_VERSION));	//ef01 is used: ef02 is the least recently used
+
+	cache = new ParsedTextCache(dir, 3 * entrySize + entrySize / 2, 0);
+	assertFalse(getFile("ef02").exists());
+	assertTrue(getFile("ef01").exists());
+	assertTrue(getFile("ef03").exists());
+	assertTrue(getFile("ef04").exists());
+	assertEquals(3 * entrySize, cache.getSize());
+
+	writeEntry(cache, "ef05");	//the cache is too large again: ef03 goes
+	assertFalse(getFile("ef03").exists());
+	assertTrue(getFile("ef04").exists());
+	assertTrue(getFile("ef01").exists());
+	assertTrue(getFile("ef05").exists());
+	assertEquals(3 * entrySize, cache.getSize());
+    }
+
+    public void testEvictionByAge() throws IOException
+    {
+	ParsedTextCache cache = new ParsedTextCache(dir, 0, 0);
+	writeEntry(cache, "ab01");
+	writeEntry(cache, "ab02");
+	assertTrue(getFile("ab01").setLastModified(System.currentTimeMillis() - 3 * DAY));
+
+	cache = new ParsedTextCache(dir, 0, 2 * DAY);
+	assertFalse(getFile("ab01").exists());
+	assertTrue(getFile("ab02").exists());
+	assertNotNull(cache.read("ab02", PARSER_VERSION));
+    }
+
+    /**
+     * The key depends on the bytes of the file and on the parser version, and the SHA-1 of the file is kept for the
+     * journal
+     */
+    public void testKey() throws IOException
+    {
+	ParsedTextCache cache = new ParsedTextCache(dir, 0, 0);
+	File pdfFile = new File(dir, "a.pdf");
+	writeFile(pdfFile, "%PDF-1.4 a");
+	String key = cache.computeKey(pdfFile, PARSER_VERSION);
+	assertEquals(40, key.length());
+	assertEquals(key, cache.computeKey(pdfFile, PARSER_VERSION));
+	assertFalse(key.equals(cache.computeKey(pdfFile, "pdfbox-0.7.3/1/words")));
+	assertFalse(key.equals(cache.computeKey(pdfFile, "pdfbox-0.7.3/2/glyphs")));
+
+	assertEquals(BatchJournal.computeHash(pdfFile), cache.takeFileHash(pdfFile));
+	assertNull(cache.takeFileHash(pdfFile));
+
+	writeFile(pdfFile, "%PDF-1.4 b");
+	assertFalse(key.equals(cache.computeKey(pdfFile, PARSER_VERSION)));
+    }
+
+    private static DocumentTriage createTriage()
+    {
+	DocumentTriage triage = new DocumentTriage();
+	triage.setPageNum(12);
+	triage.setEncrypted(false);
+	triage.addSampledPage(true);
+	triage.addSampledPage(false);
+	triage.addSampledPage(true);
+	return triage;
+    }
+
+    private static GlyphPage createPage(int pageNo)
+    {
+	GlyphPage page = new GlyphPage(4);
+	String text = "Table " + (pageNo + 1) + ". Yield";
+	for (int i = 0; i < text.length(); i++)
+	    page.add(72 + 5.5f * i, 700 - pageNo, 5.5f, 10.25f, 10, 1, 1.5f, 2.75f, 0.1f * pageNo, text.substring(i, i + 1));
+	page.add(72, 680, 40, 10, 10, 1, 1, 2.75f, 0, "Entry");	//a word run
+	return page;
+    }
+
+    private static void writeEntry(ParsedTextCache cache, String key) throws IOException
+    {
+	ArrayList<Integer> pageNos = new ArrayList<Integer>();
+	ArrayList<GlyphPage> pages = new ArrayList<GlyphPage>();
+	pageNos.add(0);
+	pages.add(createPage(0));
+	cache.write(key, PARSER_VERSION, createTriage(), true, pageNos, pages);
+    }
+
+    private File getFile(String key)
+    {
+	return new File(new File(dir, key.substring(0, 2)), key + ParsedTextCache.SUFFIX);
+    }
+
+    private static void writeFile(File file, String text) throws IOException
+    {
+	OutputStream out = new FileOutputStream(file);
+	try
+	{
+	    out.write(text.getBytes("ISO-8859-1"));
+	}
+	finally
+	{
+	    out.close();
+	}
+    }
+
+    private static void delete(File file)
+    {
+	File[] children = file.listFiles();
+	if (children != null)
+	{
+	    for (File child : children)
+		delete(child);
+	}
+	file.delete();
+    }
+}
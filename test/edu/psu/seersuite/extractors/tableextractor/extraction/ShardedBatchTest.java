@@ -0,0 +1,217 @@
+/**
+ * This package defines the core table extraction classes
+ */
+package edu.psu.seersuite.extractors.tableextractor.extraction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs the nodes of a sharded batch (see the --leases and --node options of BatchExtractor) as separate JVMs on one
+ * input directory, and checks that every document is extracted by exactly one node, and that ShardMerger merges all
+ * of them. The nodes have no static shard, so they go through the documents in the same order and compete for each
+ * of them.
+ */
+public class ShardedBatchTest extends TestCase
+{
+    private static final int DOCUMENT_NUM = 24;
+    private static final String[] NODES = { "a", "b", "c" };
+    private static final long NODE_TIMEOUT = 10 * 60 * 1000;	//in milliseconds
+
+    private File dir;
+
+    protected void setUp() throws IOException
+    {
+	dir = File.createTempFile("sharded", "");
+	if (!dir.delete() || !dir.mkdir())
+	    throw new IOException("cannot create " + dir);
+    }
+
+    protected void tearDown()
+    {
+	delete(dir);
+    }
+
+    public void testEveryDocumentExtractedOnce() throws Exception
+    {
+	File pdfDir = new File(dir, "pdfs");
+	File outputDir = new File(dir, "out");
+	File leaseDir = new File(dir, "leases");
+	pdfDir.mkdir();
+	TreeSet<String> names = new TreeSet<String>();
+	for (int d = 0; d < DOCUMENT_NUM; d++)
+	{
+	    String name = String.format("doc%03d.pdf", d);
+	    writePdf(new File(pdfDir, name), d);
+	    names.add(name);
+	}
+	File rowModel = new File(dir, "row_feature.model");
+	File colModel = new File(dir, "col_feature.model");
+	assertTrue(ModelTrainer.train("row_feature.arff", rowModel.getPath()));
+	assertTrue(ModelTrainer.train("col_feature.arff", colModel.getPath()));
+
+	/*
+	 *  The nodes run at the same time
+	 */
+	List<Process> processes = new ArrayList<Process>();
+	Map<Process, ByteArrayOutputStream> outputs = new HashMap<Process, ByteArrayOutputStream>();
+	Timer watchdog = new Timer("node-watchdog", true);
+	for (String node : NODES)
+	{
+	    List<String> command = new ArrayList<String>();
+	    command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+	    command.add("-cp");
+	    command.add(System.getProperty("java.class.path"));
+	    command.add(BatchExtractor.class.getName());
+	    command.add(pdfDir.getPath());
+	    command.add(rowModel.getPath());
+	    command.add(colModel.getPath());
+	    command.add(outputDir.getPath());
+	    command.add("pdfbox");
+	    command.add("--leases=" + leaseDir.getPath());
+	    command.add("--lease-time=30");
+	    command.add("--node=" + node);
+	    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+	    ByteArrayOutputStream output = new ByteArrayOutputStream();
+	    copy(process.getInputStream(), output);
+	    processes.add(process);
+	    outputs.put(process, output);
+	    watchdog.schedule(new TimerTask(){
+		public void run(){
+		    process.destroy();
+		}
+	    }, NODE_TIMEOUT);
+	}
+	for (Process process : processes)
+	{
+	    int exitCode = process.waitFor();
+	    assertEquals("node output:\n" + outputs.get(process), 0, exitCode);
+	}
+	watchdog.cancel();
+
+	/*
+	 *  Each document is in the journal of exactly one node
+	 */
+	TreeSet<String> extracted = new TreeSet<String>();
+	for (String node : NODES)
+	{
+	    File journalFile = new File(new File(new File(outputDir, ShardMerger.SHARDS_DIR), node), "journal");
+	    assertTrue(journalFile + " not written", journalFile.isFile());
+	    BatchJournal journal = BatchJournal.load(journalFile);
+	    for (String name : journal.getNames())
+		assertTrue(name + " extracted twice", extracted.add(name));
+	    journal.close();
+	}
+	assertEquals(names, extracted);
+
+	/*
+	 *  The merged journal has them all
+	 */
+	assertEquals(DOCUMENT_NUM, ShardMerger.merge(outputDir));
+	BatchJournal merged = BatchJournal.load(new File(outputDir, "journal"));
+	assertEquals(new ArrayList<String>(names), merged.getNames());
+	merged.close();
+    }
+
+    /**
+     * Writes a one-page PDF document with a caption and the rows of a small table
+     */
+    private static void writePdf(File file, int d) throws IOException
+    {
+	StringBuilder content = new StringBuilder();
+	content.append("BT /F1 10 Tf 72 740 Td (Results of the synthesis of compound " + d + ") Tj ET\n");
+	content.append("BT /F1 10 Tf 72 700 Td (Table 1. Yield of the reactions of series " + d + ") Tj ET\n");
+	String[] heading = { "Entry", "Solvent", "Time", "Yield" };
+	for (int c = 0; c < heading.length; c++)
+	    content.append("BT /F1 10 Tf " + (72 + 100 * c) + " 680 Td (" + heading[c] + ") Tj ET\n");
+	for (int r = 0; r < 6; r++)
+	{
+	    String[] row = { "" + (r + 1), (r % 2 == 0) ? "THF" : "DMF", (2 * r + d % 5) + " h", (40 + 7 * r + d) + "%" };
+	    for (int c = 0; c < row.length; c++)
+		content.append("BT /F1 10 Tf " + (72 + 100 * c) + " " + (664 - 14 * r) + " Td (" + row[c] + ") Tj ET\n");
+	}
+
+	String[] objects = {
+		"<< /Type /Catalog /Pages 2 0 R >>",
+		"<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+		"<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Contents 4 0 R /Resources << /Font << /F1 5 0 R >> >> >>",
+		"<< /Length " + content.length() + " >>\nstream\n" + content + "endstream",
+		"<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>" };
+	StringBuilder pdf = new StringBuilder("%PDF-1.4\n");
+	int[] offsets = new int[objects.length];
+	for (int i = 0; i < objects.length; i++)
+	{
+	    offsets[i] = pdf.length();
+	    pdf.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+	}
+	int xref = pdf.length();
+	pdf.append("xref\n0 ").append(objects.length + 1).append("\n0000000000 65535 f \n");
+	for (int offset : offsets)
+	    pdf.append(String.format("%010d 00000 n \n", offset));
+	pdf.append("trailer\n<< /Size ").append(objects.length + 1).append(" /Root 1 0 R >>\nstartxref\n").append(xref)
+		.append("\n%%EOF\n");
+
+	OutputStream out = new FileOutputStream(file);
+	try
+	{
+	    out.write(pdf.toString().getBytes("ISO-8859-1"));
+	}
+	finally
+	{
+	    out.close();
+	}
+    }
+
+    /**
+     * Copies the output of a node in the background
+     */
+    private static void copy(final InputStream in, final ByteArrayOutputStream out)
+    {
+	Thread copier = new Thread("node-output"){
+	    public void run(){
+		byte[] buffer = new byte[4096];
+		try
+		{
+		    int n;
+		    while ((n = in.read(buffer)) > 0)
+		    {
+			synchronized (out)
+			{
+			    out.write(buffer, 0, n);
+			}
+		    }
+		}
+		catch (IOException e)
+		{
+		    // the node is gone
+		}
+	    }
+	};
+	copier.setDaemon(true);
+	copier.start();
+    }
+
+    private static void delete(File file)
+    {
+	File[] children = file.listFiles();
+	if (children != null)
+	{
+	    for (File child : children)
+		delete(child);
+	}
+	file.delete();
+    }
+}